@@ -0,0 +1,59 @@
+package com.CC.Constraints.Formulas;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// per-call reflection (old FBfunc.bfuncCaller) vs. cached bfunc handle
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BfuncInvokerBenchmark {
+
+    public static class SampleBfunc {
+        public boolean bfunc(String funcName, Map<String, Map<String, String>> vcMap) {
+            if(funcName.equals("same_taxi")){
+                return vcMap.get("v1").get("taxiId").equals(vcMap.get("v2").get("taxiId"));
+            }
+            return Double.parseDouble(vcMap.get("v1").get("speed")) <= 60;
+        }
+    }
+
+    static final String[] FUNCS = {"same_taxi", "speed_ok"};
+
+    private Object bfuncInstance;
+    private BfuncInvoker invoker;
+    private Map<String, Map<String, String>> vcMap;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bfuncInstance = new SampleBfunc();
+        invoker = BfuncInvoker.bind(bfuncInstance);
+        vcMap = new HashMap<>();
+        for(String pos : new String[]{"v1", "v2"}){
+            Map<String, String> ctxInfos = new HashMap<>();
+            ctxInfos.put("ctx_id", "ctx_" + pos);
+            ctxInfos.put("taxiId", "B01234");
+            ctxInfos.put("speed", "42");
+            vcMap.put(pos, ctxInfos);
+        }
+    }
+
+    @Benchmark
+    public boolean reflection() throws Exception {
+        Method m = bfuncInstance.getClass().getMethod("bfunc", String.class, Class.forName("java.util.Map"));
+        return (boolean) m.invoke(bfuncInstance, FUNCS[next++ & 1], vcMap);
+    }
+
+    @Benchmark
+    public boolean handle() {
+        return invoker.invoke(FUNCS[next++ & 1], vcMap);
+    }
+}
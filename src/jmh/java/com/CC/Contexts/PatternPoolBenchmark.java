@@ -0,0 +1,56 @@
+package com.CC.Contexts;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// HashSet (old per-rule pool set) vs. PatternPool view, for the pool traffic of a checking run:
+// a sliding window of live contexts (an addition and an expiry per change) and a full iteration per batch (createBranches_*)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternPoolBenchmark {
+
+    static final int WINDOW = 512;
+    static final int CHANGES = 20_000;
+    static final int BATCH = 8;
+
+    @Param({"HashSet", "PatternPool"})
+    public String pool;
+
+    private Context[] contexts;
+
+    @Setup
+    public void setUp() {
+        contexts = new Context[WINDOW + CHANGES];
+        for(int i = 0; i < contexts.length; ++i){
+            contexts[i] = new Context();
+            contexts[i].setId(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHANGES)
+    public long slidingWindow() {
+        Set<Context> poolSet = pool.equals("HashSet") ? new HashSet<>() : new PatternPool().newView();
+        long sink = 0;
+        for(int i = 0; i < WINDOW; ++i){
+            poolSet.add(contexts[i]);
+        }
+        for(int i = 0; i < CHANGES; ++i){
+            poolSet.remove(contexts[i]);
+            poolSet.add(contexts[WINDOW + i]);
+            if(i % BATCH == 0){
+                for(Context context : poolSet){
+                    sink += context.getId();
+                }
+            }
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,70 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Formulas.BfuncInvoker;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// fork-join pool vs. virtual threads, per-branch tasks of a forall-forall rule calling a bfunc that blocks
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingBfuncBenchmark {
+
+    static final int OUTER = 32;
+    static final int INNER = 16;
+    static final long BLOCK_MILLIS = 2;
+
+    // stands in for a bfunc asking a lookup service on localhost
+    public static class SleepingBfunc {
+        public boolean bfunc(String funcName, Map<String, Map<String, String>> vcMap) throws InterruptedException {
+            Thread.sleep(BLOCK_MILLIS);
+            return !vcMap.get("v1").get("id").equals(vcMap.get("v2").get("id"));
+        }
+    }
+
+    @Param({"FORKJOIN", "VIRTUAL"})
+    public CheckExecutor.Mode mode;
+
+    private CheckExecutor executor;
+    private BfuncInvoker invoker;
+
+    @Setup
+    public void setUp() {
+        executor = mode == CheckExecutor.Mode.VIRTUAL
+                ? CheckExecutor.virtual(CheckExecutor.DEFAULT_BLOCKING_PERMITS)
+                : new CheckExecutor(CheckExecutor.defaultParallelism());
+        invoker = BfuncInvoker.bind(new SleepingBfunc());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    // truth of forall v1 forall v2 (bfunc), branches evaluated like ConC truthEvaluation
+    @Benchmark
+    public boolean check() {
+        boolean result = true;
+        for(boolean outerTruth : executor.invokeRange(0, OUTER, i -> {
+            boolean innerResult = true;
+            for(boolean truth : executor.invokeRange(0, INNER, j -> {
+                Map<String, Map<String, String>> vcMap = new HashMap<>();
+                vcMap.put("v1", Map.of("id", "o" + i));
+                vcMap.put("v2", Map.of("id", "i" + j));
+                return executor.invokeBfunc(invoker, "distinct", vcMap);
+            })){
+                innerResult = innerResult && truth;
+            }
+            return innerResult;
+        })){
+            result = result && outerTruth;
+        }
+        return result;
+    }
+}
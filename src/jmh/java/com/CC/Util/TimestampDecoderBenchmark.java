@@ -0,0 +1,54 @@
+package com.CC.Util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// SimpleDateFormat (old ContextHandler path) vs. TimestampDecoder, per timestamp
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampDecoderBenchmark {
+
+    static final int SAMPLES = 4096;
+
+    private String[] samples;
+    private SimpleDateFormat simpleDateFormat;
+    private TimestampDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        simpleDateFormat = new SimpleDateFormat(TimestampDecoder.PATTERN);
+        decoder = new TimestampDecoder();
+        long base = 1302235200806L;
+        samples = new String[SAMPLES];
+        for(int i = 0; i < SAMPLES; ++i){
+            samples[i] = simpleDateFormat.format(new Date(base + (long) (random.nextDouble() * 400L * 24 * 3600 * 1000)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void simpleDateFormat(Blackhole blackhole) throws ParseException {
+        for(String sample : samples){
+            blackhole.consume(simpleDateFormat.parse(sample).getTime());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void timestampDecoder(Blackhole blackhole) throws ParseException {
+        for(String sample : samples){
+            blackhole.consume(decoder.decode(sample));
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.CC;
 
+import com.CC.Contexts.ContextSchema;
+import com.CC.Middleware.CheckExecutor;
+import com.CC.Middleware.Schedulers.BatchBound;
+import com.CC.Middleware.StreamingLinkSink;
 import com.CC.Util.Loggable;
 import org.apache.commons.cli.*;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 
@@ -95,6 +101,89 @@ public class CLIParser implements Loggable {
                 .desc("Specify the type of data in dataFile [rawData/change]")
                 .build();
 
+        // tuning
+        Option opt_cs = Option.builder("ctxstore")
+                .argName("store")
+                .hasArg()
+                .required(false)
+                .desc("Storage of context fields [map/typed], default map")
+                .build();
+
+        Option opt_sc = Option.builder("schema")
+                .argName("fields")
+                .hasArg()
+                .required(false)
+                .desc("Declared field types for typed contexts, e.g. taxiId:string,longitude:double,speed:long (undeclared fields are inferred)")
+                .build();
+
+        Option opt_fd = Option.builder("fields")
+                .argName("fields")
+                .hasArg()
+                .required(false)
+                .desc("Only keep the given context fields (comma separated) when reading data, fields used by primary-key matchers are always kept")
+                .build();
+
+        Option opt_mm = Option.builder("mfuncmemo")
+                .argName("entries")
+                .hasArg()
+                .optionalArg(true)
+                .required(false)
+                .desc("Memoize mfunction results per function matcher (default 4096 entries), only for mfuncs that depend on the context fields and extra arguments alone")
+                .build();
+
+        Option opt_th = Option.builder("threads")
+                .argName("threads")
+                .hasArg()
+                .required(false)
+                .desc("Number of threads shared by concurrent checking and scheduling, default one per core (with -executor virtual: bfunc calls in flight, default " + CheckExecutor.DEFAULT_BLOCKING_PERMITS + ")")
+                .build();
+
+        Option opt_ex = Option.builder("executor")
+                .argName("kind")
+                .hasArg()
+                .required(false)
+                .desc("Executor of concurrent checking: forkjoin (default) or virtual (a virtual thread per task, for bfuncs that block)")
+                .build();
+
+        Option opt_gr = Option.builder("grain")
+                .argName("tasks")
+                .hasArg()
+                .required(false)
+                .desc("Sequential cutoff of concurrent branch creation, truth evaluation and link generation (default " + CheckExecutor.DEFAULT_GRAIN + " tasks)")
+                .build();
+
+        Option opt_lw = Option.builder("linkwindow")
+                .argName("lines")
+                .hasArg()
+                .required(false)
+                .desc("Distinct incs lines remembered to drop repeated links (default " + StreamingLinkSink.DEFAULT_DEDUP_WINDOW + "), a repeat older than that is written again")
+                .build();
+
+        Option opt_ll = new Option("lazylinks", false, "Generate a rule's links only when its truth value flips and at the end of checking; violations that appear and clear while the truth value stays the same are not reported (not with GEAS_opt schedules)");
+
+        Option opt_rp = new Option("ruleparallel", false, "Check the rules touched by a change in parallel (IMD and INFUSE schedules)");
+
+        Option opt_bc = Option.builder("batchcap")
+                .argName("changes")
+                .hasArg()
+                .required(false)
+                .desc("Also close a rule's batch when it holds this many changes, and report detection delays (GEAS and INFUSE schedules)")
+                .build();
+
+        Option opt_ba = Option.builder("batchage")
+                .argName("ms")
+                .hasArg()
+                .required(false)
+                .desc("Also close a rule's batch when its oldest change is this old, and report detection delays (GEAS and INFUSE schedules)")
+                .build();
+
+        Option opt_bk = Option.builder("batchclock")
+                .argName("clock")
+                .hasArg()
+                .required(false)
+                .desc("Clock of -batchage: wall (default, arrival time) or event (record timestamps, needs -datatype rawData)")
+                .build();
+
         Options options = new Options();
         options.addOption(opt_h);
         options.addOption(opt_rf);
@@ -107,6 +196,19 @@ public class CLIParser implements Loggable {
         options.addOption(opt_dt);
         options.addOption(opt_mg);
         options.addOption(opt_oi);
+        options.addOption(opt_cs);
+        options.addOption(opt_sc);
+        options.addOption(opt_fd);
+        options.addOption(opt_mm);
+        options.addOption(opt_th);
+        options.addOption(opt_ex);
+        options.addOption(opt_gr);
+        options.addOption(opt_lw);
+        options.addOption(opt_ll);
+        options.addOption(opt_rp);
+        options.addOption(opt_bc);
+        options.addOption(opt_ba);
+        options.addOption(opt_bk);
 
         CommandLine cli = null;
         CommandLineParser cliParser = new DefaultParser();
@@ -260,17 +362,195 @@ java -jar INFUSE.jar
                 logger.info(String.format("The inconsistency file is \"%s\"", incs));
             }
 
+            // tuning
+            RunOptions runOptions = new RunOptions();
+            String ctxStore = cli.getOptionValue("ctxstore", "map");
+            if(ctxStore.equalsIgnoreCase("typed")){
+                try {
+                    runOptions.setContextSchema(ContextSchema.parse(cli.getOptionValue("schema")));
+                } catch (IllegalArgumentException e) {
+                    logger.error("\033[91m" + "The schema is illegal: " + e.getMessage() + "\033[0m");
+                    System.exit(1);
+                }
+                logger.info("Context fields are stored in typed slots");
+            }
+            else if(!ctxStore.equalsIgnoreCase("map")){
+                logger.error("\033[91m" + "The context store is illegal, available stores: [map/typed]" + "\033[0m");
+                logger.info("\033[92m" + "Use option \"-help\" for more information"  + "\033[0m");
+                System.exit(1);
+            }
+            else if(cli.hasOption("schema")){
+                logger.info("Option \"-schema\" is ignored without \"-ctxstore typed\"");
+            }
+            if(cli.hasOption("fields")){
+                Set<String> keptFields = new HashSet<>();
+                for(String field : cli.getOptionValue("fields").split(",")){
+                    if(!field.isBlank()){
+                        keptFields.add(field.trim());
+                    }
+                }
+                runOptions.setKeptFields(keptFields);
+                logger.info(String.format("Only fields %s are kept from the data", keptFields));
+            }
+            if(cli.hasOption("mfuncmemo")){
+                int entries = 4096;
+                if(cli.getOptionValue("mfuncmemo") != null){
+                    try {
+                        entries = Integer.parseInt(cli.getOptionValue("mfuncmemo").trim());
+                    } catch (NumberFormatException e) {
+                        entries = -1;
+                    }
+                }
+                if(entries <= 0){
+                    logger.error("\033[91m" + "The mfunction memo size should be a positive integer" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setMfuncMemoCapacity(entries);
+                logger.info(String.format("Mfunction results are memoized, at most %d entries per matcher", entries));
+            }
+            if(cli.hasOption("threads")){
+                int threads;
+                try {
+                    threads = Integer.parseInt(cli.getOptionValue("threads").trim());
+                } catch (NumberFormatException e) {
+                    threads = -1;
+                }
+                if(threads <= 0){
+                    logger.error("\033[91m" + "The number of threads should be a positive integer" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setThreads(threads);
+            }
+            if(cli.hasOption("executor")){
+                String kind = cli.getOptionValue("executor").trim();
+                if(kind.equalsIgnoreCase("forkjoin")){
+                    runOptions.setExecutorMode(CheckExecutor.Mode.FORKJOIN);
+                }
+                else if(kind.equalsIgnoreCase("virtual")){
+                    runOptions.setExecutorMode(CheckExecutor.Mode.VIRTUAL);
+                }
+                else{
+                    logger.error("\033[91m" + "Illegal executor \"" + kind + "\", expected forkjoin or virtual" + "\033[0m");
+                    System.exit(1);
+                }
+            }
+            if(runOptions.getExecutorMode() == CheckExecutor.Mode.VIRTUAL){
+                logger.info(String.format("Checking uses virtual threads, at most %d bfunc calls at once", runOptions.getThreads() > 0 ? runOptions.getThreads() : CheckExecutor.DEFAULT_BLOCKING_PERMITS));
+            }
+            else{
+                logger.info(String.format("Checking uses up to %d threads", runOptions.getThreads() > 0 ? runOptions.getThreads() : CheckExecutor.defaultParallelism()));
+            }
+            if(cli.hasOption("grain")){
+                int grain;
+                try {
+                    grain = Integer.parseInt(cli.getOptionValue("grain").trim());
+                } catch (NumberFormatException e) {
+                    grain = -1;
+                }
+                if(grain <= 0){
+                    logger.error("\033[91m" + "The grain should be a positive integer" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setGrain(grain);
+            }
+            if(cli.hasOption("linkwindow")){
+                int lines;
+                try {
+                    lines = Integer.parseInt(cli.getOptionValue("linkwindow").trim());
+                } catch (NumberFormatException e) {
+                    lines = -1;
+                }
+                if(lines <= 0){
+                    logger.error("\033[91m" + "The link window should be a positive integer" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setLinkWindow(lines);
+            }
+            if(cli.hasOption("lazylinks")){
+                if(approach.contains("GEAS_opt")){
+                    // their C-condition reads the critical sets of every batch
+                    logger.info("Option \"-lazylinks\" is ignored by GEAS_opt schedules");
+                }
+                else{
+                    runOptions.setLazyLinks(true);
+                }
+            }
+            if(cli.hasOption("ruleparallel")){
+                runOptions.setRuleParallel(true);
+                if(approach.contains("GEAS")){
+                    logger.info("Option \"-ruleparallel\" is ignored by GEAS schedules");
+                }
+                else{
+                    logger.info("Rules are checked in parallel");
+                }
+            }
+
+            if(cli.hasOption("batchcap")){
+                int changes;
+                try {
+                    changes = Integer.parseInt(cli.getOptionValue("batchcap").trim());
+                } catch (NumberFormatException e) {
+                    changes = -1;
+                }
+                if(changes <= 0){
+                    logger.error("\033[91m" + "The batch cap should be a positive integer" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setBatchCap(changes);
+            }
+            if(cli.hasOption("batchage")){
+                long millis;
+                try {
+                    millis = Long.parseLong(cli.getOptionValue("batchage").trim());
+                } catch (NumberFormatException e) {
+                    millis = -1;
+                }
+                if(millis <= 0){
+                    logger.error("\033[91m" + "The batch age should be a positive number of milliseconds" + "\033[0m");
+                    System.exit(1);
+                }
+                runOptions.setBatchAge(millis);
+            }
+            if(cli.hasOption("batchclock")){
+                String clock = cli.getOptionValue("batchclock").trim();
+                if(clock.equalsIgnoreCase("wall")){
+                    runOptions.setBatchClock(BatchBound.Clock.WALL);
+                }
+                else if(clock.equalsIgnoreCase("event")){
+                    if(!dataType.equals("rawData")){
+                        // change data carries no timestamps
+                        logger.error("\033[91m" + "Option \"-batchclock event\" needs \"-datatype rawData\"" + "\033[0m");
+                        System.exit(1);
+                    }
+                    runOptions.setBatchClock(BatchBound.Clock.EVENT);
+                }
+                else{
+                    logger.error("\033[91m" + "Illegal batch clock \"" + clock + "\", expected wall or event" + "\033[0m");
+                    System.exit(1);
+                }
+            }
+            if(runOptions.isBatchBounded()){
+                if(!approach.contains("GEAS") && !approach.contains("INFUSE_S") && !approach.equalsIgnoreCase("INFUSE")){
+                    logger.info("Options \"-batchcap\" and \"-batchage\" are ignored by IMD schedules");
+                }
+                else{
+                    logger.info(String.format("Batches are bounded (cap %s, age %s), detection delays are reported",
+                            runOptions.getBatchCap() > 0 ? runOptions.getBatchCap() + " changes" : "none",
+                            runOptions.getBatchAge() > 0 ? runOptions.getBatchAge() + " ms " + runOptions.getBatchClock().name().toLowerCase() + " time" : "none"));
+                }
+            }
+
             // start
             if(checkingMode.equalsIgnoreCase("offline")){
                 long startTime = System.nanoTime();
                 OfflineStarter offlineStarter = new OfflineStarter();
-                offlineStarter.start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataFile, dataType, isMG, incs);
+                offlineStarter.start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataFile, dataType, isMG, incs, runOptions);
                 long totalTime = System.nanoTime() - startTime;
                 logger.info("\033[92m" + "Time cost: " + totalTime / 1000000L + " ms\033[0m");
             }
             else if(checkingMode.equalsIgnoreCase("online")){
                 OnlineStarter onlineStarter = new OnlineStarter();
-                onlineStarter.start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataType, isMG, incs);
+                onlineStarter.start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataType, isMG, incs, runOptions);
             }
         }
     }
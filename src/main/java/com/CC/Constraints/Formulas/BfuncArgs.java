@@ -0,0 +1,103 @@
+package com.CC.Constraints.Formulas;
+
+import com.CC.Contexts.Context;
+import com.CC.Contexts.ContextView;
+
+import java.util.*;
+
+/*
+ * the vcMap passed to bfunc: pos -> read-only view of the bound context.
+ * one instance per platform thread (fork-join workers, the checking thread), its per-position views are
+ * reused across calls, so bfunc must not keep the map (or the views) after it returns.
+ * a virtual thread runs a single branch and is gone, so it gets a fresh instance instead of a thread-local one.
+ */
+final class BfuncArgs extends AbstractMap<String, Map<String, String>> {
+
+    private static final ThreadLocal<BfuncArgs> POOL = ThreadLocal.withInitial(BfuncArgs::new);
+
+    private String[] positions = new String[4];
+    private ContextView[] views = new ContextView[4];
+    private int size = 0;
+
+    static BfuncArgs acquire() {
+        if(Thread.currentThread().isVirtual()){
+            return new BfuncArgs();
+        }
+        BfuncArgs args = POOL.get();
+        args.size = 0;
+        return args;
+    }
+
+    void bind(String pos, Context context) {
+        if(size == positions.length){
+            positions = Arrays.copyOf(positions, size * 2);
+            views = Arrays.copyOf(views, size * 2);
+        }
+        if(views[size] == null){
+            views[size] = new ContextView();
+        }
+        positions[size] = pos;
+        views[size].bind(context);
+        size++;
+    }
+
+    // drop context references so the pooled views don't pin expired contexts
+    void release() {
+        for(int i = 0; i < size; ++i){
+            views[i].bind(null);
+        }
+        size = 0;
+    }
+
+    @Override
+    public Map<String, String> get(Object key) {
+        for(int i = 0; i < size; ++i){
+            if(positions[i].equals(key)){
+                return views[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Map<String, String>>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Map<String, String>>> iterator() {
+                return new Iterator<>() {
+                    int i = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < size;
+                    }
+
+                    @Override
+                    public Entry<String, Map<String, String>> next() {
+                        if(i >= size){
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Map<String, String>> entry = new SimpleImmutableEntry<>(positions[i], views[i]);
+                        i++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
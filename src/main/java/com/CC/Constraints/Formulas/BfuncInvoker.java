@@ -0,0 +1,60 @@
+package com.CC.Constraints.Formulas;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+/*
+ * bfunc binding: resolve bfunc(String, Map) of the user's Bfunction class once,
+ * then every FBfunc node calls the cached handle directly (no getMethod/Method.invoke per evaluation)
+ */
+public final class BfuncInvoker {
+
+    private static final MethodType BFUNC_TYPE = MethodType.methodType(boolean.class, String.class, Map.class);
+
+    private final Object bfuncInstance;
+    // (String, Map) -> boolean, receiver already bound
+    private final MethodHandle bfuncHandle;
+
+    private BfuncInvoker(Object bfuncInstance, MethodHandle bfuncHandle) {
+        this.bfuncInstance = bfuncInstance;
+        this.bfuncHandle = bfuncHandle;
+    }
+
+    public static BfuncInvoker bind(Object bfuncInstance) {
+        if(bfuncInstance instanceof BfuncInvoker){
+            return (BfuncInvoker) bfuncInstance;
+        }
+        try {
+            MethodHandle mh = MethodHandles.publicLookup()
+                    .findVirtual(bfuncInstance.getClass(), "bfunc", BFUNC_TYPE);
+            return new BfuncInvoker(bfuncInstance, mh.bindTo(bfuncInstance).asType(BFUNC_TYPE));
+        } catch (NoSuchMethodException e) {
+            // bfunc declared with a boxed return type
+            try {
+                MethodHandle mh = MethodHandles.publicLookup()
+                        .findVirtual(bfuncInstance.getClass(), "bfunc", MethodType.methodType(Boolean.class, String.class, Map.class));
+                return new BfuncInvoker(bfuncInstance, mh.bindTo(bfuncInstance).asType(BFUNC_TYPE));
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean invoke(String func, Map<String, Map<String, String>> vcMap) {
+        try {
+            return (boolean) bfuncHandle.invokeExact(func, (Map) vcMap);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Object getBfuncInstance() {
+        return bfuncInstance;
+    }
+}
@@ -3,19 +3,21 @@ package com.CC.Constraints.Formulas;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
-import com.CC.Contexts.Context;
+import com.CC.Constraints.Runtime.VarEnv;
+import com.CC.Constraints.Runtime.VarSlots;
 import com.CC.Contexts.ContextChange;
 import com.CC.Middleware.Checkers.Checker;
 import com.CC.Middleware.Schedulers.Scheduler;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.*;
 
 public class FBfunc extends Formula {
 
     private String func = null;  // Function name
     private HashMap<String, String> params = new HashMap<>();
+    // params resolved to the rule's VarEnv slots when the rule is built
+    private String[] paramPos = new String[0];
+    private int[] paramSlots = new int[0];
 
     //constructor
     public FBfunc(String _func) {
@@ -29,6 +31,16 @@ public class FBfunc extends Formula {
         params.put(pos, var);
     }
 
+    public void resolveSlots(VarSlots vars) {
+        paramPos = new String[params.size()];
+        paramSlots = new int[params.size()];
+        int i = 0;
+        for(Map.Entry<String, String> param : params.entrySet()){
+            paramPos[i] = param.getKey();
+            paramSlots[i++] = vars.slotOf(param.getValue());
+        }
+    }
+
     // getter and setter
     @Override
     public Formula_Type getFormula_type() {
@@ -75,14 +87,6 @@ public class FBfunc extends Formula {
         });
     }
 
-    @Override
-    public Formula formulaClone() {
-        FBfunc fBfunc = new FBfunc(this.func);
-        HashMap<String, String> tmpParams = new HashMap<>(this.params);
-        fBfunc.setParams(tmpParams);
-        return fBfunc;
-    }
-
     //S-condition
     @Override
     public void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet) {
@@ -100,8 +104,7 @@ public class FBfunc extends Formula {
         if(var == null){
             return true;
         }
-        curNode.getVarEnv().remove(var);
-        curNode.getVarEnv().put(var, addChange.getContext());
+        curNode.setVarEnv(curNode.getVarEnv().bind(var, addChange.getContext()));
 
         boolean newTruth = false;
         newTruth = bfuncCaller(curNode.getVarEnv(), scheduler.getChecker());
@@ -115,8 +118,7 @@ public class FBfunc extends Formula {
         if(var != null){
             curNode.setTruth(curNode.isOptTruth());
             curNode.setOptTruth(false);
-            curNode.getVarEnv().remove(var);
-            curNode.getVarEnv().put(var, delChange.getContext());
+            curNode.setVarEnv(curNode.getVarEnv().bind(var, delChange.getContext()));
         }
     }
 
@@ -332,27 +334,16 @@ public class FBfunc extends Formula {
     }
 
 
-    public boolean bfuncCaller(HashMap<String, Context> varEnv, Checker checker){
-        Map<String, Map<String, String>> vcMap = new HashMap<>();
-        for(String pos : params.keySet()){
-            HashMap<String, String> ctxInfos = new HashMap<>();
-            Context context = varEnv.get(params.get(pos));
-            ctxInfos.put("ctx_id", context.getCtx_id());
-            for(String attriName : context.getCtx_fields().keySet()){
-                ctxInfos.put(attriName, context.getCtx_fields().get(attriName));
-            }
-            vcMap.put(pos, ctxInfos);
-        }
-
-        boolean result = false;
+    public boolean bfuncCaller(VarEnv varEnv, Checker checker){
+        // pooled read-only views over the bound contexts, no per-call copies of ctx_fields
+        BfuncArgs vcMap = BfuncArgs.acquire();
         try {
-            Object bfuncInstance = checker.getBfuncInstance();
-            Method m = bfuncInstance.getClass().getMethod("bfunc", String.class, Class.forName("java.util.Map"));
-            result = (boolean) m.invoke(bfuncInstance,func, vcMap);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | ClassNotFoundException e) {
-            throw new RuntimeException(e);
+            for(int i = 0; i < paramPos.length; ++i){
+                vcMap.bind(paramPos[i], varEnv.get(paramSlots[i]));
+            }
+            return checker.getExecutor().invokeBfunc(checker.getBfuncInvoker(), func, vcMap);
+        } finally {
+            vcMap.release();
         }
-        return result;
     }
 }
-
@@ -4,6 +4,7 @@ import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Runtime.LGUtils;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
+import com.CC.Constraints.Runtime.VarEnv;
 import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Middleware.Checkers.*;
@@ -11,12 +12,14 @@ import com.CC.Middleware.Schedulers.GEAS_opt_c;
 import com.CC.Middleware.Schedulers.Scheduler;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 public class FExists extends Formula{
     private String var;
+    // slot of var in the rule's VarSlots, assigned when the rule is built
+    private int slot = -1;
     private String pattern_id;
+    // owning rule, the rule's change sets in ContextPool are keyed by it
+    private String rule_id;
     private Formula subformula;
     private String filter;
     private String filterDep;
@@ -55,10 +58,18 @@ public class FExists extends Formula{
         return var;
     }
 
+    public int getSlot() {
+        return slot;
+    }
+
     public String getPattern_id() {
         return pattern_id;
     }
 
+    public String getRule_id() {
+        return rule_id;
+    }
+
     public Formula getSubformula() {
         return subformula;
     }
@@ -71,6 +82,10 @@ public class FExists extends Formula{
         this.var = var;
     }
 
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     @Override
     public void setFormula_type(Formula_Type formula_type) {
         super.setFormula_type(formula_type);
@@ -88,6 +103,10 @@ public class FExists extends Formula{
         this.pattern_id = pattern_id;
     }
 
+    public void setRule_id(String rule_id) {
+        this.rule_id = rule_id;
+    }
+
     @Override
     public void output(int offset) {
         for(int i = 0; i < offset; ++i)
@@ -98,11 +117,6 @@ public class FExists extends Formula{
         subformula.output(offset + 2);
     }
 
-    @Override
-    public Formula formulaClone() {
-        return new FExists(this.getVar(), this.getPattern_id());
-    }
-
     //S-condition
     @Override
     public void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet) {
@@ -127,8 +141,8 @@ public class FExists extends Formula{
             assert var == null;
             int meet_cnt = 0;
             for(RuntimeNode child : curNode.getChildren()){
-                HashMap<String, Context> varEnv = child.getVarEnv();
-                if(varEnv.get(this.var).equals(delChange.getContext())){//找到了对应分
+                VarEnv varEnv = child.getVarEnv();
+                if(varEnv.get(this.slot).equals(delChange.getContext())){//找到了对应分
                     meet_cnt++;
                     boolean tv1 = child.isTruth();
                     boolean chk_flag = child.getFormula().evaluationAndEqualSideEffect(child, ((FExists)originFormula).getSubformula(), this.var, delChange, addChange, false, scheduler);
@@ -145,30 +159,23 @@ public class FExists extends Formula{
             if(canConcurrent){
                 //可以并发
                 assert var == null;
-                List<Future<Boolean>> retList = new ArrayList<>();
-                for(RuntimeNode child : curNode.getChildren()){
-                    assert scheduler instanceof GEAS_opt_c;
-                    Future<Boolean> future = ((GEAS_opt_c) scheduler).ThreadPool.submit(
-                            new GEAS_opt_c.evaluationAndEqualSideEffectCon(child, ((FExists)originFormula).getSubformula(), delChange, addChange, scheduler)
-                    );
-                    retList.add(future);
-                }
-
-                for(Future<Boolean> future : retList){
-                    try {
-                        boolean tmpResult = future.get();
+                assert scheduler instanceof GEAS_opt_c;
+                List<RuntimeNode> children = curNode.getChildren();
+                try {
+                    List<Boolean> retList = scheduler.getExecutor().invokeRange(0, children.size(), i -> {
+                        RuntimeNode child = children.get(i);
+                        return child.getFormula().evaluationAndEqualSideEffect(child, ((FExists)originFormula).getSubformula(), null, delChange, addChange, false, scheduler);
+                    });
+                    for(boolean tmpResult : retList){
                         result = result && tmpResult;
-                    } catch (ExecutionException | InterruptedException e) {
-                        e.printStackTrace();
-                        System.exit(1);
                     }
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    System.exit(1);
                 }
 
                 if(result){
-                    boolean newTruth = false;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        newTruth = newTruth || child.isTruth();
-                    }
+                    boolean newTruth = curNode.getTrueKids() > 0;
                     curNode.setOptTruth(curNode.isTruth());
                     curNode.setTruth(newTruth);
                 }
@@ -176,8 +183,7 @@ public class FExists extends Formula{
             else{
                 //不可并发
                 if(var != null){
-                    curNode.getVarEnv().remove(var);
-                    curNode.getVarEnv().put(var, addChange.getContext());
+                    curNode.setVarEnv(curNode.getVarEnv().bind(var, addChange.getContext()));
                 }
                 boolean newTruth = false;
                 for(RuntimeNode child : curNode.getChildren()){
@@ -200,8 +206,8 @@ public class FExists extends Formula{
             assert var == null;
             int meet_cnt = 0;
             for(RuntimeNode child : curNode.getChildren()){
-                HashMap<String, Context> varEnv = child.getVarEnv();
-                if(varEnv.get(this.var).equals(addChange.getContext())) {
+                VarEnv varEnv = child.getVarEnv();
+                if(varEnv.get(this.slot).equals(addChange.getContext())) {
                     meet_cnt++;
                     child.getFormula().sideeffectresolution(child, ((FExists)originFormula).getSubformula(), this.var, delChange, addChange, false, scheduler);
                 }
@@ -211,22 +217,16 @@ public class FExists extends Formula{
         else{
             if(canConcurrent){
                 assert var == null;
-                List<Future<Void>> retList = new ArrayList<>();
-                for(RuntimeNode child : curNode.getChildren()){
-                    assert scheduler instanceof GEAS_opt_c;
-                    Future<Void> future = ((GEAS_opt_c) scheduler).ThreadPool.submit(
-                            new GEAS_opt_c.sideEffectResolutionCon(child, ((FExists)originFormula).getSubformula(), delChange, addChange, scheduler)
-                    );
-                    retList.add(future);
-                }
-
-                for(Future<Void> future : retList){
-                    try {
-                        future.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        e.printStackTrace();
-                        System.exit(1);
-                    }
+                assert scheduler instanceof GEAS_opt_c;
+                List<RuntimeNode> children = curNode.getChildren();
+                try {
+                    scheduler.getExecutor().forRange(0, children.size(), i -> {
+                        RuntimeNode child = children.get(i);
+                        child.getFormula().sideeffectresolution(child, ((FExists)originFormula).getSubformula(), null, delChange, addChange, false, scheduler);
+                    });
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    System.exit(1);
                 }
 
             }
@@ -234,8 +234,7 @@ public class FExists extends Formula{
                 if(var != null){
                     curNode.setTruth(curNode.isOptTruth());
                     curNode.setOptTruth(false);
-                    curNode.getVarEnv().remove(var);
-                    curNode.getVarEnv().put(var, delChange.getContext());
+                    curNode.setVarEnv(curNode.getVarEnv().bind(var, delChange.getContext()));
                 }
                 for(RuntimeNode child : curNode.getChildren()){
                     child.getFormula().sideeffectresolution(child, ((FExists)originFormula).getSubformula(), var, delChange, addChange, false, scheduler);
@@ -294,9 +293,9 @@ public class FExists extends Formula{
     //PCCM && CPCC
     @Override
     public boolean updateAffectedWithChanges(Checker checker) {
-        int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-        int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-        int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+        int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+        int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+        int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
         boolean result = this.subformula.updateAffectedWithChanges(checker);
         result = result || AddSetSize != 0 || DelSetSize!= 0 || UpdSetSize != 0;
         this.setAffected(result);
@@ -314,9 +313,9 @@ public class FExists extends Formula{
     public void updateCanConcurrent_INFUSE(boolean canConcurrent, Rule rule, Checker checker) {
         if(canConcurrent){
             int PoolSize = checker.getContextPool().getPoolSetSize(rule.getRule_id(), this.pattern_id);
-            int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-            int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-            int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+            int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+            int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+            int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
             if(rule.getPatToDepth().get(this.pattern_id) >= 2){
                 int entireNum = AddSetSize + UpdSetSize;
                 int partialNum = PoolSize - DelSetSize - UpdSetSize;
@@ -361,9 +360,8 @@ public class FExists extends Formula{
         for(Context context : pool){
             RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
             runtimeNode.setDepth(curNode.getDepth() + 1);
-            runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-            runtimeNode.getVarEnv().put(this.var, context);
-            curNode.getChildren().add(runtimeNode);
+            runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, context));
+            curNode.addKid(runtimeNode);
             //递归调用
             runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FExists) originFormula).getSubformula(), checker);
         }
@@ -385,6 +383,10 @@ public class FExists extends Formula{
 
     @Override
     public Set<Link> linksGeneration_ECC(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker) {
+        //lazy links: the links of an unchanged subtree are still valid
+        if(checker.isLazyLinks() && !curNode.isLinksDirty()){
+            return curNode.getLinks();
+        }
         Set<Link> result = new HashSet<>();
         LGUtils lgUtils = new LGUtils();
         if(!checker.isMG()) {
@@ -392,8 +394,7 @@ public class FExists extends Formula{
             for(RuntimeNode child : curNode.getChildren()){
                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                 initialSet.add(initialLink);
                 if(!child.isTruth()) continue;
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -406,8 +407,7 @@ public class FExists extends Formula{
                 if(!child.isTruth()) continue;
                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                 initialSet.add(initialLink);
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                 result.addAll(res);
@@ -427,9 +427,9 @@ public class FExists extends Formula{
     private void RemoveBranch_PCC(RuntimeNode curNode, Context context){
         boolean flag = false;
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(this.var).equals(context)){
+            if(child.getVarEnv().get(this.slot).equals(context)){
                 flag = true;
-                curNode.getChildren().remove(child);
+                curNode.removeKid(child);
                 break;
             }
         }
@@ -448,9 +448,8 @@ public class FExists extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FExists) originFormula).getSubformula(), checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -485,10 +484,7 @@ public class FExists extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = false;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        result = result || child.isTruth();
-                    }
+                    boolean result = curNode.getTrueKids() > 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -523,8 +519,7 @@ public class FExists extends Formula{
                         RuntimeNode addchild = curNode.getChildren().get(curNode.getChildren().size() - 1);
                         Set<Link> childLink = addchild.getFormula().linksGeneration_ECC(addchild, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, addchild.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, addchild.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(addchild.isTruth()){
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
@@ -533,8 +528,7 @@ public class FExists extends Formula{
                     else{
                         for(RuntimeNode child : curNode.getChildren()){
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -546,8 +540,7 @@ public class FExists extends Formula{
                     for(RuntimeNode child : curNode.getChildren()){
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCC(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(!child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -568,8 +561,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCC(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -591,8 +583,7 @@ public class FExists extends Formula{
                                     if(!child.isTruth()) continue;
                                     Set<Link> childLink =  child.getFormula().linksGeneration_PCC(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -603,8 +594,7 @@ public class FExists extends Formula{
                         if(addchild.isTruth()){
                             Set<Link> childLink = addchild.getFormula().linksGeneration_ECC(addchild, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, addchild.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, addchild.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
                         }
@@ -613,8 +603,7 @@ public class FExists extends Formula{
                         for(RuntimeNode child : curNode.getChildren()){
                             if(!child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -634,8 +623,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCC(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -659,23 +647,18 @@ public class FExists extends Formula{
     public void createBranches_ConC(String rule_id, RuntimeNode curNode, Formula originFormula, boolean canConcurrent, Checker checker) {
         if(canConcurrent){
             Set<Context> pool = checker.getContextPool().getPoolSet(rule_id, this.pattern_id);
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : pool){
-                assert checker instanceof ConC;
-                Future<RuntimeNode> future = ((ConC) checker).ThreadPool.submit(
-                        new ConC.CreateBranchesTask_ConC(rule_id, curNode.getDepth(),
-                        curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = pool.toArray(new Context[0]);
+            assert checker instanceof ConC;
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    curNode.getChildren().add(future.get());
-                } catch (Exception e) {
-                   System.out.println("get returnNode error");
-                   System.exit(1);
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> ConC.createBranch(rule_id, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode returnNode : returnNodes){
+                    curNode.addKid(returnNode);
                 }
+            } catch (Exception e) {
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -683,9 +666,8 @@ public class FExists extends Formula{
             for(Context context : pool){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, context);
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, context));
+                curNode.addKid(runtimeNode);
                 //递归调用
                 runtimeNode.getFormula().createBranches_ConC(rule_id, runtimeNode, ((FExists) originFormula).getSubformula(), false, checker);
             }
@@ -695,24 +677,19 @@ public class FExists extends Formula{
     @Override
     public boolean truthEvaluation_ConC(RuntimeNode curNode, Formula originFormula, boolean canConcurrent, Checker checker) {
         if(canConcurrent){
-            List<Future<Boolean>> truthList = new ArrayList<>();
-            for(RuntimeNode child : curNode.getChildren()){
-                assert checker instanceof ConC;
-                Future<Boolean> future = ((ConC) checker).ThreadPool.submit(
-                        new ConC.TruthEvaluationTask_ConC(child, ((FExists)originFormula).getSubformula(), checker)
-                );
-                truthList.add(future);
-            }
+            assert checker instanceof ConC;
+            List<RuntimeNode> children = curNode.getChildren();
             //计算总的真值
             boolean result = false;
-            for(Future<Boolean> truth : truthList){
-                try {
-                    boolean tempresult = truth.get();
+            try {
+                List<Boolean> truthList = checker.getExecutor().invokeRange(0, children.size(),
+                        i -> children.get(i).getFormula().truthEvaluation_ConC(children.get(i), ((FExists)originFormula).getSubformula(), false, checker));
+                for(boolean tempresult : truthList){
                     result = result || tempresult;
-                } catch (Exception e) {
-                    System.out.println("get truth error");
-                    System.exit(1);
                 }
+            } catch (Exception e) {
+                System.out.println("get truth error");
+                System.exit(1);
             }
             curNode.setTruth(result);
             return result;
@@ -732,49 +709,44 @@ public class FExists extends Formula{
     public Set<Link> linksGeneration_ConC(RuntimeNode curNode, Formula originFormula, boolean canConcurrent, final Set<RuntimeNode> prevSubstantialNodes, Checker checker) {
         LGUtils lgUtils = new LGUtils();
         if(canConcurrent){
-            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+            List<RuntimeNode> children = curNode.getChildren();
+            int[] linkIndexes = new int[children.size()];
+            int linkCount = 0;
             Set<Link> result = new HashSet<>();
+            assert checker instanceof ConC;
             if(!checker.isMG()){
                 // case 1: !MG --> all
-                for(int index = 0; index < curNode.getChildren().size(); ++index){
-                    RuntimeNode child = curNode.getChildren().get(index);
-                    assert checker instanceof ConC;
-                    Future<Set<Link>> future = ((ConC) checker).ThreadPool.submit(
-                            new ConC.LinksGenerationTask_ConC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                    );
-                    LSMap.put(index, future);
+                for(int index = 0; index < children.size(); ++index){
+                    linkIndexes[linkCount++] = index;
                 }
             }
             else if(curNode.isTruth()){
                 // case 2: MG && true --> true
-                for(int index = 0; index < curNode.getChildren().size(); ++index){
-                    RuntimeNode child = curNode.getChildren().get(index);
-                    if(!child.isTruth()) continue;
-                    assert checker instanceof ConC;
-                    Future<Set<Link>> future = ((ConC) checker).ThreadPool.submit(
-                            new ConC.LinksGenerationTask_ConC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                    );
-                    LSMap.put(index, future);
+                for(int index = 0; index < children.size(); ++index){
+                    if(!children.get(index).isTruth()) continue;
+                    linkIndexes[linkCount++] = index;
                 }
             }
             else{
                 // case 3: MG && false --> none
                 // do nothing
             }
+            List<Set<Link>> childLinks = null;
+            try {
+                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                    RuntimeNode child = children.get(linkIndexes[k]);
+                    return child.getFormula().linksGeneration_ConC(child, ((FExists)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
+                });
+            } catch (Exception e) {
+                System.out.println("get links error");
+                System.exit(1);
+            }
             // merge links
-            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                int index= entry.getKey();
-                RuntimeNode child = curNode.getChildren().get(index);
-                Set<Link> childLink = null;
-                try {
-                    childLink = entry.getValue().get();
-                } catch (Exception e) {
-                    System.out.println("get links error");
-                    System.exit(1);
-                }
+            for(int k = 0; k < linkCount; ++k){
+                RuntimeNode child = children.get(linkIndexes[k]);
+                Set<Link> childLink = childLinks.get(k);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                 initialSet.add(initialLink);
                 if(!child.isTruth()) continue;
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -790,8 +762,7 @@ public class FExists extends Formula{
                 for(RuntimeNode child : curNode.getChildren()){
                     Set<Link> childLink = child.getFormula().linksGeneration_ConC(child,((FExists)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
                     Set<Link> initialSet = new HashSet<>();
-                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                     initialSet.add(initialLink);
                     if(!child.isTruth()) continue;
                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -804,8 +775,7 @@ public class FExists extends Formula{
                     if(!child.isTruth()) continue;
                     Set<Link> childLink = child.getFormula().linksGeneration_ConC(child,((FExists)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
                     Set<Link> initialSet = new HashSet<>();
-                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                     initialSet.add(initialLink);
                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                     result.addAll(res);
@@ -826,9 +796,9 @@ public class FExists extends Formula{
     private void RemoveBranch_PCCM(RuntimeNode curNode, Context context){
         boolean flag = false;
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(this.var).equals(context)){
+            if(child.getVarEnv().get(this.slot).equals(context)){
                 flag = true;
-                curNode.getChildren().remove(child);
+                curNode.removeKid(child);
                 break;
             }
         }
@@ -848,9 +818,8 @@ public class FExists extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FExists) originFormula).getSubformula(), checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -874,8 +843,8 @@ public class FExists extends Formula{
         }
         else{
             if(((FExists)originFormula).getSubformula().isAffected()){
-                int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                 boolean result = false;
                 for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                     RuntimeNode child = curNode.getChildren().get(i);
@@ -891,9 +860,9 @@ public class FExists extends Formula{
                 return result;
             }
             else{
-                int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                 if(DelSetSize == 0 && UpdSetSize == 0){
                     boolean result = curNode.isTruth();
                     for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
@@ -905,16 +874,12 @@ public class FExists extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = false;
-                    for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        result = result || child.isTruth();
-                    }
                     for(int i = curNode.getChildren().size() - AddSetSize - UpdSetSize; i < curNode.getChildren().size(); ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
-                        boolean tempresult = child.getFormula().truthEvaluation_ECC(child, ((FExists)originFormula).getSubformula(), checker);
-                        result = result || tempresult;
+                        child.getFormula().truthEvaluation_ECC(child, ((FExists)originFormula).getSubformula(), checker);
                     }
+                    //the other children are unchanged, the counter has them
+                    boolean result = curNode.getTrueKids() > 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -934,14 +899,13 @@ public class FExists extends Formula{
             }
             else{
                 if(((FExists)originFormula).getSubformula().isAffected()){
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         Set<Link> childLink = child.getFormula().linksGeneration_PCCM(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(!child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -951,8 +915,7 @@ public class FExists extends Formula{
                         RuntimeNode child = curNode.getChildren().get(i);
                         Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(!child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -960,9 +923,9 @@ public class FExists extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     if(DelSetSize == 0 && UpdSetSize == 0){
                         if(curNode.getLinks() != null)
                             result.addAll(curNode.getLinks());
@@ -970,8 +933,7 @@ public class FExists extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -982,8 +944,7 @@ public class FExists extends Formula{
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -993,8 +954,7 @@ public class FExists extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1016,8 +976,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_PCCM(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1026,15 +985,14 @@ public class FExists extends Formula{
             }
             else{
                 if(((FExists)originFormula).getSubformula().isAffected()){
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         if(!child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_PCCM(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1044,17 +1002,16 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     if(DelSetSize == 0 && UpdSetSize == 0){
                         if(curNode.getLinks() != null){
                             // check whether curNode.links reusable
@@ -1067,8 +1024,7 @@ public class FExists extends Formula{
                                     if(!child.isTruth()) continue;
                                     Set<Link> childLink = child.getFormula().linksGeneration_PCCM(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -1080,8 +1036,7 @@ public class FExists extends Formula{
                             if(!child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1092,8 +1047,7 @@ public class FExists extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(!child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -1111,8 +1065,7 @@ public class FExists extends Formula{
                             if(!child.isTruth()) continue;
                             Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1136,9 +1089,9 @@ public class FExists extends Formula{
 
     private RuntimeNode RemoveBranch_CPCC(Rule rule, RuntimeNode curNode, Context context, boolean updating){
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(this.var).equals(context)){
+            if(child.getVarEnv().get(this.slot).equals(context)){
                 child.setParent(null);
-                curNode.getChildren().remove(child);
+                curNode.removeKid(child);
                 if(!updating){
                     int patDepth = rule.getPatToDepth().get(this.pattern_id);
                     SortedMap<Integer, String> headMap =  rule.getDepthToPat().headMap(patDepth);
@@ -1158,24 +1111,18 @@ public class FExists extends Formula{
         rule.getPatToRuntimeNode().get(this.pattern_id).add(curNode);
         if(((FExists)originFormula).isCanConcurrent()){
             Set<Context> pool = checker.getContextPool().getPoolSet(rule.getRule_id(), this.pattern_id);
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : pool){
-                Future<RuntimeNode> future = ((INFUSE_C) checker).ThreadPool.submit(
-                        new INFUSE_C.CreateBranchesTask_INFUSE(rule, curNode.getDepth(),
-                                curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = pool.toArray(new Context[0]);
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    RuntimeNode child = future.get();
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> INFUSE_C.createBranch(rule, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode child : returnNodes){
                     child.setParent(curNode);
-                    curNode.getChildren().add(child);
-                } catch (Exception e) {
-                    System.out.println("get returnNode error");
-                    System.exit(1);
+                    curNode.addKid(child);
                 }
+            } catch (Exception e) {
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -1183,10 +1130,9 @@ public class FExists extends Formula{
             for(Context context : pool){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, context);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, context));
                 runtimeNode.setParent(curNode);
-                curNode.getChildren().add(runtimeNode);
+                curNode.addKid(runtimeNode);
                 //递归调用
                 runtimeNode.getFormula().createBranches_INFUSE(rule, runtimeNode, ((FExists) originFormula).getSubformula(), checker);
             }
@@ -1196,46 +1142,32 @@ public class FExists extends Formula{
     @Override
     public void modifyBranch_INFUSE(Rule rule, RuntimeNode curNode, Formula originFormula, Checker checker) {
         //Delset
-        Set<Context> DelSet = checker.getContextPool().getDelSet(this.pattern_id);
+        Set<Context> DelSet = checker.getContextPool().getDelSet(this.rule_id, this.pattern_id);
         for(Context context : DelSet){
             RemoveBranch_CPCC(rule, curNode, context, false);
         }
 
         //ModSet
-        Set<Context> ModSet = checker.getContextPool().getUpdSet(this.pattern_id);
+        Set<Context> ModSet = checker.getContextPool().getUpdSet(this.rule_id, this.pattern_id);
         for(Context context : ModSet){
             RuntimeNode ModNode = RemoveBranch_CPCC(rule, curNode, context, true);
             if(ModNode != null){
                 ModNode.setParent(curNode);
-                curNode.getChildren().add(ModNode);
+                curNode.addKid(ModNode);
             }
         }
 
         //AddSet
-        Set<Context> AddSet = checker.getContextPool().getAddSet(this.pattern_id);
+        Set<Context> AddSet = checker.getContextPool().getAddSet(this.rule_id, this.pattern_id);
         if(((FExists)originFormula).isCanConcurrent()){
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : AddSet){
-                Future<RuntimeNode> future = ((INFUSE_C) checker).ThreadPool.submit(
-                        new INFUSE_C.CreateBranchesTask_INFUSE(rule, curNode.getDepth(),
-                                curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = AddSet.toArray(new Context[0]);
 
             //rest
-            List<Future<Void>> voidlist = new ArrayList<>();
             if(((FExists)originFormula).getSubformula().isAffected()){
-                for(RuntimeNode child : curNode.getChildren()){
-                    Future<Void> future = ((INFUSE_C) checker).ThreadPool.submit(
-                            new INFUSE_C.ModifyBranchTask_INFUSE(rule, child, ((FExists)originFormula).getSubformula(), checker)
-                    );
-                    voidlist.add(future);
-                }
-            }
-            for(Future<Void> future : voidlist){
+                List<RuntimeNode> children = curNode.getChildren();
                 try {
-                    future.get();
+                    checker.getExecutor().forRange(0, children.size(),
+                            i -> children.get(i).getFormula().modifyBranch_INFUSE(rule, children.get(i), ((FExists)originFormula).getSubformula(), checker));
                 } catch (Exception e) {
                     System.out.println(e.getMessage());
                     System.out.println("get Void error");
@@ -1244,16 +1176,17 @@ public class FExists extends Formula{
             }
 
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    RuntimeNode child = future.get();
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> INFUSE_C.createBranch(rule, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode child : returnNodes){
                     child.setParent(curNode);
-                    curNode.getChildren().add(child);
-                } catch (Exception e) {
-                    System.out.println(e.getMessage());
-                    System.out.println("get returnNode error");
-                    System.exit(1);
+                    curNode.addKid(child);
                 }
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -1265,10 +1198,9 @@ public class FExists extends Formula{
             for(Context context : AddSet){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, context);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, context));
                 runtimeNode.setParent(curNode);
-                curNode.getChildren().add(runtimeNode);
+                curNode.addKid(runtimeNode);
                 runtimeNode.getFormula().createBranches_INFUSE(rule, runtimeNode, ((FExists)originFormula).getSubformula(), checker);
             }
         }
@@ -1281,7 +1213,7 @@ public class FExists extends Formula{
             boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
             result = result || tempresult;
             //virtual truth
-            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
         }
         curNode.setTruth(result);
         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1297,40 +1229,32 @@ public class FExists extends Formula{
         else {
             //case 4,5
             if(((FExists)originFormula).getSubformula().isAffected()){
-                int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                 if(((FExists)originFormula).isCanConcurrent()){
                     boolean result = false;
-                    List<Future<Boolean>> truthList = new ArrayList<>();
-                    for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                new INFUSE_C.TruthEvaluationTaskPar_INFUSE(child, ((FExists)originFormula).getSubformula(), checker)
-                        );
-                        truthList.add(future);
-                    }
-                    for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker)
-                        );
-                        truthList.add(future);
-                    }
+                    List<RuntimeNode> children = curNode.getChildren();
+                    //unchanged children first, then the added and updated ones
+                    int comFrom = children.size() - AddSetSize - ModSetSize;
                     //all
-                    for(Future<Boolean> truth : truthList){
-                        try {
-                            //短路后面get不会执行从而不会阻塞
-                            boolean tempresult = truth.get();
+                    try {
+                        List<Boolean> truthList = checker.getExecutor().invokeRange(0, children.size(), i -> {
+                            RuntimeNode child = children.get(i);
+                            return i < comFrom
+                                    ? child.getFormula().truthEvaluationPar_INFUSE(child, ((FExists)originFormula).getSubformula(), checker)
+                                    : child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
+                        });
+                        for(boolean tempresult : truthList){
                             result = result || tempresult;
-                        } catch (Exception e) {
-                            System.out.println(e.getMessage());
-                            System.out.println("get truth error");
-                            System.exit(1);
                         }
+                    } catch (Exception e) {
+                        System.out.println(e.getMessage());
+                        System.out.println("get truth error");
+                        System.exit(1);
                     }
                     //virtual truth
                     for(RuntimeNode child : curNode.getChildren()){
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     curNode.setTruth(result);
                     curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1343,14 +1267,14 @@ public class FExists extends Formula{
                         boolean tempresult = child.getFormula().truthEvaluationPar_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
                         result = result || tempresult;
                         //virtual truth
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
                         result = result || tempresult;
                         //virtual truth
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     curNode.setTruth(result);
                     curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1358,38 +1282,30 @@ public class FExists extends Formula{
                 }
             }
             else{
-                int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                 //case 2
                 if(DelSetSize == 0 && ModSetSize == 0){
                     if(((FExists)originFormula).isCanConcurrent()){
                         boolean result = curNode.isTruth();
                         //AddSet
-                        List<Future<Boolean>> truthList = new ArrayList<>();
-                        for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker)
-                            );
-                            truthList.add(future);
-                        }
-                        //all
-                        for(Future<Boolean> truth : truthList){
-                            try {
-                                //短路后面get不会执行从而不会阻塞
-                                boolean tempresult = truth.get();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        try {
+                            List<Boolean> truthList = checker.getExecutor().invokeRange(children.size() - AddSetSize, children.size(),
+                                    i -> children.get(i).getFormula().truthEvaluationCom_INFUSE(children.get(i), ((FExists)originFormula).getSubformula(), checker));
+                            for(boolean tempresult : truthList){
                                 result = result || tempresult;
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get truth error");
-                                System.exit(1);
                             }
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get truth error");
+                            System.exit(1);
                         }
                         //virtutal truth
                         for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1403,7 +1319,7 @@ public class FExists extends Formula{
                             boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
                             result = result || tempresult;
                             //virtual truth
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1413,54 +1329,35 @@ public class FExists extends Formula{
                 //case 3
                 else{
                     if(((FExists)originFormula).isCanConcurrent()){
-                        boolean result = false;
-                        List<Future<Boolean>> truthList = new ArrayList<>();
-                        for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            result = result || child.isTruth();
-                        }
-                        for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker)
-                            );
-                            truthList.add(future);
-                        }
-                        //all
-                        for(Future<Boolean> truth : truthList){
-                            try {
-                                //短路后面get不会执行从而不会阻塞
-                                boolean tempresult = truth.get();
-                                result = result || tempresult;
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get truth error");
-                                System.exit(1);
-                            }
+                        List<RuntimeNode> children = curNode.getChildren();
+                        try {
+                            checker.getExecutor().invokeRange(children.size() - AddSetSize - ModSetSize, children.size(),
+                                    i -> children.get(i).getFormula().truthEvaluationCom_INFUSE(children.get(i), ((FExists)originFormula).getSubformula(), checker));
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get truth error");
+                            System.exit(1);
                         }
+                        //the other children are unchanged, the counter has them
+                        boolean result = curNode.getTrueKids() > 0;
                         //virtual truth
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
                         return result;
                     }
                     else{
-                        boolean result = false;
-                        for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            boolean tempresult = child.isTruth();
-                            result = result || tempresult;
-                        }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
-                            result = result || tempresult;
+                            child.getFormula().truthEvaluationCom_INFUSE(child, ((FExists)originFormula).getSubformula(), checker);
                             //virtual truth
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
+                        //the other children are unchanged, the counter has them
+                        boolean result = curNode.getTrueKids() > 0;
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
                         return result;
@@ -1484,38 +1381,39 @@ public class FExists extends Formula{
             else{
                 if(((FExists)originFormula).getSubformula().isAffected()){
                     //case 4,5
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     if(((FExists)originFormula).isCanConcurrent()){
-                        Map<Integer, Future<Set<Link>>> LSMap= new HashMap<>();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        int[] linkIndexes = new int[children.size()];
+                        int linkCount = 0;
+                        //unchanged children first, then the added and updated ones
+                        int comFrom = children.size() - AddSetSize - ModSetSize;
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
                         //all
-                        for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                            int index = entry.getKey();
-                            RuntimeNode child = curNode.getChildren().get(index);
-                            Set<Link> childLink = null;
-                            try {
-                                childLink = entry.getValue().get();
-                            } catch (Exception e) {
-                                System.out.println("get links error");
-                                System.exit(1);
-                            }
+                        List<Set<Link>> childLinks = null;
+                        try {
+                            childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                int index = linkIndexes[k];
+                                RuntimeNode child = children.get(index);
+                                return index < comFrom
+                                        ? child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                        : child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                            });
+                        } catch (Exception e) {
+                            System.out.println("get links error");
+                            System.exit(1);
+                        }
+                        for(int k = 0; k < linkCount; ++k){
+                            RuntimeNode child = children.get(linkIndexes[k]);
+                            Set<Link> childLink = childLinks.get(k);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1527,8 +1425,7 @@ public class FExists extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1538,8 +1435,7 @@ public class FExists extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1548,37 +1444,37 @@ public class FExists extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     //case 2
                     if(DelSetSize == 0 && ModSetSize == 0){
                         if(((FExists)originFormula).isCanConcurrent()){
                             if(curNode.getLinks() != null)
                                 result.addAll(curNode.getLinks());
                             //AddSet
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
                             for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
-                                RuntimeNode child = curNode.getChildren().get(i);
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println("get links error");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    RuntimeNode child = children.get(linkIndexes[k]);
+                                    return child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println("get links error");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1593,8 +1489,7 @@ public class FExists extends Formula{
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1605,38 +1500,37 @@ public class FExists extends Formula{
                     //case 3
                     else{
                         if(((FExists)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                 result.addAll(res);
                             }
                             for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                                RuntimeNode child = curNode.getChildren().get(i);
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println("get links error");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    RuntimeNode child = children.get(linkIndexes[k]);
+                                    return child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println("get links error");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1647,8 +1541,7 @@ public class FExists extends Formula{
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -1658,8 +1551,7 @@ public class FExists extends Formula{
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 if(!child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1685,8 +1577,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1696,40 +1587,43 @@ public class FExists extends Formula{
             else{
                 if(((FExists)originFormula).getSubformula().isAffected()){
                     //case 4,5
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     if(((FExists)originFormula).isCanConcurrent()){
-                        Map<Integer, Future<Set<Link>>> LSMap= new HashMap<>();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        int[] linkIndexes = new int[children.size()];
+                        int linkCount = 0;
+                        //unchanged children first, then the added and updated ones
+                        int comFrom = children.size() - AddSetSize - ModSetSize;
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(!child.isTruth()) continue;
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(!child.isTruth()) continue;
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
                         //all
-                        for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                            int index = entry.getKey();
-                            RuntimeNode child = curNode.getChildren().get(index);
-                            Set<Link> childLink = null;
-                            try {
-                                childLink = entry.getValue().get();
-                            } catch (Exception e) {
-                                System.out.println("get links error");
-                                System.exit(1);
-                            }
+                        List<Set<Link>> childLinks = null;
+                        try {
+                            childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                int index = linkIndexes[k];
+                                RuntimeNode child = children.get(index);
+                                return index < comFrom
+                                        ? child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                        : child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                            });
+                        } catch (Exception e) {
+                            System.out.println("get links error");
+                            System.exit(1);
+                        }
+                        for(int k = 0; k < linkCount; ++k){
+                            RuntimeNode child = children.get(linkIndexes[k]);
+                            Set<Link> childLink = childLinks.get(k);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1741,8 +1635,7 @@ public class FExists extends Formula{
                             if(!child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1752,8 +1645,7 @@ public class FExists extends Formula{
                             if(!child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1761,13 +1653,17 @@ public class FExists extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-                    int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+                    int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+                    int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
                     //case 2
                     if(DelSetSize == 0 && ModSetSize == 0){
                         if(((FExists)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
+                            //unchanged children first, then the added ones
+                            int comFrom = children.size() - AddSetSize;
                             if(curNode.getLinks() != null){
                                 // check whether curNode.links reusable
                                 if(prevSubstantialNodes.contains(curNode)){
@@ -1778,10 +1674,7 @@ public class FExists extends Formula{
                                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize; ++i){
                                         RuntimeNode child = curNode.getChildren().get(i);
                                         if(!child.isTruth()) continue;
-                                        Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                                new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FExists) originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                        );
-                                        LSMap.put(i, future);
+                                        linkIndexes[linkCount++] = i;
                                     }
                                 }
                             }
@@ -1789,25 +1682,27 @@ public class FExists extends Formula{
                             for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(!child.isTruth()) continue;
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println("get links error");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    int index = linkIndexes[k];
+                                    RuntimeNode child = children.get(index);
+                                    return index < comFrom
+                                            ? child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                            : child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println("get links error");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1826,8 +1721,7 @@ public class FExists extends Formula{
                                         if(!child.isTruth()) continue;
                                         Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                         Set<Link> initialSet = new HashSet<>();
-                                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                         initialSet.add(initialLink);
                                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                         result.addAll(res);
@@ -1840,8 +1734,7 @@ public class FExists extends Formula{
                                 if(!child.isTruth()) continue;
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1851,48 +1744,50 @@ public class FExists extends Formula{
                     //case 3
                     else{
                         if(((FExists)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
+                            //unchanged children first, then the added and updated ones
+                            int comFrom = children.size() - AddSetSize - ModSetSize;
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(!child.isTruth()) continue;
                                 // check whether child.links reusable
                                 if(prevSubstantialNodes.contains(child)){
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                     result.addAll(res);
                                 }
                                 else{
-                                    Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                            new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FExists) originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                    );
-                                    LSMap.put(i, future);
+                                    linkIndexes[linkCount++] = i;
                                 }
                             }
                             for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(!child.isTruth()) continue;
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println("get links error");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    int index = linkIndexes[k];
+                                    RuntimeNode child = children.get(index);
+                                    return index < comFrom
+                                            ? child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                            : child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println("get links error");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1905,16 +1800,14 @@ public class FExists extends Formula{
                                 // check whether child.links reusable
                                 if(prevSubstantialNodes.contains(child)){
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                     result.addAll(res);
                                 }
                                 else{
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1926,8 +1819,7 @@ public class FExists extends Formula{
                                 if(!child.isTruth()) continue;
                                 Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child, ((FExists)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1958,9 +1850,8 @@ public class FExists extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FExists)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(this.var, contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(this.slot, contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ConC(rule_id, runtimeNode, ((FExists) originFormula).getSubformula(), true, checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -1995,10 +1886,7 @@ public class FExists extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = false;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        result = result || child.isTruth();
-                    }
+                    boolean result = curNode.getTrueKids() > 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -2033,8 +1921,7 @@ public class FExists extends Formula{
                         RuntimeNode addchild = curNode.getChildren().get(curNode.getChildren().size() - 1);
                         Set<Link> childLink = addchild.getFormula().linksGeneration_ConC(addchild, ((FExists)originFormula).getSubformula(), true, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, addchild.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, addchild.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(addchild.isTruth()){
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -2044,8 +1931,7 @@ public class FExists extends Formula{
                     else{
                         for(RuntimeNode child : curNode.getChildren()){
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             if(!child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -2057,8 +1943,7 @@ public class FExists extends Formula{
                     for(RuntimeNode child : curNode.getChildren()){
                         Set<Link> childLink =  child.getFormula().linksGeneration_BASE(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         if(!child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -2079,8 +1964,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_BASE(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -2102,8 +1986,7 @@ public class FExists extends Formula{
                                     if(!child.isTruth()) continue;
                                     Set<Link> childLink =  child.getFormula().linksGeneration_BASE(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                                    initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                                    Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -2114,8 +1997,7 @@ public class FExists extends Formula{
                         if(addchild.isTruth()){
                             Set<Link> childLink = addchild.getFormula().linksGeneration_ConC(addchild, ((FExists)originFormula).getSubformula(), true, prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, addchild.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, addchild.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
                         }
@@ -2124,8 +2006,7 @@ public class FExists extends Formula{
                         for(RuntimeNode child : curNode.getChildren()){
                             if(!child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                            initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                            Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -2145,8 +2026,7 @@ public class FExists extends Formula{
                         if(!child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_BASE(child, ((FExists)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.SATISFIED);
-                        initialLink.AddVA(this.var, child.getVarEnv().get(this.var));
+                        Link initialLink = new Link(Link.Link_Type.SATISFIED, this.slot, child.getVarEnv().get(this.slot));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
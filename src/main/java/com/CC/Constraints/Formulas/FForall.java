@@ -4,6 +4,7 @@ import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Runtime.LGUtils;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
+import com.CC.Constraints.Runtime.VarEnv;
 import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Middleware.Checkers.*;
@@ -11,12 +12,14 @@ import com.CC.Middleware.Schedulers.GEAS_opt_c;
 import com.CC.Middleware.Schedulers.Scheduler;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 public class FForall extends Formula{
     private String var;
+    // slot of var in the rule's VarSlots, assigned when the rule is built
+    private int slot = -1;
     private String pattern_id;
+    // owning rule, the rule's change sets in ContextPool are keyed by it
+    private String rule_id;
     private Formula subformula;
     private String filter;
     private String filterDep;
@@ -59,10 +62,18 @@ public class FForall extends Formula{
         return pattern_id;
     }
 
+    public String getRule_id() {
+        return rule_id;
+    }
+
     public String getVar() {
         return var;
     }
 
+    public int getSlot() {
+        return slot;
+    }
+
     public boolean isCanConcurrent() {
         return canConcurrent;
     }
@@ -76,6 +87,10 @@ public class FForall extends Formula{
         this.pattern_id = pattern_id;
     }
 
+    public void setRule_id(String rule_id) {
+        this.rule_id = rule_id;
+    }
+
     public void setSubformula(Formula subformula) {
         this.subformula = subformula;
     }
@@ -84,6 +99,10 @@ public class FForall extends Formula{
         this.var = var;
     }
 
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     public void setCanConcurrent(boolean canConcurrent) {
         this.canConcurrent = canConcurrent;
     }
@@ -102,11 +121,6 @@ public class FForall extends Formula{
         subformula.output(offset + 2);
     }
 
-    @Override
-    public Formula formulaClone() {
-        return new FForall(this.getVar(), this.getPattern_id());
-    }
-
     //S-condition
     @Override
     public void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet) {
@@ -130,8 +144,8 @@ public class FForall extends Formula{
             assert var == null;
             int meet_cnt = 0;
             for(RuntimeNode child : curNode.getChildren()){
-                HashMap<String, Context> varEnv = child.getVarEnv();
-                if(varEnv.get(this.var).equals(delChange.getContext())){//找到了对应分支
+                VarEnv varEnv = child.getVarEnv();
+                if(varEnv.get(this.slot).equals(delChange.getContext())){//找到了对应分支
                     meet_cnt ++;
                     boolean tv1 = child.isTruth();
                     boolean chk_flag = child.getFormula().evaluationAndEqualSideEffect(child, ((FForall)originFormula).getSubformula(), this.var, delChange, addChange, false, scheduler);
@@ -148,30 +162,23 @@ public class FForall extends Formula{
             if(canConcurrent){
                 //可以并发
                 assert var == null;
-                List<Future<Boolean>> retList = new ArrayList<>();
-                for(RuntimeNode child : curNode.getChildren()){
-                    assert scheduler instanceof GEAS_opt_c;
-                    Future<Boolean> future = ((GEAS_opt_c) scheduler).ThreadPool.submit(
-                            new GEAS_opt_c.evaluationAndEqualSideEffectCon(child, ((FForall)originFormula).getSubformula(), delChange, addChange, scheduler)
-                    );
-                    retList.add(future);
-                }
-
-                for(Future<Boolean> future : retList) {
-                    try {
-                        boolean tmpResult = future.get();
+                assert scheduler instanceof GEAS_opt_c;
+                List<RuntimeNode> children = curNode.getChildren();
+                try {
+                    List<Boolean> retList = scheduler.getExecutor().invokeRange(0, children.size(), i -> {
+                        RuntimeNode child = children.get(i);
+                        return child.getFormula().evaluationAndEqualSideEffect(child, ((FForall)originFormula).getSubformula(), null, delChange, addChange, false, scheduler);
+                    });
+                    for(boolean tmpResult : retList) {
                         result = result && tmpResult;
-                    } catch (ExecutionException | InterruptedException e) {
-                        e.printStackTrace();
-                        System.exit(1);
                     }
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    System.exit(1);
                 }
 
                 if(result){
-                    boolean newTruth = true;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        newTruth = newTruth && child.isTruth();
-                    }
+                    boolean newTruth = curNode.getFalseKids() == 0;
                     curNode.setOptTruth(curNode.isTruth());
                     curNode.setTruth(newTruth);
                 }
@@ -180,8 +187,7 @@ public class FForall extends Formula{
             else{
                 //不可并发
                 if(var != null){
-                    curNode.getVarEnv().remove(var);
-                    curNode.getVarEnv().put(var, addChange.getContext());
+                    curNode.setVarEnv(curNode.getVarEnv().bind(var, addChange.getContext()));
                 }
 
                 boolean newTruth = true;
@@ -205,16 +211,16 @@ public class FForall extends Formula{
             assert var == null;
             int meet_cnt = 0;
             for(RuntimeNode child : curNode.getChildren()){
-                HashMap<String, Context> varEnv = child.getVarEnv();
-                if(varEnv.get(this.var).equals(addChange.getContext())) {//找到了对应分支
+                VarEnv varEnv = child.getVarEnv();
+                if(varEnv.get(this.slot).equals(addChange.getContext())) {//找到了对应分支
                     meet_cnt++;
                     child.getFormula().sideeffectresolution(child, ((FForall)originFormula).getSubformula(), this.var, delChange, addChange, false, scheduler);
                 }
             }
             if(meet_cnt != 1){
                 for(RuntimeNode child : curNode.getChildren()){
-                    HashMap<String, Context> varEnv = child.getVarEnv();
-                    if(varEnv.get(this.var).equals(delChange.getContext())) {//找到了对应分支
+                    VarEnv varEnv = child.getVarEnv();
+                    if(varEnv.get(this.slot).equals(delChange.getContext())) {//找到了对应分支
                         System.out.println("error");
                     }
                 }
@@ -224,22 +230,16 @@ public class FForall extends Formula{
         else{
             if(canConcurrent){
                 assert var == null;
-                List<Future<Void>> retList = new ArrayList<>();
-                for(RuntimeNode child : curNode.getChildren()){
-                    assert scheduler instanceof GEAS_opt_c;
-                    Future<Void> future = ((GEAS_opt_c) scheduler).ThreadPool.submit(
-                            new GEAS_opt_c.sideEffectResolutionCon(child, ((FForall)originFormula).getSubformula(), delChange, addChange, scheduler)
-                    );
-                    retList.add(future);
-                }
-
-                for(Future<Void> future : retList){
-                    try {
-                        future.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        e.printStackTrace();
-                        System.exit(1);
-                    }
+                assert scheduler instanceof GEAS_opt_c;
+                List<RuntimeNode> children = curNode.getChildren();
+                try {
+                    scheduler.getExecutor().forRange(0, children.size(), i -> {
+                        RuntimeNode child = children.get(i);
+                        child.getFormula().sideeffectresolution(child, ((FForall)originFormula).getSubformula(), null, delChange, addChange, false, scheduler);
+                    });
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    System.exit(1);
                 }
 
             }
@@ -247,8 +247,7 @@ public class FForall extends Formula{
                 if(var != null){
                     curNode.setTruth(curNode.isOptTruth());
                     curNode.setOptTruth(true);
-                    curNode.getVarEnv().remove(var);
-                    curNode.getVarEnv().put(var, delChange.getContext());
+                    curNode.setVarEnv(curNode.getVarEnv().bind(var, delChange.getContext()));
                 }
                 for(RuntimeNode child : curNode.getChildren()){
                     child.getFormula().sideeffectresolution(child, ((FForall)originFormula).getSubformula(), var, delChange, addChange, false, scheduler);
@@ -307,9 +306,9 @@ public class FForall extends Formula{
     //PCCM && CPCC
     @Override
     public boolean updateAffectedWithChanges(Checker checker) {
-        int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-        int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-        int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+        int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+        int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+        int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
         boolean result = this.subformula.updateAffectedWithChanges(checker);
         result = result || AddSetSize != 0 || DelSetSize != 0 || UpdSetSize != 0;
         this.setAffected(result);
@@ -326,9 +325,9 @@ public class FForall extends Formula{
     public void updateCanConcurrent_INFUSE(boolean canConcurrent, Rule rule, Checker checker) {
         if(canConcurrent){
             int PoolSize = checker.getContextPool().getPoolSetSize(rule.getRule_id(), this.pattern_id);
-            int AddSetSize = checker.getContextPool().getAddSetSize(this.pattern_id);
-            int DelSetSize = checker.getContextPool().getDelSetSize(this.pattern_id);
-            int UpdSetSize = checker.getContextPool().getUpdSetSize(this.pattern_id);
+            int AddSetSize = checker.getContextPool().getAddSetSize(this.rule_id, this.pattern_id);
+            int DelSetSize = checker.getContextPool().getDelSetSize(this.rule_id, this.pattern_id);
+            int UpdSetSize = checker.getContextPool().getUpdSetSize(this.rule_id, this.pattern_id);
             if(rule.getPatToDepth().get(this.pattern_id) >= 2){
                 int entireNum = AddSetSize + UpdSetSize;
                 int partialNum = PoolSize - DelSetSize - UpdSetSize;
@@ -373,9 +372,8 @@ public class FForall extends Formula{
         for(Context context : pool){
             RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
             runtimeNode.setDepth(curNode.getDepth() + 1);
-            runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-            runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), context);
-            curNode.getChildren().add(runtimeNode);
+            runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), context));
+            curNode.addKid(runtimeNode);
             //递归调用
             runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FForall) originFormula).getSubformula(), checker);
         }
@@ -397,6 +395,10 @@ public class FForall extends Formula{
 
     @Override
     public Set<Link> linksGeneration_ECC(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker)  {
+        //lazy links: the links of an unchanged subtree are still valid
+        if(checker.isLazyLinks() && !curNode.isLinksDirty()){
+            return curNode.getLinks();
+        }
         Set<Link> result = new HashSet<>();
         LGUtils lgUtils = new LGUtils();
         if(!checker.isMG()) {
@@ -404,8 +406,7 @@ public class FForall extends Formula{
             for(RuntimeNode child : curNode.getChildren()){
                 Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                 initialSet.add(initialLink);
                 if(child.isTruth()) continue;
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -422,8 +423,7 @@ public class FForall extends Formula{
                 if(child.isTruth()) continue;
                 Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                 initialSet.add(initialLink);
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                 result.addAll(res);
@@ -440,8 +440,8 @@ public class FForall extends Formula{
     private void RemoveBranch_PCC(RuntimeNode curNode, Context context, Formula originFormula){
         boolean flag = false;
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(((FForall)originFormula).getVar()).equals(context)){
-                flag = curNode.getChildren().remove(child);
+            if(child.getVarEnv().get(((FForall)originFormula).getSlot()).equals(context)){
+                flag = curNode.removeKid(child);
                 break;
             }
         }
@@ -460,9 +460,8 @@ public class FForall extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FForall) originFormula).getSubformula(), checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -496,10 +495,7 @@ public class FForall extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = true;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        result = result && child.isTruth();
-                    }
+                    boolean result = curNode.getFalseKids() == 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -535,8 +531,7 @@ public class FForall extends Formula{
                         RuntimeNode addchild = curNode.getChildren().get(curNode.getChildren().size() - 1);
                         Set<Link> childLink = addchild.getFormula().linksGeneration_ECC(addchild, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), addchild.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), addchild.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(!addchild.isTruth()){
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
@@ -545,8 +540,7 @@ public class FForall extends Formula{
                     else{
                         for(RuntimeNode child : curNode.getChildren()){
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -558,8 +552,7 @@ public class FForall extends Formula{
                     for(RuntimeNode child : curNode.getChildren()){
                         Set<Link> childLink = child.getFormula().linksGeneration_PCC(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -584,8 +577,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_PCC(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -607,8 +599,7 @@ public class FForall extends Formula{
                                     if(child.isTruth()) continue;
                                     Set<Link> childLink = child.getFormula().linksGeneration_PCC(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -619,8 +610,7 @@ public class FForall extends Formula{
                         if(!addchild.isTruth()){
                             Set<Link> childLink = addchild.getFormula().linksGeneration_ECC(addchild, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), addchild.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), addchild.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
                         }
@@ -629,8 +619,7 @@ public class FForall extends Formula{
                         for(RuntimeNode child : curNode.getChildren()){
                             if(child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -648,8 +637,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_PCC(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -669,23 +657,18 @@ public class FForall extends Formula{
     public void createBranches_ConC(String rule_id, RuntimeNode curNode, Formula originFormula, boolean canConcurrent, Checker checker) {
         if(canConcurrent){
             Set<Context> pool = checker.getContextPool().getPoolSet(rule_id, ((FForall)originFormula).getPattern_id());
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : pool){
-                assert checker instanceof ConC;
-                Future<RuntimeNode> future = ((ConC) checker).ThreadPool.submit(
-                        new ConC.CreateBranchesTask_ConC(rule_id, curNode.getDepth(),
-                                curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = pool.toArray(new Context[0]);
+            assert checker instanceof ConC;
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    curNode.getChildren().add(future.get());
-                } catch (Exception e) {
-                    System.out.println("get returnNode error");
-                    System.exit(1);
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> ConC.createBranch(rule_id, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode returnNode : returnNodes){
+                    curNode.addKid(returnNode);
                 }
+            } catch (Exception e) {
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -693,9 +676,8 @@ public class FForall extends Formula{
             for(Context context : pool){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), context);
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), context));
+                curNode.addKid(runtimeNode);
                 //递归调用
                 runtimeNode.getFormula().createBranches_ConC(rule_id, runtimeNode, ((FForall) originFormula).getSubformula(), false, checker);
             }
@@ -705,25 +687,19 @@ public class FForall extends Formula{
     @Override
     public boolean truthEvaluation_ConC(RuntimeNode curNode, Formula originFormula, boolean canConcurrent, Checker checker) {
         if(canConcurrent){
-            List<Future<Boolean>> truthList = new ArrayList<>();
-            for(RuntimeNode child : curNode.getChildren()){
-                assert checker instanceof ConC;
-                Future<Boolean> future = ((ConC)checker).ThreadPool.submit(
-                        new ConC.TruthEvaluationTask_ConC(child, ((FForall)originFormula).getSubformula(), checker)
-                );
-                truthList.add(future);
-            }
+            assert checker instanceof ConC;
+            List<RuntimeNode> children = curNode.getChildren();
             //计算总的真值
             boolean result = true;
-            for(Future<Boolean> truth : truthList){
-                try {
-                    //短路后面get不会执行从而不会阻塞
-                    boolean tempresult = truth.get();
+            try {
+                List<Boolean> truthList = checker.getExecutor().invokeRange(0, children.size(),
+                        i -> children.get(i).getFormula().truthEvaluation_ConC(children.get(i), ((FForall)originFormula).getSubformula(), false, checker));
+                for(boolean tempresult : truthList){
                     result = result && tempresult;
-                } catch (Exception e) {
-                    System.out.println("get truth error");
-                    System.exit(1);
                 }
+            } catch (Exception e) {
+                System.out.println("get truth error");
+                System.exit(1);
             }
             curNode.setTruth(result);
             return result;
@@ -743,17 +719,15 @@ public class FForall extends Formula{
     public Set<Link> linksGeneration_ConC(RuntimeNode curNode, Formula originFormula, boolean canConcurrent, final Set<RuntimeNode> prevSubstantialNodes, Checker checker) {
         LGUtils lgUtils = new LGUtils();
         if(canConcurrent){
-            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+            List<RuntimeNode> children = curNode.getChildren();
+            int[] linkIndexes = new int[children.size()];
+            int linkCount = 0;
             Set<Link> result = new HashSet<>();
+            assert checker instanceof ConC;
             if(!checker.isMG()) {
                 // case 1: !MG --> all
-                for(int index = 0; index < curNode.getChildren().size(); ++index){
-                    RuntimeNode child = curNode.getChildren().get(index);
-                    assert checker instanceof ConC;
-                    Future<Set<Link>> future = ((ConC) checker).ThreadPool.submit(
-                            new ConC.LinksGenerationTask_ConC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                    );
-                    LSMap.put(index, future);
+                for(int index = 0; index < children.size(); ++index){
+                    linkIndexes[linkCount++] = index;
                 }
             }
             else if(curNode.isTruth()){
@@ -762,30 +736,27 @@ public class FForall extends Formula{
             }
             else {
                 // case 3: MG && false --> false
-                for(int index = 0; index < curNode.getChildren().size(); ++index){
-                    RuntimeNode child = curNode.getChildren().get(index);
-                    if(child.isTruth()) continue;
-                    assert checker instanceof ConC;
-                    Future<Set<Link>> future = ((ConC) checker).ThreadPool.submit(
-                            new ConC.LinksGenerationTask_ConC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                    );
-                    LSMap.put(index, future);
+                for(int index = 0; index < children.size(); ++index){
+                    if(children.get(index).isTruth()) continue;
+                    linkIndexes[linkCount++] = index;
                 }
             }
+            List<Set<Link>> childLinks = null;
+            try {
+                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                    RuntimeNode child = children.get(linkIndexes[k]);
+                    return child.getFormula().linksGeneration_ConC(child, ((FForall)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
+                });
+            } catch (Exception e) {
+                System.out.println("get links error");
+                System.exit(1);
+            }
             //合并links
-            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                int index = entry.getKey();
-                RuntimeNode child = curNode.getChildren().get(index);
-                Set<Link> childLink = null;
-                try {
-                    childLink = entry.getValue().get();
-                } catch (Exception e) {
-                    System.out.println("get links error");
-                    System.exit(1);
-                }
+            for(int k = 0; k < linkCount; ++k){
+                RuntimeNode child = children.get(linkIndexes[k]);
+                Set<Link> childLink = childLinks.get(k);
                 Set<Link> initialSet = new HashSet<>();
-                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                 initialSet.add(initialLink);
                 if(child.isTruth()) continue;
                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -801,8 +772,7 @@ public class FForall extends Formula{
                 for(RuntimeNode child : curNode.getChildren()){
                     Set<Link> childLink =  child.getFormula().linksGeneration_ConC(child,((FForall)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
                     Set<Link> initialSet = new HashSet<>();
-                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                     initialSet.add(initialLink);
                     if(child.isTruth()) continue;
                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -819,8 +789,7 @@ public class FForall extends Formula{
                     if(child.isTruth()) continue;
                     Set<Link> childLink =  child.getFormula().linksGeneration_ConC(child,((FForall)originFormula).getSubformula(), false, prevSubstantialNodes, checker);
                     Set<Link> initialSet = new HashSet<>();
-                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                     initialSet.add(initialLink);
                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                     result.addAll(res);
@@ -838,9 +807,9 @@ public class FForall extends Formula{
     private void RemoveBranch_PCCM(RuntimeNode curNode, Context context, Formula originFormula){
         boolean flag = false;
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(((FForall)originFormula).getVar()).equals(context)){
+            if(child.getVarEnv().get(((FForall)originFormula).getSlot()).equals(context)){
                 flag = true;
-                curNode.getChildren().remove(child);
+                curNode.removeKid(child);
                 break;
             }
         }
@@ -859,9 +828,8 @@ public class FForall extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FForall) originFormula).getSubformula(), checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -885,8 +853,8 @@ public class FForall extends Formula{
         }
         else{
             if(((FForall)originFormula).getSubformula().isAffected()){
-                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                 boolean result = true;
                 for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                     RuntimeNode child = curNode.getChildren().get(i);
@@ -902,9 +870,9 @@ public class FForall extends Formula{
                 return result;
             }
             else{
-                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getPattern_id());
-                int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                 if(DelSetSize == 0 && UpdSetSize == 0){
                     boolean result = curNode.isTruth();
                     for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
@@ -916,16 +884,12 @@ public class FForall extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = true;
-                    for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        result = result && child.isTruth();
-                    }
                     for(int i = curNode.getChildren().size() - AddSetSize - UpdSetSize; i < curNode.getChildren().size(); ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
-                        boolean tempresult = child.getFormula().truthEvaluation_ECC(child, ((FForall)originFormula).getSubformula(), checker);
-                        result = result && tempresult;
+                        child.getFormula().truthEvaluation_ECC(child, ((FForall)originFormula).getSubformula(), checker);
                     }
+                    //the other children are unchanged, the counter has them
+                    boolean result = curNode.getFalseKids() == 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -945,14 +909,13 @@ public class FForall extends Formula{
             }
             else{
                 if(((FForall)originFormula).getSubformula().isAffected()){
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCCM(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -962,8 +925,7 @@ public class FForall extends Formula{
                         RuntimeNode child = curNode.getChildren().get(i);
                         Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -971,9 +933,9 @@ public class FForall extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getPattern_id());
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     if(DelSetSize == 0 && UpdSetSize == 0){
                         if(curNode.getLinks() != null)
                             result.addAll(curNode.getLinks());
@@ -981,8 +943,7 @@ public class FForall extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -993,8 +954,7 @@ public class FForall extends Formula{
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -1004,8 +964,7 @@ public class FForall extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1031,8 +990,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCCM(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1041,15 +999,14 @@ public class FForall extends Formula{
             }
             else{
                 if(((FForall)originFormula).getSubformula().isAffected()){
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize - UpdSetSize; ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         if(child.isTruth()) continue;
                         Set<Link> childLink =  child.getFormula().linksGeneration_PCCM(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1059,17 +1016,16 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getPattern_id());
-                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int UpdSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     if(DelSetSize == 0 && UpdSetSize == 0){
                         if(curNode.getLinks() != null){
                             // check whether curNode.links reusable
@@ -1082,8 +1038,7 @@ public class FForall extends Formula{
                                     if(child.isTruth()) continue;
                                     Set<Link> childLink =  child.getFormula().linksGeneration_PCCM(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -1095,8 +1050,7 @@ public class FForall extends Formula{
                             if(child.isTruth()) continue;
                             Set<Link> childLink =  child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1107,8 +1061,7 @@ public class FForall extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -1126,8 +1079,7 @@ public class FForall extends Formula{
                             if(child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child,((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1146,9 +1098,9 @@ public class FForall extends Formula{
      */
     private RuntimeNode RemoveBranch_CPCC(Rule rule, RuntimeNode curNode, Context context, boolean updating){
         for(RuntimeNode child : curNode.getChildren()){
-            if(child.getVarEnv().get(this.var).equals(context)){
+            if(child.getVarEnv().get(this.slot).equals(context)){
                 child.setParent(null);
-                curNode.getChildren().remove(child);
+                curNode.removeKid(child);
                 if(!updating){ //deleting
                     int patDepth = rule.getPatToDepth().get(this.pattern_id);
                     SortedMap<Integer, String> headMap =  rule.getDepthToPat().headMap(patDepth);
@@ -1171,25 +1123,19 @@ public class FForall extends Formula{
         rule.getPatToRuntimeNode().get(this.pattern_id).add(curNode);
         if(((FForall)originFormula).isCanConcurrent()){
             Set<Context> pool = checker.getContextPool().getPoolSet(rule.getRule_id(), ((FForall)originFormula).getPattern_id());
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : pool){
-                Future<RuntimeNode> future = ((INFUSE_C) checker).ThreadPool.submit(
-                        new INFUSE_C.CreateBranchesTask_INFUSE(rule, curNode.getDepth(),
-                                curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = pool.toArray(new Context[0]);
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    RuntimeNode child = future.get();
-                    curNode.getChildren().add(child);
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> INFUSE_C.createBranch(rule, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode child : returnNodes){
+                    curNode.addKid(child);
                     child.setParent(curNode);
-                } catch (Exception e) {
-                    System.out.println(e.getMessage());
-                    System.out.println("get returnNode error");
-                    System.exit(1);
                 }
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -1197,10 +1143,9 @@ public class FForall extends Formula{
             for(Context context : pool){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), context);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), context));
                 runtimeNode.setParent(curNode);
-                curNode.getChildren().add(runtimeNode);
+                curNode.addKid(runtimeNode);
                 //递归调用
                 runtimeNode.getFormula().createBranches_INFUSE(rule, runtimeNode, ((FForall) originFormula).getSubformula(), checker);
             }
@@ -1210,47 +1155,33 @@ public class FForall extends Formula{
     @Override
     public void modifyBranch_INFUSE(Rule rule, RuntimeNode curNode, Formula originFormula, Checker checker) {
         //Delset
-        Set<Context> DelSet = checker.getContextPool().getDelSet(((FForall)originFormula).getPattern_id());
+        Set<Context> DelSet = checker.getContextPool().getDelSet(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
         for(Context context : DelSet){
             RemoveBranch_CPCC(rule, curNode, context, false);
         }
 
         //ModSet
-        Set<Context> ModSet = checker.getContextPool().getUpdSet(((FForall)originFormula).getPattern_id());
+        Set<Context> ModSet = checker.getContextPool().getUpdSet(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
         for(Context context : ModSet){
             RuntimeNode ModNode = RemoveBranch_CPCC(rule, curNode, context, true);
             if(ModNode != null){
                 ModNode.setParent(curNode);
-                curNode.getChildren().add(ModNode);
+                curNode.addKid(ModNode);
             }
 
         }
 
         //AddSet
-        Set<Context> AddSet = checker.getContextPool().getAddSet(((FForall)originFormula).getPattern_id());
+        Set<Context> AddSet = checker.getContextPool().getAddSet(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
         if(((FForall)originFormula).isCanConcurrent()){
             //AddS
-            List<Future<RuntimeNode>> returnNodes = new ArrayList<>();
-            for(Context context : AddSet){
-                Future<RuntimeNode> future = ((INFUSE_C) checker).ThreadPool.submit(
-                        new INFUSE_C.CreateBranchesTask_INFUSE(rule, curNode.getDepth(),
-                                curNode.getVarEnv(), context, originFormula, checker)
-                );
-                returnNodes.add(future);
-            }
+            Context[] contexts = AddSet.toArray(new Context[0]);
             //rest
-            List<Future<Void>> voidlist = new ArrayList<>();
             if(((FForall)originFormula).getSubformula().isAffected()){
-                for(RuntimeNode child : curNode.getChildren()){
-                    Future<Void> future = ((INFUSE_C) checker).ThreadPool.submit(
-                            new INFUSE_C.ModifyBranchTask_INFUSE(rule, child, ((FForall)originFormula).getSubformula(), checker)
-                    );
-                    voidlist.add(future);
-                }
-            }
-            for(Future<Void> future : voidlist){
+                List<RuntimeNode> children = curNode.getChildren();
                 try {
-                    future.get();
+                    checker.getExecutor().forRange(0, children.size(),
+                            i -> children.get(i).getFormula().modifyBranch_INFUSE(rule, children.get(i), ((FForall)originFormula).getSubformula(), checker));
                 } catch (Exception e) {
                     System.out.println(e.getMessage());
                     System.out.println("get Void error");
@@ -1258,16 +1189,17 @@ public class FForall extends Formula{
                 }
             }
             //添加分支
-            for(Future<RuntimeNode> future : returnNodes){
-                try {
-                    RuntimeNode child = future.get();
+            try {
+                List<RuntimeNode> returnNodes = checker.getExecutor().invokeRange(0, contexts.length,
+                        i -> INFUSE_C.createBranch(rule, curNode.getDepth(), curNode.getVarEnv(), contexts[i], originFormula, checker));
+                for(RuntimeNode child : returnNodes){
                     child.setParent(curNode);
-                    curNode.getChildren().add(child);
-                } catch (Exception e) {
-                    System.out.println(e.getMessage());
-                    System.out.println("get returnNode error");
-                    System.exit(1);
+                    curNode.addKid(child);
                 }
+            } catch (Exception e) {
+                System.out.println(e.getMessage());
+                System.out.println("get returnNode error");
+                System.exit(1);
             }
         }
         else{
@@ -1281,10 +1213,9 @@ public class FForall extends Formula{
             for(Context context : AddSet){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), context);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), context));
                 runtimeNode.setParent(curNode);
-                curNode.getChildren().add(runtimeNode);
+                curNode.addKid(runtimeNode);
                 runtimeNode.getFormula().createBranches_INFUSE(rule, runtimeNode, ((FForall)originFormula).getSubformula(), checker);
             }
         }
@@ -1299,7 +1230,7 @@ public class FForall extends Formula{
             boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(),checker);
             result = result && tempresult;
             //virtual truth
-            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
         }
         curNode.setTruth(result);
         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1315,40 +1246,31 @@ public class FForall extends Formula{
         else{
             //case 4,5
             if(((FForall)originFormula).getSubformula().isAffected()){
-                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                 if(((FForall)originFormula).isCanConcurrent()){
                     boolean result = true;
-                    List<Future<Boolean>> truthList = new ArrayList<>();
-                    for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                new INFUSE_C.TruthEvaluationTaskPar_INFUSE(child, ((FForall)originFormula).getSubformula(), checker)
-                        );
-                        truthList.add(future);
-                    }
-                    for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                        RuntimeNode child = curNode.getChildren().get(i);
-                        Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker)
-                        );
-                        truthList.add(future);
-                    }
-
-                    for(Future<Boolean> truth : truthList){
-                        try {
-                            //短路后面get不会执行从而不会阻塞
-                            boolean tempresult = truth.get();
+                    List<RuntimeNode> children = curNode.getChildren();
+                    //unchanged children first, then the added and updated ones
+                    int comFrom = children.size() - AddSetSize - ModSetSize;
+                    try {
+                        List<Boolean> truthList = checker.getExecutor().invokeRange(0, children.size(), i -> {
+                            RuntimeNode child = children.get(i);
+                            return i < comFrom
+                                    ? child.getFormula().truthEvaluationPar_INFUSE(child, ((FForall)originFormula).getSubformula(), checker)
+                                    : child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
+                        });
+                        for(boolean tempresult : truthList){
                             result = result && tempresult;
-                        } catch (Exception e) {
-                            System.out.println(e.getMessage());
-                            System.out.println("get truth error A");
-                            System.exit(1);
                         }
+                    } catch (Exception e) {
+                        System.out.println(e.getMessage());
+                        System.out.println("get truth error A");
+                        System.exit(1);
                     }
                     //virtual truth
                     for(RuntimeNode child : curNode.getChildren()){
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     curNode.setTruth(result);
                     curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1361,14 +1283,14 @@ public class FForall extends Formula{
                         boolean tempresult = child.getFormula().truthEvaluationPar_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
                         result = result && tempresult;
                         //virtual truth
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                         RuntimeNode child = curNode.getChildren().get(i);
                         boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
                         result = result && tempresult;
                         //virtual truth
-                        curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                        curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                     }
                     curNode.setTruth(result);
                     curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1376,38 +1298,30 @@ public class FForall extends Formula{
                 }
             }
             else{
-                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getPattern_id());
-                int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int DelSetSize = checker.getContextPool().getDelSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                 //case 2
                 if(ModSetSize == 0 && DelSetSize == 0){
                     if(((FForall)originFormula).isCanConcurrent()){
                         boolean result = curNode.isTruth();
                         //AddSet
-                        List<Future<Boolean>> truthList = new ArrayList<>();
-                        for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker)
-                            );
-                            truthList.add(future);
-                        }
-                        //all
-                        for(Future<Boolean> truth : truthList){
-                            try {
-                                //短路后面get不会执行从而不会阻塞
-                                boolean tempresult = truth.get();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        try {
+                            List<Boolean> truthList = checker.getExecutor().invokeRange(children.size() - AddSetSize, children.size(),
+                                    i -> children.get(i).getFormula().truthEvaluationCom_INFUSE(children.get(i), ((FForall)originFormula).getSubformula(), checker));
+                            for(boolean tempresult : truthList){
                                 result = result && tempresult;
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get truth error NA and DE");
-                                System.exit(1);
                             }
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get truth error NA and DE");
+                            System.exit(1);
                         }
                         //virtual truth
                         for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1422,7 +1336,7 @@ public class FForall extends Formula{
                             boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
                             result = result && tempresult;
                             //virtual truth
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
@@ -1432,56 +1346,35 @@ public class FForall extends Formula{
                 //case 3: !ModSet.isEmpty() || !DelSet.isEmpty()
                 else {
                     if(((FForall)originFormula).isCanConcurrent()){
-                        boolean result = true;
-                        List<Future<Boolean>> truthList = new ArrayList<>();
-                        for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            result = result && child.isTruth();
-                            //virtual truths are already in hashMap
-                        }
-                        for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Boolean> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.TruthEvaluationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker)
-                            );
-                            truthList.add(future);
-                        }
-                        //all
-                        for(Future<Boolean> truth : truthList){
-                            try {
-                                //短路后面get不会执行从而不会阻塞
-                                boolean tempresult = truth.get();
-                                result = result && tempresult;
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get truth error NA and DNE");
-                                System.exit(1);
-                            }
+                        List<RuntimeNode> children = curNode.getChildren();
+                        try {
+                            checker.getExecutor().invokeRange(children.size() - AddSetSize - ModSetSize, children.size(),
+                                    i -> children.get(i).getFormula().truthEvaluationCom_INFUSE(children.get(i), ((FForall)originFormula).getSubformula(), checker));
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get truth error NA and DNE");
+                            System.exit(1);
                         }
+                        //the other children are unchanged, the counter has them
+                        boolean result = curNode.getFalseKids() == 0;
                         //virtual truth
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
                         return result;
                     }
                     else{
-                        boolean result = true;
-                        for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            boolean tempresult = child.isTruth();
-                            result = result && tempresult;
-                            //virtual truths are already in hashMap
-                        }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
-                            boolean tempresult = child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
-                            result = result && tempresult;
+                            child.getFormula().truthEvaluationCom_INFUSE(child, ((FForall)originFormula).getSubformula(), checker);
                             //virtual truth
-                            curNode.getKidsVT().put(child.getVarEnv().get(this.var), child.getVirtualTruth());
+                            curNode.getKidsVT().put(child.getVarEnv().get(this.slot), child.getVirtualTruth());
                         }
+                        //the other children are unchanged, the counter has them
+                        boolean result = curNode.getFalseKids() == 0;
                         curNode.setTruth(result);
                         curNode.setVirtualTruth(result ? RuntimeNode.Virtual_Truth_Type.TRUE : RuntimeNode.Virtual_Truth_Type.FALSE);
                         return result;
@@ -1505,38 +1398,39 @@ public class FForall extends Formula{
             else{
                 if(((FForall)originFormula).getSubformula().isAffected()){
                     //case 4,5
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     if(((FForall)originFormula).isCanConcurrent()){
-                        Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        int[] linkIndexes = new int[children.size()];
+                        int linkCount = 0;
+                        //unchanged children first, then the added and updated ones
+                        int comFrom = children.size() - AddSetSize - ModSetSize;
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i,future);
+                            linkIndexes[linkCount++] = i;
                         }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                            RuntimeNode child = curNode.getChildren().get(i);
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
-                        for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                            int index = entry.getKey();
-                            RuntimeNode child = curNode.getChildren().get(index);
-                            Set<Link> childLink = null;
-                            try {
-                                childLink = entry.getValue().get();
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get links error A and C com");
-                                System.exit(1);
-                            }
+                        List<Set<Link>> childLinks = null;
+                        try {
+                            childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                int index = linkIndexes[k];
+                                RuntimeNode child = children.get(index);
+                                return index < comFrom
+                                        ? child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                        : child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                            });
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get links error A and C com");
+                            System.exit(1);
+                        }
+                        for(int k = 0; k < linkCount; ++k){
+                            RuntimeNode child = children.get(linkIndexes[k]);
+                            Set<Link> childLink = childLinks.get(k);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1548,8 +1442,7 @@ public class FForall extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1559,8 +1452,7 @@ public class FForall extends Formula{
                             RuntimeNode child = curNode.getChildren().get(i);
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1569,38 +1461,38 @@ public class FForall extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall) originFormula).getPattern_id());
-                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall) originFormula).getPattern_id());
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall) originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
+                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
                     //case 2
                     if(ModSetSize == 0 && DelSetSize == 0){
                         if(((FForall)originFormula).isCanConcurrent()){
                             if(curNode.getLinks() != null)
                                 result.addAll(curNode.getLinks());
                             //AddSet
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
                             for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
-                                RuntimeNode child = curNode.getChildren().get(i);
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println(e.getMessage());
-                                    System.out.println("get links error NA and DE");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    RuntimeNode child = children.get(linkIndexes[k]);
+                                    return child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println(e.getMessage());
+                                System.out.println("get links error NA and DE");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1615,8 +1507,7 @@ public class FForall extends Formula{
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1627,39 +1518,38 @@ public class FForall extends Formula{
                     //case 3
                     else{
                         if(((FForall)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                 result.addAll(res);
                             }
                             for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
-                                RuntimeNode child = curNode.getChildren().get(i);
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link>  childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println(e.getMessage());
-                                    System.out.println("get links error NA and DNE");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    RuntimeNode child = children.get(linkIndexes[k]);
+                                    return child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println(e.getMessage());
+                                System.out.println("get links error NA and DNE");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1670,8 +1560,7 @@ public class FForall extends Formula{
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -1681,8 +1570,7 @@ public class FForall extends Formula{
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 if(child.isTruth()) continue;
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -1711,8 +1599,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -1722,40 +1609,43 @@ public class FForall extends Formula{
             else{
                 if(((FForall)originFormula).getSubformula().isAffected()){
                     //case 4,5
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getPattern_id());
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall)originFormula).getRule_id(), ((FForall)originFormula).getPattern_id());
                     if(((FForall)originFormula).isCanConcurrent()){
-                        Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                        List<RuntimeNode> children = curNode.getChildren();
+                        int[] linkIndexes = new int[children.size()];
+                        int linkCount = 0;
+                        //unchanged children first, then the added and updated ones
+                        int comFrom = children.size() - AddSetSize - ModSetSize;
                         for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(child.isTruth()) continue;
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i,future);
+                            linkIndexes[linkCount++] = i;
                         }
                         for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                             RuntimeNode child = curNode.getChildren().get(i);
                             if(child.isTruth()) continue;
-                            Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                    new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                            );
-                            LSMap.put(i, future);
+                            linkIndexes[linkCount++] = i;
                         }
-                        for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                            int index = entry.getKey();
-                            RuntimeNode child = curNode.getChildren().get(index);
-                            Set<Link> childLink = null;
-                            try {
-                                childLink = entry.getValue().get();
-                            } catch (Exception e) {
-                                System.out.println(e.getMessage());
-                                System.out.println("get links error A and C com");
-                                System.exit(1);
-                            }
+                        List<Set<Link>> childLinks = null;
+                        try {
+                            childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                int index = linkIndexes[k];
+                                RuntimeNode child = children.get(index);
+                                return index < comFrom
+                                        ? child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                        : child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                            });
+                        } catch (Exception e) {
+                            System.out.println(e.getMessage());
+                            System.out.println("get links error A and C com");
+                            System.exit(1);
+                        }
+                        for(int k = 0; k < linkCount; ++k){
+                            RuntimeNode child = children.get(linkIndexes[k]);
+                            Set<Link> childLink = childLinks.get(k);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1767,8 +1657,7 @@ public class FForall extends Formula{
                             if(child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1778,8 +1667,7 @@ public class FForall extends Formula{
                             if(child.isTruth()) continue;
                             Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                             result.addAll(res);
@@ -1787,13 +1675,17 @@ public class FForall extends Formula{
                     }
                 }
                 else{
-                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall) originFormula).getPattern_id());
-                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall) originFormula).getPattern_id());
-                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall) originFormula).getPattern_id());
+                    int AddSetSize = checker.getContextPool().getAddSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
+                    int DelSetSize = checker.getContextPool().getDelSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
+                    int ModSetSize = checker.getContextPool().getUpdSetSize(((FForall) originFormula).getRule_id(), ((FForall) originFormula).getPattern_id());
                     //case 2
                     if(ModSetSize == 0 && DelSetSize == 0){
                         if(((FForall)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
+                            //unchanged children first, then the added ones
+                            int comFrom = children.size() - AddSetSize;
                             if(curNode.getLinks() != null){
                                 // check whether curNode.links reusable
                                 if(prevSubstantialNodes.contains(curNode)){
@@ -1804,10 +1696,7 @@ public class FForall extends Formula{
                                     for(int i = 0; i < curNode.getChildren().size() - AddSetSize; ++i){
                                         RuntimeNode child = curNode.getChildren().get(i);
                                         if(child.isTruth()) continue;
-                                        Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                                new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FForall) originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                        );
-                                        LSMap.put(i, future);
+                                        linkIndexes[linkCount++] = i;
                                     }
                                 }
                             }
@@ -1815,26 +1704,28 @@ public class FForall extends Formula{
                             for(int i = curNode.getChildren().size() - AddSetSize; i < curNode.getChildren().size(); ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(child.isTruth()) continue;
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link> childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println(e.getMessage());
-                                    System.out.println("get links error NA and DE");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    int index = linkIndexes[k];
+                                    RuntimeNode child = children.get(index);
+                                    return index < comFrom
+                                            ? child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                            : child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println(e.getMessage());
+                                System.out.println("get links error NA and DE");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1853,8 +1744,7 @@ public class FForall extends Formula{
                                         if(child.isTruth()) continue;
                                         Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                         Set<Link> initialSet = new HashSet<>();
-                                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                         initialSet.add(initialLink);
                                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                         result.addAll(res);
@@ -1867,8 +1757,7 @@ public class FForall extends Formula{
                                 if(child.isTruth()) continue;
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1878,49 +1767,51 @@ public class FForall extends Formula{
                     //case 3
                     else{
                         if(((FForall)originFormula).isCanConcurrent()){
-                            Map<Integer, Future<Set<Link>>> LSMap = new HashMap<>();
+                            List<RuntimeNode> children = curNode.getChildren();
+                            int[] linkIndexes = new int[children.size()];
+                            int linkCount = 0;
+                            //unchanged children first, then the added and updated ones
+                            int comFrom = children.size() - AddSetSize - ModSetSize;
                             for(int i = 0; i < curNode.getChildren().size() - AddSetSize - ModSetSize; ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(child.isTruth()) continue;
                                 // check whether child.links reusable
                                 if(prevSubstantialNodes.contains(child)){
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                     result.addAll(res);
                                 }
                                 else{
-                                    Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                            new INFUSE_C.LinksGenerationTaskPar_INFUSE(child, ((FForall) originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                    );
-                                    LSMap.put(i, future);
+                                    linkIndexes[linkCount++] = i;
                                 }
                             }
                             for(int i = curNode.getChildren().size() - AddSetSize - ModSetSize; i < curNode.getChildren().size(); ++i){
                                 RuntimeNode child = curNode.getChildren().get(i);
                                 if(child.isTruth()) continue;
-                                Future<Set<Link>> future = ((INFUSE_C) checker).ThreadPool.submit(
-                                        new INFUSE_C.LinksGenerationTaskCom_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
-                                );
-                                LSMap.put(i, future);
+                                linkIndexes[linkCount++] = i;
                             }
                             //all
-                            for(Map.Entry<Integer, Future<Set<Link>>> entry : LSMap.entrySet()){
-                                int index = entry.getKey();
-                                RuntimeNode child = curNode.getChildren().get(index);
-                                Set<Link>  childLink = null;
-                                try {
-                                    childLink = entry.getValue().get();
-                                } catch (Exception e) {
-                                    System.out.println(e.getMessage());
-                                    System.out.println("get links error NA and DNE");
-                                    System.exit(1);
-                                }
+                            List<Set<Link>> childLinks = null;
+                            try {
+                                childLinks = checker.getExecutor().invokeRange(0, linkCount, k -> {
+                                    int index = linkIndexes[k];
+                                    RuntimeNode child = children.get(index);
+                                    return index < comFrom
+                                            ? child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker)
+                                            : child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
+                                });
+                            } catch (Exception e) {
+                                System.out.println(e.getMessage());
+                                System.out.println("get links error NA and DNE");
+                                System.exit(1);
+                            }
+                            for(int k = 0; k < linkCount; ++k){
+                                RuntimeNode child = children.get(linkIndexes[k]);
+                                Set<Link> childLink = childLinks.get(k);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1933,8 +1824,7 @@ public class FForall extends Formula{
                                 // check whether child.links reusable
                                 if(prevSubstantialNodes.contains(child)){
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
                                     result.addAll(res);
@@ -1942,8 +1832,7 @@ public class FForall extends Formula{
                                 else{
                                     Set<Link> childLink = child.getFormula().linksGeneration_INFUSE(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -1954,8 +1843,7 @@ public class FForall extends Formula{
                                 if(child.isTruth()) continue;
                                 Set<Link> childLink = child.getFormula().linksGeneration_ECC(child, ((FForall)originFormula).getSubformula(), prevSubstantialNodes, checker);
                                 Set<Link> initialSet = new HashSet<>();
-                                Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                 initialSet.add(initialLink);
                                 Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                 result.addAll(res);
@@ -1981,9 +1869,8 @@ public class FForall extends Formula{
             if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
                 RuntimeNode runtimeNode = new RuntimeNode(((FForall)originFormula).getSubformula());
                 runtimeNode.setDepth(curNode.getDepth() + 1);
-                runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-                runtimeNode.getVarEnv().put(((FForall)originFormula).getVar(), contextChange.getContext());
-                curNode.getChildren().add(runtimeNode);
+                runtimeNode.setVarEnv(curNode.getVarEnv().bind(((FForall)originFormula).getSlot(), contextChange.getContext()));
+                curNode.addKid(runtimeNode);
                 //创建下面的分支
                 runtimeNode.getFormula().createBranches_ConC(rule_id, runtimeNode, ((FForall) originFormula).getSubformula(), true, checker);
                 //因为只有一个change，无需对更小的语法结构进行修改
@@ -2017,10 +1904,7 @@ public class FForall extends Formula{
                     return result;
                 }
                 else{
-                    boolean result = true;
-                    for(RuntimeNode child : curNode.getChildren()){
-                        result = result && child.isTruth();
-                    }
+                    boolean result = curNode.getFalseKids() == 0;
                     curNode.setTruth(result);
                     return result;
                 }
@@ -2056,8 +1940,7 @@ public class FForall extends Formula{
                         RuntimeNode addchild = curNode.getChildren().get(curNode.getChildren().size() - 1);
                         Set<Link> childLink = addchild.getFormula().linksGeneration_ConC(addchild, ((FForall)originFormula).getSubformula(), true, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), addchild.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), addchild.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(!addchild.isTruth()){
                             Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -2067,8 +1950,7 @@ public class FForall extends Formula{
                     else{
                         for(RuntimeNode child : curNode.getChildren()){
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             if(child.isTruth()) continue;
                             Set<Link> res = lgUtils.cartesianSet(initialSet, child.getLinks());
@@ -2080,8 +1962,7 @@ public class FForall extends Formula{
                     for(RuntimeNode child : curNode.getChildren()){
                         Set<Link> childLink = child.getFormula().linksGeneration_BASE(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         if(child.isTruth()) continue;
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
@@ -2106,8 +1987,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_BASE(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -2129,8 +2009,7 @@ public class FForall extends Formula{
                                     if(child.isTruth()) continue;
                                     Set<Link> childLink = child.getFormula().linksGeneration_BASE(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                                     Set<Link> initialSet = new HashSet<>();
-                                    Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                                    initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                                    Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                                     initialSet.add(initialLink);
                                     Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                                     result.addAll(res);
@@ -2141,8 +2020,7 @@ public class FForall extends Formula{
                         if(!addchild.isTruth()){
                             Set<Link> childLink = addchild.getFormula().linksGeneration_ConC(addchild, ((FForall)originFormula).getSubformula(), true, prevSubstantialNodes, checker);
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), addchild.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), addchild.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             result.addAll(lgUtils.cartesianSet(initialSet, childLink));
                         }
@@ -2151,8 +2029,7 @@ public class FForall extends Formula{
                         for(RuntimeNode child : curNode.getChildren()){
                             if(child.isTruth()) continue;
                             Set<Link> initialSet = new HashSet<>();
-                            Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                            initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                            Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                             initialSet.add(initialLink);
                             // check whether child.links reusable
                             if(prevSubstantialNodes.contains(child)){
@@ -2170,8 +2047,7 @@ public class FForall extends Formula{
                         if(child.isTruth()) continue;
                         Set<Link> childLink = child.getFormula().linksGeneration_BASE(child, ((FForall)originFormula).getSubformula(), contextChange, prevSubstantialNodes, checker);
                         Set<Link> initialSet = new HashSet<>();
-                        Link initialLink = new Link(Link.Link_Type.VIOLATED);
-                        initialLink.AddVA(((FForall)originFormula).getVar(), child.getVarEnv().get(((FForall)originFormula).getVar()));
+                        Link initialLink = new Link(Link.Link_Type.VIOLATED, ((FForall)originFormula).getSlot(), child.getVarEnv().get(((FForall)originFormula).getSlot()));
                         initialSet.add(initialLink);
                         Set<Link> res = lgUtils.cartesianSet(initialSet, childLink);
                         result.addAll(res);
@@ -53,11 +53,6 @@ public class FImplies extends Formula{
         subformulas[1].output(offset+2);
     }
 
-    @Override
-    public Formula formulaClone() {
-        return new FImplies();
-    }
-
     //S-condition
     @Override
     public void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet) {
@@ -75,8 +70,7 @@ public class FImplies extends Formula{
     @Override
     public boolean evaluationAndEqualSideEffect(RuntimeNode curNode, Formula originFormula, String var, ContextChange delChange, ContextChange addChange, boolean canConcurrent, Scheduler scheduler) {
         if(var != null){
-            curNode.getVarEnv().remove(var);
-            curNode.getVarEnv().put(var, addChange.getContext());
+            curNode.setVarEnv(curNode.getVarEnv().bind(var, addChange.getContext()));
         }
 
         boolean result;
@@ -100,8 +94,7 @@ public class FImplies extends Formula{
         if(var != null){
             curNode.setTruth(curNode.isOptTruth());
             curNode.setOptTruth(false);
-            curNode.getVarEnv().remove(var);
-            curNode.getVarEnv().put(var, delChange.getContext());
+            curNode.setVarEnv(curNode.getVarEnv().bind(var, delChange.getContext()));
         }
         RuntimeNode runtimeNode1 = curNode.getChildren().get(0);
         runtimeNode1.getFormula().sideeffectresolution(runtimeNode1, ((FImplies)originFormula).getSubformulas()[0], var, delChange, addChange, canConcurrent, scheduler);
@@ -186,15 +179,15 @@ public class FImplies extends Formula{
         //分支1
         RuntimeNode runtimeNode1 = new RuntimeNode(((FImplies)originFormula).getSubformulas()[0]);
         runtimeNode1.setDepth(curNode.getDepth() + 1);
-        runtimeNode1.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode1);
+        runtimeNode1.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode1);
         //递归调用
         runtimeNode1.getFormula().createBranches_ECCPCC(rule_id, runtimeNode1, ((FImplies) originFormula).getSubformulas()[0], checker);
         //分支2
         RuntimeNode runtimeNode2 = new RuntimeNode(((FImplies) originFormula).getSubformulas()[1]);
         runtimeNode2.setDepth(curNode.getDepth() + 1);
-        runtimeNode2.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode2);
+        runtimeNode2.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode2);
         //递归调用
         runtimeNode2.getFormula().createBranches_ECCPCC(rule_id, runtimeNode2, ((FImplies) originFormula).getSubformulas()[1], checker);
     }
@@ -215,6 +208,10 @@ public class FImplies extends Formula{
 
     @Override
     public Set<Link> linksGeneration_ECC(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker)  {
+        //lazy links: the links of an unchanged subtree are still valid
+        if(checker.isLazyLinks() && !curNode.isLinksDirty()){
+            return curNode.getLinks();
+        }
         Set<Link> result = new HashSet<>();
         RuntimeNode runtimeNode1 = curNode.getChildren().get(0);
         RuntimeNode runtimeNode2 = curNode.getChildren().get(1);
@@ -492,15 +489,15 @@ public class FImplies extends Formula{
         //分支1
         RuntimeNode runtimeNode1 = new RuntimeNode(((FImplies)originFormula).getSubformulas()[0]);
         runtimeNode1.setDepth(curNode.getDepth() + 1);
-        runtimeNode1.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode1);
+        runtimeNode1.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode1);
         //递归调用
         runtimeNode1.getFormula().createBranches_ConC(rule_id, runtimeNode1, ((FImplies) originFormula).getSubformulas()[0], canConcurrent, checker);
         //分支2
         RuntimeNode runtimeNode2 = new RuntimeNode(((FImplies) originFormula).getSubformulas()[1]);
         runtimeNode2.setDepth(curNode.getDepth() + 1);
-        runtimeNode2.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode2);
+        runtimeNode2.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode2);
         //递归调用
         runtimeNode2.getFormula().createBranches_ConC(rule_id, runtimeNode2, ((FImplies) originFormula).getSubformulas()[1], canConcurrent, checker);
     }
@@ -844,17 +841,17 @@ public class FImplies extends Formula{
         //分支1
         RuntimeNode runtimeNode1 = new RuntimeNode(((FImplies)originFormula).getSubformulas()[0]);
         runtimeNode1.setDepth(curNode.getDepth() + 1);
-        runtimeNode1.getVarEnv().putAll(curNode.getVarEnv());
+        runtimeNode1.setVarEnv(curNode.getVarEnv());
         runtimeNode1.setParent(curNode);
-        curNode.getChildren().add(runtimeNode1);
+        curNode.addKid(runtimeNode1);
         //递归调用
         runtimeNode1.getFormula().createBranches_INFUSE(rule, runtimeNode1, ((FImplies) originFormula).getSubformulas()[0], checker);
         //分支2
         RuntimeNode runtimeNode2 = new RuntimeNode(((FImplies) originFormula).getSubformulas()[1]);
         runtimeNode2.setDepth(curNode.getDepth() + 1);
-        runtimeNode2.getVarEnv().putAll(curNode.getVarEnv());
+        runtimeNode2.setVarEnv(curNode.getVarEnv());
         runtimeNode2.setParent(curNode);
-        curNode.getChildren().add(runtimeNode2);
+        curNode.addKid(runtimeNode2);
         //递归调用
         runtimeNode2.getFormula().createBranches_INFUSE(rule, runtimeNode2, ((FImplies) originFormula).getSubformulas()[1], checker);
 
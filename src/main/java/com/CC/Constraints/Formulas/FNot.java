@@ -50,11 +50,6 @@ public class FNot extends Formula{
         subformula.output(offset + 2);
     }
 
-    @Override
-    public Formula formulaClone() {
-        return new FNot();
-    }
-
     //S-condition
     @Override
     public void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet) {
@@ -70,8 +65,7 @@ public class FNot extends Formula{
     @Override
     public boolean evaluationAndEqualSideEffect(RuntimeNode curNode, Formula originFormula, String var, ContextChange delChange, ContextChange addChange, boolean canConcurrent, Scheduler scheduler) {
         if(var != null){
-            curNode.getVarEnv().remove(var);
-            curNode.getVarEnv().put(var, addChange.getContext());
+            curNode.setVarEnv(curNode.getVarEnv().bind(var, addChange.getContext()));
         }
 
         boolean result;
@@ -89,8 +83,7 @@ public class FNot extends Formula{
         if(var != null){
             curNode.setTruth(curNode.isOptTruth());
             curNode.setOptTruth(false);
-            curNode.getVarEnv().remove(var);
-            curNode.getVarEnv().put(var, delChange.getContext());
+            curNode.setVarEnv(curNode.getVarEnv().bind(var, delChange.getContext()));
         }
         RuntimeNode runtimeNode = curNode.getChildren().get(0);
         runtimeNode.getFormula().sideeffectresolution(runtimeNode, ((FNot)originFormula).getSubformula(), var, delChange, addChange, canConcurrent, scheduler);
@@ -153,8 +146,8 @@ public class FNot extends Formula{
         //分支1
         RuntimeNode runtimeNode = new RuntimeNode(((FNot)originFormula).getSubformula());
         runtimeNode.setDepth(curNode.getDepth() + 1);
-        runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode);
+        runtimeNode.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode);
         //递归调用
         runtimeNode.getFormula().createBranches_ECCPCC(rule_id, runtimeNode, ((FNot) originFormula).getSubformula(), checker);
     }
@@ -172,6 +165,10 @@ public class FNot extends Formula{
 
     @Override
     public Set<Link> linksGeneration_ECC(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker) {
+        //lazy links: the links of an unchanged subtree are still valid
+        if(checker.isLazyLinks() && !curNode.isLinksDirty()){
+            return curNode.getLinks();
+        }
         RuntimeNode runtimeNode = curNode.getChildren().get(0);
         LGUtils lgUtils = new LGUtils();
         // only one case: all
@@ -242,8 +239,8 @@ public class FNot extends Formula{
         //分支1
         RuntimeNode runtimeNode = new RuntimeNode(((FNot)originFormula).getSubformula());
         runtimeNode.setDepth(curNode.getDepth() + 1);
-        runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
-        curNode.getChildren().add(runtimeNode);
+        runtimeNode.setVarEnv(curNode.getVarEnv());
+        curNode.addKid(runtimeNode);
         //递归调用
         runtimeNode.getFormula().createBranches_ConC(rule_id, runtimeNode, ((FNot) originFormula).getSubformula(), canConcurrent, checker);
     }
@@ -329,9 +326,9 @@ public class FNot extends Formula{
         //分支1
         RuntimeNode runtimeNode = new RuntimeNode(((FNot)originFormula).getSubformula());
         runtimeNode.setDepth(curNode.getDepth() + 1);
-        runtimeNode.getVarEnv().putAll(curNode.getVarEnv());
+        runtimeNode.setVarEnv(curNode.getVarEnv());
         runtimeNode.setParent(curNode);
-        curNode.getChildren().add(runtimeNode);
+        curNode.addKid(runtimeNode);
         //递归调用
         runtimeNode.getFormula().createBranches_INFUSE(rule, runtimeNode, ((FNot) originFormula).getSubformula(), checker);
 
@@ -50,8 +50,6 @@ public abstract class Formula {
     public abstract void updateCanConcurrent_INFUSE(boolean canConcurrent, Rule rule, Checker checker);
     public abstract void cleanAffectedAndCanConcurrent();
 
-    //RuntimeNode创建时使用
-    public abstract Formula formulaClone();
     //S-condition
     public abstract void deriveIncPlusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet);
     public abstract void deriveIncMinusSet(Set<Map.Entry<ContextChange.Change_Type, String>> incMinusSet);
@@ -3,7 +3,7 @@ package com.CC.Constraints.Rules;
 import com.CC.Constraints.Formulas.Formula;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
-import com.CC.Contexts.Context;
+import com.CC.Constraints.Runtime.VarSlots;
 import com.CC.Contexts.ContextChange;
 import com.CC.Middleware.Checkers.Checker;
 
@@ -19,6 +19,8 @@ public class Rule {
     private boolean CCTAlready;
     // Related patterns
     private final Map<String,String> varPatternMap;
+    // dense slots of the rule's variables, for VarEnv and Link
+    private final VarSlots varSlots;
 
     //for INFUSE
     //pat to maxUnderDepth
@@ -27,6 +29,8 @@ public class Rule {
 
     //for INFUSE
     private boolean riskAlready;
+    //ids of the contexts added in the current batch, by pattern
+    private final Map<String, Set<Long>> batchAdditions;
     private final Map<String, Formula> patToFormula;
     private final Map<String, Set<RuntimeNode>> patToRuntimeNode;
 
@@ -34,12 +38,20 @@ public class Rule {
     //Set of ContextChange ignoring the context: <change_type, pattern_id>
     private final Set<Map.Entry<ContextChange.Change_Type, String>> incPlusSet;
     private final Set<Map.Entry<ContextChange.Change_Type, String>> incMinusSet;
+    //pattern_id -> inc type by change type ordinal, derived with the S-condition sets
+    private final Map<String, String[]> incTypes;
     //bath and Newbatch
     private List<ContextChange> batch;
     private List<ContextChange> newBatch;
+    //Plus changes in batch, kept by setBatch/addToBatch/removeFromBatch
+    private int batchPlus;
 
     //GEAS C-condition
-    private final Set<String> criticalSet;
+    private final Set<Long> criticalSet;
+
+    //lazy links: root truth of the last emitted links (null: none yet), checked since then
+    private Boolean linksTruth;
+    private boolean linksStale;
 
 
     //constructor
@@ -48,14 +60,17 @@ public class Rule {
         this.CCTRoot = null;
         this.CCTAlready = false;
         this.varPatternMap = new HashMap<>();
+        this.varSlots = new VarSlots();
         //GEAS
         this.incMinusSet = new HashSet<>();
         this.incPlusSet = new HashSet<>();
+        this.incTypes = new HashMap<>();
         this.criticalSet = new HashSet<>();
         this.batch = null;
         this.newBatch = null;
         //DIS
         this.riskAlready = false;
+        this.batchAdditions = new HashMap<>();
         this.patToFormula = new HashMap<>();
         this.patToRuntimeNode = new HashMap<>();
         this.patToDepth = new HashMap<>();
@@ -75,10 +90,19 @@ public class Rule {
     public void deriveSConditions(){
         this.formula.deriveIncPlusSet(this.incPlusSet);
         this.formula.deriveIncMinusSet(this.incMinusSet);
+        this.incTypes.clear();
+        ContextChange.Change_Type[] changeTypes = ContextChange.Change_Type.values();
+        for(String pattern_id : this.varPatternMap.values()){
+            String[] types = new String[changeTypes.length];
+            for(ContextChange.Change_Type changeType : changeTypes){
+                types[changeType.ordinal()] = deriveIncType(changeType, pattern_id);
+            }
+            this.incTypes.put(pattern_id, types);
+        }
     }
 
-    public String getIncType(ContextChange contextChange) {
-        Map.Entry<ContextChange.Change_Type, String> entry= new AbstractMap.SimpleEntry<>(contextChange.getChange_type(), contextChange.getPattern_id());
+    private String deriveIncType(ContextChange.Change_Type changeType, String pattern_id) {
+        Map.Entry<ContextChange.Change_Type, String> entry= new AbstractMap.SimpleEntry<>(changeType, pattern_id);
         if(this.incPlusSet.contains(entry)){
             return "Plus";
         }
@@ -89,18 +113,41 @@ public class Rule {
             return "NotThisRule";
     }
 
+    public String getIncType(ContextChange contextChange) {
+        String[] types = this.incTypes.get(contextChange.getPattern_id());
+        return types == null ? "NotThisRule" : types[contextChange.getChange_type().ordinal()];
+    }
+
+    //batch with a running count of its Plus changes, so the S-condition needs no scan
+    public void addToBatch(ContextChange contextChange) {
+        this.batch.add(contextChange);
+        if(getIncType(contextChange).equals("Plus")){
+            this.batchPlus++;
+        }
+    }
+
+    public boolean removeFromBatch(ContextChange contextChange) {
+        if(!this.batch.remove(contextChange)){
+            return false;
+        }
+        if(getIncType(contextChange).equals("Plus")){
+            this.batchPlus--;
+        }
+        return true;
+    }
+
     //C-condition
     public void addCriticalSet(Set<Link> links){
         this.criticalSet.clear();
         for(Link link : links){
-            for(Map.Entry<String, Context> entry : link.getVaSet()){
-                this.criticalSet.add(entry.getValue().getCtx_id());
+            for(int i = 0; i < link.size(); ++i){
+                this.criticalSet.add(link.getContextId(i));
             }
         }
     }
 
-    public boolean inCriticalSet(String ctx_id){
-        return this.criticalSet.contains(ctx_id);
+    public boolean inCriticalSet(long ctxId){
+        return this.criticalSet.contains(ctxId);
     }
 
     //DIS
@@ -141,6 +188,7 @@ public class Rule {
     public void buildCCT_ECCPCC(Checker checker){
         this.CCTRoot = new RuntimeNode(this.formula);
         this.CCTRoot.setDepth(0);
+        this.CCTRoot.setVarEnv(this.varSlots.emptyEnv());
         this.CCTRoot.getFormula().createBranches_ECCPCC(this.rule_id, this.CCTRoot, this.formula, checker);
         this.CCTAlready = true;
     }
@@ -154,6 +202,7 @@ public class Rule {
     public void buildCCT_CONC(Checker checker){
         this.CCTRoot = new RuntimeNode(this.formula);
         this.CCTRoot.setDepth(0);
+        this.CCTRoot.setVarEnv(this.varSlots.emptyEnv());
         this.CCTRoot.getFormula().createBranches_ConC(this.rule_id, this.CCTRoot, this.formula, true, checker);
         this.CCTAlready = true;
     }
@@ -167,6 +216,7 @@ public class Rule {
     public void buildCCT_INFUSE(Checker checker){
         this.CCTRoot = new RuntimeNode(this.formula);
         this.CCTRoot.setDepth(0);
+        this.CCTRoot.setVarEnv(this.varSlots.emptyEnv());
         this.CCTRoot.getFormula().createBranches_INFUSE(this, this.CCTRoot, this.formula, checker);
         this.CCTAlready = true;
     }
@@ -270,6 +320,10 @@ public class Rule {
         return riskAlready;
     }
 
+    public Map<String, Set<Long>> getBatchAdditions() {
+        return batchAdditions;
+    }
+
     public Map<String, Set<RuntimeNode>> getPatToRuntimeNode() {
         return patToRuntimeNode;
     }
@@ -298,6 +352,10 @@ public class Rule {
         return newBatch;
     }
 
+    public int getBatchPlus() {
+        return batchPlus;
+    }
+
     public Set<Map.Entry<ContextChange.Change_Type, String>> getIncMinusSet() {
         return incMinusSet;
     }
@@ -306,10 +364,26 @@ public class Rule {
         return incPlusSet;
     }
 
-    public Set<String> getCriticalSet() {
+    public Set<Long> getCriticalSet() {
         return criticalSet;
     }
 
+    public Boolean getLinksTruth() {
+        return linksTruth;
+    }
+
+    public void setLinksTruth(Boolean linksTruth) {
+        this.linksTruth = linksTruth;
+    }
+
+    public boolean isLinksStale() {
+        return linksStale;
+    }
+
+    public void setLinksStale(boolean linksStale) {
+        this.linksStale = linksStale;
+    }
+
     public boolean isCCTAlready() {
         return CCTAlready;
     }
@@ -345,6 +419,14 @@ public class Rule {
 
     public void setBatch(List<ContextChange> batch) {
         this.batch = batch;
+        this.batchPlus = 0;
+        if(batch != null){
+            for(ContextChange contextChange : batch){
+                if(getIncType(contextChange).equals("Plus")){
+                    this.batchPlus++;
+                }
+            }
+        }
     }
 
     public void setNewBatch(List<ContextChange> newBatch) {
@@ -359,6 +441,10 @@ public class Rule {
         this.CCTRoot = runtimeNode;
     }
 
+    public VarSlots getVarSlots() {
+        return varSlots;
+    }
+
     public void setCCTRoot(RuntimeNode CCTRoot) {
         this.CCTRoot = CCTRoot;
     }
@@ -2,6 +2,7 @@ package com.CC.Constraints.Rules;
 
 import com.CC.Constraints.Formulas.*;
 import com.CC.Constraints.Runtime.RuntimeNode;
+import com.CC.Constraints.Runtime.VarSlots;
 import com.CC.Util.Loggable;
 import com.constraint.resolution.RepairConfig;
 import com.constraint.resolution.RepairDisableConfigItem;
@@ -38,8 +39,16 @@ public class RuleHandler implements Loggable {
                 // formula
                 assert eLabelList.get(1).getName().equals("formula");
                 Element eFormula = eLabelList.get(1).elements().get(0);
-                newRule.setFormula(resolveFormula(eFormula, newRule.getVarPatternMap(), newRule.getPatToFormula(), newRule.getPatToRuntimeNode(), 0));
+                newRule.setFormula(resolveFormula(eFormula, newRule.getVarPatternMap(), newRule.getPatToFormula(), newRule.getPatToRuntimeNode(), newRule.getVarSlots(), 0));
                 setPatWithDepth(newRule.getFormula(), newRule.getPatToDepth(), newRule.getDepthToPat());
+                for(Formula quantifier : newRule.getPatToFormula().values()){
+                    if(quantifier instanceof FForall){
+                        ((FForall) quantifier).setRule_id(newRule.getRule_id());
+                    }
+                    else if(quantifier instanceof FExists){
+                        ((FExists) quantifier).setRule_id(newRule.getRule_id());
+                    }
+                }
                 ruleMap.put(newRule.getRule_id(), newRule);
             }
         }
@@ -93,13 +102,14 @@ public class RuleHandler implements Loggable {
     }
 
     private Formula resolveFormula(Element eFormula, Map<String, String> varPatternMap, Map<String, Formula> patToFormula,
-                                   Map<String, Set<RuntimeNode>> patToRunTimeNode, int depth) {
+                                   Map<String, Set<RuntimeNode>> patToRunTimeNode, VarSlots varSlots, int depth) {
         Formula retFormula = null;
         switch (eFormula.getName()) {
             case "forall": {
                 FForall tmpForall = new FForall(eFormula.attributeValue("var"), eFormula.attributeValue("in"));
+                tmpForall.setSlot(varSlots.register(eFormula.attributeValue("var")));
                 // forall has only one kid
-                tmpForall.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpForall.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 varPatternMap.put(eFormula.attributeValue("var"), eFormula.attributeValue("in"));
                 patToFormula.put(eFormula.attributeValue("in"), tmpForall);
                 patToRunTimeNode.put(eFormula.attributeValue("in"), new HashSet<>());
@@ -113,8 +123,9 @@ public class RuleHandler implements Loggable {
             }
             case "exists": {
                 FExists tmpExists = new FExists(eFormula.attributeValue("var"), eFormula.attributeValue("in"));
+                tmpExists.setSlot(varSlots.register(eFormula.attributeValue("var")));
                 // exists has only one kid
-                tmpExists.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpExists.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 varPatternMap.put(eFormula.attributeValue("var"), eFormula.attributeValue("in"));
                 patToFormula.put(eFormula.attributeValue("in"), tmpExists);
                 patToRunTimeNode.put(eFormula.attributeValue("in"), new HashSet<>());
@@ -128,8 +139,8 @@ public class RuleHandler implements Loggable {
             case "and": {
                 FAnd tmpAnd = new FAnd();
                 // and has two kids
-                tmpAnd.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
-                tmpAnd.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpAnd.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
+                tmpAnd.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 // Add immutable pattern if exists
                 tmpAnd.setRepairConfig(getRepairConfig(eFormula));
                 retFormula = tmpAnd;
@@ -138,8 +149,8 @@ public class RuleHandler implements Loggable {
             case "or": {
                 FOr tmpOr = new FOr();
                 // or has two kids
-                tmpOr.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
-                tmpOr.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpOr.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
+                tmpOr.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 // Add immutable pattern if exists
                 tmpOr.setRepairConfig(getRepairConfig(eFormula));
                 retFormula = tmpOr;
@@ -148,8 +159,8 @@ public class RuleHandler implements Loggable {
             case "implies": {
                 FImplies tmpImplies = new FImplies();
                 // implies has two kids
-                tmpImplies.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
-                tmpImplies.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpImplies.replaceSubformula(0, resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
+                tmpImplies.replaceSubformula(1, resolveFormula(eFormula.elements().get(1), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 // Add immutable pattern if exists
                 tmpImplies.setRepairConfig(getRepairConfig(eFormula));
                 retFormula = tmpImplies;
@@ -158,7 +169,7 @@ public class RuleHandler implements Loggable {
             case "not": {
                 FNot tmpNot = new FNot();
                 // not has only one kid
-                tmpNot.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, depth + 1));
+                tmpNot.setSubformula(resolveFormula(eFormula.elements().get(0), varPatternMap, patToFormula, patToRunTimeNode, varSlots, depth + 1));
                 // Add immutable pattern if exists
                 tmpNot.setRepairConfig(getRepairConfig(eFormula));
                 retFormula = tmpNot;
@@ -177,6 +188,7 @@ public class RuleHandler implements Loggable {
                     }
                     tmpBfunc.addParam(pos, paramElement.attributeValue("var"));
                 }
+                tmpBfunc.resolveSlots(varSlots);
                 // Add immutable pattern if exists
                 tmpBfunc.setRepairConfig(getRepairConfig(eFormula));
                 retFormula = tmpBfunc;
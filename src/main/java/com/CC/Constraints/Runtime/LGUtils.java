@@ -5,17 +5,14 @@ import java.util.Set;
 
 public class LGUtils {
 
-    public void flip(Link link){
-        link.setLinkType(link.getLinkType() == Link.Link_Type.SATISFIED ?
-                Link.Link_Type.VIOLATED : Link.Link_Type.SATISFIED);
+    public Link flip(Link link){
+        return link.flip();
     }
 
     public Set<Link> flipSet(Set<Link> linkSet){
-        Set<Link> result = new HashSet<>();
+        Set<Link> result = new HashSet<>(linkSet.size() * 2);
         for(Link link : linkSet){
-            Link newLink = new Link(link.getLinkType() == Link.Link_Type.SATISFIED ? Link.Link_Type.VIOLATED : Link.Link_Type.SATISFIED);
-            newLink.setVaSet(link.getVaSet());
-            result.add(newLink);
+            result.add(link.flip());
         }
         return result;
     }
@@ -29,10 +26,7 @@ public class LGUtils {
             return null;
         }
         else{
-            Link link = new Link(link1.getLinkType());
-            link.getVaSet().addAll(link1.getVaSet());
-            link.getVaSet().addAll(link2.getVaSet());
-            return link;
+            return link1.merge(link2);
         }
     }
 
@@ -47,6 +41,7 @@ public class LGUtils {
             return result;
         }
         else{
+            result = new HashSet<>(linkSet1.size() * linkSet2.size() * 2);
             for(Link link1 : linkSet1){
                 for(Link link2 : linkSet2){
                     result.add(cartesian(link1, link2));
@@ -56,15 +51,8 @@ public class LGUtils {
         }
     }
 
+    // links are immutable, a copy of the set is enough
     public Set<Link> cloneSet(Set<Link> linkSet){
-        Set<Link> result = new HashSet<>();
-        for(Link link : linkSet){
-            try {
-                result.add(link.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
-        return result;
+        return new HashSet<>(linkSet);
     }
 }
@@ -4,50 +4,153 @@ import com.CC.Contexts.Context;
 
 import java.util.*;
 
-public class Link implements Cloneable{
+/*
+ * immutable link: variable assignments as (slot, context id) pairs sorted by slot, hash computed once.
+ * slots are the rule's (VarSlots), so cartesian products are array merges and links are shared between CCT nodes
+ * instead of being cloned; variable names come from the rule's VarSlots when a link is printed.
+ * foreign contexts (ctx_id not "ctx_N") keep their ctx_id for output, their interned id may be released meanwhile.
+ */
+public final class Link {
 
     public enum Link_Type {SATISFIED, VIOLATED};
 
-    private Link_Type linkType;
-    //a set of var to context
-    private Set<Map.Entry<String, Context>> vaSet;
+    private static final int[] NO_SLOTS = new int[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final Link_Type linkType;
+    // ascending; a slot repeats only when one variable is bound to several contexts
+    private final int[] slots;
+    private final long[] ids;
+    // ctx_id per assignment, null entries for "ctx_N" ids; null when all of them are
+    private final String[] foreignIds;
+    private final int hash;
 
     //constructor
     public Link(Link_Type linkType){
+        this(linkType, NO_SLOTS, NO_IDS, null);
+    }
+
+    public Link(Link_Type linkType, int slot, Context context){
+        this(linkType, new int[]{slot}, new long[]{context.getId()}, context.isForeign() ? new String[]{context.getCtx_id()} : null);
+    }
+
+    private Link(Link_Type linkType, int[] slots, long[] ids, String[] foreignIds){
         this.linkType = linkType;
-        this.vaSet = new HashSet<>();
+        this.slots = slots;
+        this.ids = ids;
+        this.foreignIds = foreignIds;
+        int h = linkType.hashCode();
+        for(int i = 0; i < slots.length; ++i){
+            h = 31 * h + slots[i];
+            h = 31 * h + Long.hashCode(ids[i]);
+        }
+        this.hash = h;
     }
 
-    //getter && setter
+    //getter
     public Link_Type getLinkType() {
         return linkType;
     }
 
-    public Set<Map.Entry<String, Context>> getVaSet() {
-        return vaSet;
+    public int size() {
+        return slots.length;
     }
 
-    public void setLinkType(Link_Type linkType) {
-        this.linkType = linkType;
+    public int getSlot(int i) {
+        return slots[i];
     }
 
-    public void setVaSet(Set<Map.Entry<String, Context>> vaSet) {
-        this.vaSet = vaSet;
+    public String getVar(int i, VarSlots vars) {
+        return vars.varOf(slots[i]);
+    }
+
+    public long getContextId(int i) {
+        return ids[i];
+    }
+
+    // ctx_id of a foreign context, null for "ctx_N"
+    public String getForeignId(int i) {
+        return foreignIds == null ? null : foreignIds[i];
     }
 
     //functional methods
-    public void AddVA(String var, Context context){
-        this.vaSet.add(new AbstractMap.SimpleEntry<>(var, context));
+    public Link flip(){
+        return new Link(linkType == Link_Type.SATISFIED ? Link_Type.VIOLATED : Link_Type.SATISFIED, slots, ids, foreignIds);
     }
 
-    @Override
-    public String toString() {
+    // union of the assignments of both links, same type as this
+    public Link merge(Link other){
+        if(other.slots.length == 0){
+            return this;
+        }
+        if(slots.length == 0){
+            return other.linkType == linkType ? other : new Link(linkType, other.slots, other.ids, other.foreignIds);
+        }
+        int[] newSlots = new int[slots.length + other.slots.length];
+        long[] newIds = new long[newSlots.length];
+        String[] newForeignIds = foreignIds == null && other.foreignIds == null ? null : new String[newSlots.length];
+        int i = 0, j = 0, k = 0;
+        while(i < slots.length || j < other.slots.length){
+            int cmp;
+            if(i == slots.length){
+                cmp = 1;
+            }
+            else if(j == other.slots.length){
+                cmp = -1;
+            }
+            else{
+                cmp = slots[i] != other.slots[j] ? Integer.compare(slots[i], other.slots[j]) : Long.compare(ids[i], other.ids[j]);
+            }
+            if(cmp <= 0){
+                if(newForeignIds != null){
+                    newForeignIds[k] = getForeignId(i);
+                }
+                newSlots[k] = slots[i];
+                newIds[k++] = ids[i++];
+                // the same assignment on both sides is kept once
+                if(cmp == 0){
+                    j++;
+                }
+            }
+            else{
+                if(newForeignIds != null){
+                    newForeignIds[k] = other.getForeignId(j);
+                }
+                newSlots[k] = other.slots[j];
+                newIds[k++] = other.ids[j++];
+            }
+        }
+        if(k < newSlots.length){
+            newSlots = Arrays.copyOf(newSlots, k);
+            newIds = Arrays.copyOf(newIds, k);
+            if(newForeignIds != null){
+                newForeignIds = Arrays.copyOf(newForeignIds, k);
+            }
+        }
+        return new Link(linkType, newSlots, newIds, newForeignIds);
+    }
+
+    public String toString(VarSlots vars) {
+        StringBuilder vaSet = new StringBuilder("[");
+        for(int i = 0; i < slots.length; ++i){
+            if(i > 0){
+                vaSet.append(", ");
+            }
+            vaSet.append(vars != null ? getVar(i, vars) : "$" + slots[i]).append("=ctx_id=").append(getForeignId(i) != null ? getForeignId(i) : Context.ID_PREFIX + ids[i]);
+        }
+        vaSet.append(']');
         return "{" +
                 "linkType=" + linkType +
                 ", vaSet=" + vaSet +
                 '}';
     }
 
+    // variables as $slot, the link does not know its rule
+    @Override
+    public String toString() {
+        return toString(null);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -55,27 +158,12 @@ public class Link implements Cloneable{
 
         Link link = (Link) o;
 
-        if (linkType != link.linkType) return false;
-        return vaSet.equals(link.vaSet);
+        if (hash != link.hash || linkType != link.linkType) return false;
+        return Arrays.equals(slots, link.slots) && Arrays.equals(ids, link.ids);
     }
 
     @Override
     public int hashCode() {
-        int result = linkType.hashCode();
-        result = 31 * result + vaSet.hashCode();
-        return result;
-    }
-
-    @Override
-    protected Link clone() throws CloneNotSupportedException {
-        Link clone = (Link) super.clone();
-        clone.setLinkType(this.linkType == Link_Type.SATISFIED ? Link_Type.SATISFIED : Link_Type.VIOLATED);
-        clone.setVaSet(new HashSet<>());
-        for(Map.Entry<String, Context> entry : this.vaSet){
-            String key = entry.getKey();
-            Context value = entry.getValue();
-            clone.getVaSet().add(new AbstractMap.SimpleEntry<>(key, value));
-        }
-        return clone;
+        return hash;
     }
 }
@@ -8,19 +8,29 @@ import com.CC.Contexts.Context;
 import com.constraint.resolution.VerifyNode;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 public class RuntimeNode {
 
     private Formula formula;
     private int depth;
     private List<RuntimeNode> children;
-    //from var to Context
-    private HashMap<String, Context> varEnv;
+    //from var slot to Context
+    private VarEnv varEnv;
 
     //checking results
     private boolean truth;
     private Set<Link> links;
 
+    //lazy links: links not generated since the node's truth or kids changed, marked up to the root
+    private boolean linksDirty;
+
+    //kids that are true, kept by addKid/removeKid and the kids' setTruth (read for forall and exists)
+    private volatile int trueKids;
+    private static final AtomicIntegerFieldUpdater<RuntimeNode> TRUE_KIDS = AtomicIntegerFieldUpdater.newUpdater(RuntimeNode.class, "trueKids");
+    //the node holding this one as a kid (counts it in trueKids, is marked with it)
+    private RuntimeNode countedBy;
+
     //for GEAS-opt
     private boolean optTruth;
 
@@ -28,7 +38,7 @@ public class RuntimeNode {
     public enum Virtual_Truth_Type {TRUE, FALSE, UNKNOWN};
     private Virtual_Truth_Type virtualTruth;
     private RuntimeNode parent;
-    private final HashMap<Context, Virtual_Truth_Type> kidsVT; //only for forall and exists
+    private final VirtualTruthMap kidsVT; //only for forall and exists
 
     // for resolution
     private VerifyNode verifyNode;
@@ -43,14 +53,15 @@ public class RuntimeNode {
 
     //constructor
     public RuntimeNode(Formula formula){
-        //need to create a new formula
-        this.formula = formula.formulaClone();
+        //shared with the rule, per-check flags (affected, canConcurrent) stay on the rule's formula
+        this.formula = formula;
         this.depth = -1;
         this.children = new ArrayList<>();
-        this.varEnv = new HashMap<>();
+        this.varEnv = VarEnv.EMPTY;
         this.parent = null;
-        this.kidsVT = new HashMap<>();
+        this.kidsVT = new VirtualTruthMap();
         this.links = new HashSet<>();
+        this.linksDirty = true;
         this.verifyNode = null;
         if(formula.getFormula_type() == Formula.Formula_Type.FORALL){
             this.setTruth(true);
@@ -65,7 +76,7 @@ public class RuntimeNode {
     }
 
     //getter
-    public HashMap<Context, Virtual_Truth_Type> getKidsVT() {
+    public VirtualTruthMap getKidsVT() {
         return kidsVT;
     }
 
@@ -85,27 +96,32 @@ public class RuntimeNode {
         return formula;
     }
 
-    public HashMap<String, Context> getVarEnv() {
+    public VarEnv getVarEnv() {
         return varEnv;
     }
 
     public Set<Link> getLinks() {
         assert links != null;
-        Set<Link> result = new HashSet<>();
-        for(Link link : links){
-            try {
-                result.add(link.clone());
-            } catch (CloneNotSupportedException e) {
-                e.printStackTrace();
-            }
-        }
-        return result;
+        // links are immutable and shared, only the set is copied
+        return new HashSet<>(links);
     }
 
     public boolean isTruth() {
         return truth;
     }
 
+    public boolean isLinksDirty() {
+        return linksDirty;
+    }
+
+    public int getTrueKids() {
+        return trueKids;
+    }
+
+    public int getFalseKids() {
+        return children.size() - trueKids;
+    }
+
     public int getDepth() {
         return depth;
     }
@@ -133,13 +149,30 @@ public class RuntimeNode {
 
     public void setLinks(Set<Link> links) {
         this.links = links;
+        this.linksDirty = false;
     }
 
     public void setTruth(boolean truth) {
+        RuntimeNode counter = this.countedBy;
+        if(truth != this.truth){
+            this.linksDirty = true;
+            if(counter != null){
+                TRUE_KIDS.addAndGet(counter, truth ? 1 : -1);
+                //the holder reads this truth even when it skipped this node's links
+                counter.markLinksDirty();
+            }
+        }
         this.truth = truth;
     }
 
-    public void setVarEnv(HashMap<String, Context> varEnv) {
+    //a clean ancestor only depends on clean descendants, so marking stops at the first dirty one
+    private void markLinksDirty() {
+        for(RuntimeNode node = this; node != null && !node.linksDirty; node = node.countedBy){
+            node.linksDirty = true;
+        }
+    }
+
+    public void setVarEnv(VarEnv varEnv) {
         this.varEnv = varEnv;
     }
 
@@ -152,6 +185,27 @@ public class RuntimeNode {
     }
 
     //functional methods
+    //all kids go through these, so that trueKids and the lazy-links marks stay exact
+    public void addKid(RuntimeNode kid){
+        this.children.add(kid);
+        kid.countedBy = this;
+        if(kid.truth){
+            TRUE_KIDS.incrementAndGet(this);
+        }
+        markLinksDirty();
+    }
+
+    public boolean removeKid(RuntimeNode kid){
+        if(!this.children.remove(kid)){
+            return false;
+        }
+        kid.countedBy = null;
+        if(kid.truth){
+            TRUE_KIDS.decrementAndGet(this);
+        }
+        markLinksDirty();
+        return true;
+    }
 
     //DIS
     //子结点添加了一个变量赋值为context的结点
@@ -232,12 +286,10 @@ public class RuntimeNode {
         this.setVirtualTruth(Virtual_Truth_Type.UNKNOWN);
         //判断当前结点对应的公式是否是forall/exists，如果是则更新kidsVT
         if(this.formula.getFormula_type() == Formula.Formula_Type.FORALL){
-            String var = ((FForall)this.formula).getVar();
-            this.getKidsVT().put(child.getVarEnv().get(var), Virtual_Truth_Type.UNKNOWN);
+            this.getKidsVT().put(child.getVarEnv().get(((FForall)this.formula).getSlot()), Virtual_Truth_Type.UNKNOWN);
         }
         else if(this.formula.getFormula_type() == Formula.Formula_Type.EXISTS){
-            String var = ((FExists)this.formula).getVar();
-            this.getKidsVT().put(child.getVarEnv().get(var), Virtual_Truth_Type.UNKNOWN);
+            this.getKidsVT().put(child.getVarEnv().get(((FExists)this.formula).getSlot()), Virtual_Truth_Type.UNKNOWN);
         }
         //如果原来的vt不是UNKNOWN,则需要向上传递影响
         if(originVT != Virtual_Truth_Type.UNKNOWN && this.parent != null){
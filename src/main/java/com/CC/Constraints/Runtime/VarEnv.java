@@ -0,0 +1,96 @@
+package com.CC.Constraints.Runtime;
+
+import com.CC.Contexts.Context;
+
+import java.util.*;
+
+/*
+ * immutable variable environment of a CCT node: contexts indexed by the rule's variable slots (VarSlots).
+ * a quantifier child binds one slot on a copy of its parent's array, other children share their parent's environment.
+ * the Map view (by variable name) is read-only.
+ */
+public final class VarEnv extends AbstractMap<String, Context> {
+
+    // no variables; nodes start with it until they get the rule's environment
+    public static final VarEnv EMPTY = new VarEnv(VarSlots.NONE, new Context[0]);
+
+    private final VarSlots slots;
+    private final Context[] contexts;
+
+    private VarEnv(VarSlots slots, Context[] contexts) {
+        this.slots = slots;
+        this.contexts = contexts;
+    }
+
+    static VarEnv empty(VarSlots slots) {
+        return new VarEnv(slots, new Context[slots.size()]);
+    }
+
+    public VarSlots getSlots() {
+        return slots;
+    }
+
+    public Context get(int slot) {
+        return slot >= 0 && slot < contexts.length ? contexts[slot] : null;
+    }
+
+    public VarEnv bind(int slot, Context context) {
+        Context[] newContexts = Arrays.copyOf(contexts, Math.max(contexts.length, slot + 1));
+        newContexts[slot] = context;
+        return new VarEnv(slots, newContexts);
+    }
+
+    public VarEnv bind(String var, Context context) {
+        int slot = slots.slotOf(var);
+        if(slot < 0){
+            throw new IllegalArgumentException("Unknown variable " + var);
+        }
+        return bind(slot, context);
+    }
+
+    //map view
+    @Override
+    public Context get(Object key) {
+        if(!(key instanceof String)){
+            return null;
+        }
+        return get(slots.slotOf((String) key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for(Context context : contexts){
+            if(context != null && context.equals(value)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for(Context context : contexts){
+            if(context != null){
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Context>> entrySet() {
+        Set<Entry<String, Context>> entries = new LinkedHashSet<>();
+        for(int slot = 0; slot < contexts.length; ++slot){
+            if(contexts[slot] != null){
+                entries.add(new SimpleImmutableEntry<>(slots.varOf(slot), contexts[slot]));
+            }
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+}
@@ -0,0 +1,54 @@
+package com.CC.Constraints.Runtime;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * dense variable slots of one rule: each variable the rule quantifies over gets the next slot while the rule is built.
+ * VarEnv arrays and Link assignments are indexed by these slots, names are only looked up for output and the Map view.
+ * read-only once the rule is built.
+ */
+public final class VarSlots {
+
+    public static final VarSlots NONE = new VarSlots();
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] vars = new String[0];
+    private VarEnv empty = null;
+
+    // slot of var, a new one for a variable not seen yet
+    public int register(String var) {
+        Integer slot = slots.get(var);
+        if(slot == null){
+            slot = vars.length;
+            vars = Arrays.copyOf(vars, slot + 1);
+            vars[slot] = var;
+            slots.put(var, slot);
+            empty = null;
+        }
+        return slot;
+    }
+
+    // -1 for a variable the rule does not declare
+    public int slotOf(String var) {
+        Integer slot = slots.get(var);
+        return slot != null ? slot : -1;
+    }
+
+    public String varOf(int slot) {
+        return vars[slot];
+    }
+
+    public int size() {
+        return vars.length;
+    }
+
+    // root environment of the rule's CCT, sized for all slots so binds never grow it
+    public VarEnv emptyEnv() {
+        if(empty == null){
+            empty = VarEnv.empty(this);
+        }
+        return empty;
+    }
+}
@@ -0,0 +1,121 @@
+package com.CC.Constraints.Runtime;
+
+import com.CC.Contexts.Context;
+
+/*
+ * kidsVT of a quantifier node: virtual truth of each child, keyed by the id of the context the child binds.
+ * open addressing (linear probing) over a long[] of ids and a byte[] of truth ordinals, 0 marks a free slot.
+ * the arrays are only allocated on the first put, most nodes never hold an entry.
+ */
+public final class VirtualTruthMap {
+
+    private static final RuntimeNode.Virtual_Truth_Type[] TYPES = RuntimeNode.Virtual_Truth_Type.values();
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids;
+    // ordinal + 1, 0 = free
+    private byte[] truths;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public RuntimeNode.Virtual_Truth_Type get(Context context) {
+        return get(context.getId());
+    }
+
+    public RuntimeNode.Virtual_Truth_Type get(long id) {
+        if(truths == null){
+            return null;
+        }
+        int mask = ids.length - 1;
+        for(int i = indexOf(id, mask); truths[i] != 0; i = (i + 1) & mask){
+            if(ids[i] == id){
+                return TYPES[truths[i] - 1];
+            }
+        }
+        return null;
+    }
+
+    public void put(Context context, RuntimeNode.Virtual_Truth_Type truth) {
+        put(context.getId(), truth);
+    }
+
+    public void put(long id, RuntimeNode.Virtual_Truth_Type truth) {
+        if(truths == null){
+            ids = new long[INITIAL_CAPACITY];
+            truths = new byte[INITIAL_CAPACITY];
+        }
+        else if((size + 1) * 4 > ids.length * 3){
+            resize(ids.length * 2);
+        }
+        int mask = ids.length - 1;
+        int i = indexOf(id, mask);
+        while(truths[i] != 0){
+            if(ids[i] == id){
+                truths[i] = (byte) (truth.ordinal() + 1);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        truths[i] = (byte) (truth.ordinal() + 1);
+        size++;
+    }
+
+    public RuntimeNode.Virtual_Truth_Type remove(Context context) {
+        return remove(context.getId());
+    }
+
+    public RuntimeNode.Virtual_Truth_Type remove(long id) {
+        if(truths == null){
+            return null;
+        }
+        int mask = ids.length - 1;
+        int i = indexOf(id, mask);
+        while(truths[i] != 0 && ids[i] != id){
+            i = (i + 1) & mask;
+        }
+        if(truths[i] == 0){
+            return null;
+        }
+        RuntimeNode.Virtual_Truth_Type removed = TYPES[truths[i] - 1];
+        size--;
+        // shift the rest of the probe run back, so lookups never need tombstones
+        int free = i;
+        for(int j = (i + 1) & mask; truths[j] != 0; j = (j + 1) & mask){
+            int home = indexOf(ids[j], mask);
+            if(((j - home) & mask) >= ((j - free) & mask)){
+                ids[free] = ids[j];
+                truths[free] = truths[j];
+                free = j;
+            }
+        }
+        truths[free] = 0;
+        return removed;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        byte[] oldTruths = truths;
+        ids = new long[capacity];
+        truths = new byte[capacity];
+        int mask = capacity - 1;
+        for(int k = 0; k < oldIds.length; ++k){
+            if(oldTruths[k] != 0){
+                int i = indexOf(oldIds[k], mask);
+                while(truths[i] != 0){
+                    i = (i + 1) & mask;
+                }
+                ids[i] = oldIds[k];
+                truths[i] = oldTruths[k];
+            }
+        }
+    }
+
+    private static int indexOf(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -2,9 +2,23 @@ package com.CC.Contexts;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Context {
+    public static final String ID_PREFIX = "ctx_";
+
+    // foreign context ids (not "ctx_N") -> distinct negative ids, never reused.
+    // ContextHandler releases the entry of a context deleted from all patterns, a later addition gets a new id
+    private static final Map<String, Long> foreignIds = new ConcurrentHashMap<>();
+    private static final AtomicLong foreignCounter = new AtomicLong();
+
+    // identity of the context, used for equals/hashCode and output
+    private long id;
+    // string form, built on first use unless an explicit one was set
     private String ctx_id;
+    // ctx_id is not of the form "ctx_N", the string is the identity
+    private boolean foreign = false;
 
     private final Map<String, String> ctx_fields;
 
@@ -12,7 +26,33 @@ public class Context {
         this.ctx_fields = new HashMap<>();
     }
 
+    // typed storage: values in primitive slots laid out by the shared schema, ctx_fields becomes a view
+    public Context(ContextSchema schema) {
+        this.ctx_fields = schema == null ? new HashMap<>() : new TypedFields(schema);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+        this.ctx_id = null;
+        this.foreign = false;
+    }
+
+    public boolean isForeign() {
+        return foreign;
+    }
+
+    static void releaseForeignId(String ctx_id) {
+        foreignIds.remove(ctx_id);
+    }
+
     public String getCtx_id() {
+        if(ctx_id == null){
+            ctx_id = ID_PREFIX + id;
+        }
         return ctx_id;
     }
 
@@ -20,10 +60,75 @@ public class Context {
         return ctx_fields;
     }
 
+    public boolean isTyped() {
+        return ctx_fields instanceof TypedFields;
+    }
+
+    public ContextSchema getSchema() {
+        return isTyped() ? ((TypedFields) ctx_fields).getSchema() : null;
+    }
+
+    // typed accessors, no string round trip in typed mode
+    public double getDouble(String field) {
+        if(ctx_fields instanceof TypedFields){
+            TypedFields typedFields = (TypedFields) ctx_fields;
+            ContextSchema.Field slotField = typedFields.slotField(field);
+            if(slotField != null && slotField.getType() != ContextSchema.FieldType.STRING){
+                return typedFields.doubleAt(slotField);
+            }
+        }
+        return Double.parseDouble(requireField(field));
+    }
+
+    public long getLong(String field) {
+        if(ctx_fields instanceof TypedFields){
+            TypedFields typedFields = (TypedFields) ctx_fields;
+            ContextSchema.Field slotField = typedFields.slotField(field);
+            if(slotField != null && slotField.getType() == ContextSchema.FieldType.LONG){
+                return typedFields.longAt(slotField);
+            }
+        }
+        return Long.parseLong(requireField(field));
+    }
+
+    public String getString(String field) {
+        return ctx_fields.get(field);
+    }
+
+    private String requireField(String field) {
+        String value = ctx_fields.get(field);
+        if(value == null){
+            throw new NumberFormatException("No value for field \"" + field + "\" in " + this);
+        }
+        return value;
+    }
+
     public void setCtx_id(String ctx_id) {
+        long parsed = parseId(ctx_id);
+        this.foreign = parsed < 0;
+        this.id = foreign ? foreignIds.computeIfAbsent(ctx_id, k -> -foreignCounter.incrementAndGet()) : parsed;
         this.ctx_id = ctx_id;
     }
 
+    // exactly "ctx_N" (N without leading zeros, at most 18 digits) -> N, anything else -> -1
+    public static long parseId(String ctx_id) {
+        int start = ID_PREFIX.length();
+        int end = ctx_id.length();
+        if(!ctx_id.startsWith(ID_PREFIX) || end == start || end - start > 18
+                || (ctx_id.charAt(start) == '0' && end - start > 1)){
+            return -1;
+        }
+        long id = 0;
+        for(int i = start; i < end; ++i){
+            char c = ctx_id.charAt(i);
+            if(c < '0' || c > '9'){
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -31,16 +136,19 @@ public class Context {
 
         Context context = (Context) o;
 
-        return ctx_id.equals(context.ctx_id);
+        if(foreign || context.foreign){
+            return foreign == context.foreign && ctx_id.equals(context.ctx_id);
+        }
+        return id == context.id;
     }
 
     @Override
     public int hashCode() {
-        return ctx_id.hashCode();
+        return foreign ? ctx_id.hashCode() : Long.hashCode(id);
     }
 
     @Override
     public String toString() {
-        return "ctx_id=" + ctx_id ;
+        return "ctx_id=" + getCtx_id();
     }
 }
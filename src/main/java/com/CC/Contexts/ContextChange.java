@@ -7,6 +7,10 @@ public class ContextChange {
     private Change_Type change_type;
     private String pattern_id;
     private Context context;
+    // event time of the record that caused the change (epoch millis), 0: unknown (change data)
+    private long timestamp;
+    // System.nanoTime() when the change reached the scheduler, only stamped for bounded batches
+    private long arrival;
 
     public ContextChange() {
     }
@@ -30,6 +34,14 @@ public class ContextChange {
         this.pattern_id = pattern_id;
     }
 
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public void setArrival(long arrival) {
+        this.arrival = arrival;
+    }
+
     public Context getContext() {
         return context;
     }
@@ -42,6 +54,14 @@ public class ContextChange {
         return pattern_id;
     }
 
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getArrival() {
+        return arrival;
+    }
+
     @Override
     public String toString() {
         return "<" + (change_type == Change_Type.ADDITION ? "+" : "-") + ", " + pattern_id + ", " + context.getCtx_id() + ">";
@@ -2,13 +2,12 @@ package com.CC.Contexts;
 
 import com.CC.Patterns.Pattern;
 import com.CC.Patterns.PatternHandler;
+import com.CC.Patterns.matcher.PrimaryKeyMatcher;
 import com.CC.Patterns.types.FreshnessType;
 import com.CC.Util.Loggable;
-import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONObject;
+import com.CC.Util.TimestampDecoder;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -18,33 +17,51 @@ public class ContextHandler implements Loggable{
 
     private final AtomicLong ctxCounter;
 
-    private final Date latestDate;
+    // change data: foreign context id (not "ctx_N") -> additions not deleted yet, its interned id is held meanwhile
+    private final HashMap<String, Integer> foreignRefs;
 
-    private final SimpleDateFormat simpleDateFormat;
+    private final RecordParser recordParser;
+    private final List<Pattern> matchedPatterns;
+    // fields kept from the records, null: all of them
+    private Set<String> keptFields = null;
+    private boolean keptFieldsResolved = false;
 
-    //time: (patternId, context)
-    private final PriorityQueue<Map.Entry<Long, Map.Entry<String, Context>>> activateContextsTimeQue;
+    // typed context storage when set, otherwise plain HashMap fields
+    private final ContextSchema contextSchema;
+
+    // time of the latest record (epoch millis)
+    private long latestTime;
+
+    private final TimestampDecoder timestampDecoder;
+
+    //time: patternId -> contexts in overdue-time order
+    private final HashMap<String, ExpiryQueue> activateContextsTimeMap;
+    // the same queues sorted by pattern id, expiry ties are emitted in this order
+    private ExpiryQueue[] activateContextsTimeQues;
+    // earliest overdue time over all queues
+    private long nextOverdueTime;
     //patternId : [context1, context2,...]
     private final HashMap<String, Queue<Context>> activateContextsNumberMap;
 
     public ContextHandler(PatternHandler patternHandler, String dataType) {
+        this(patternHandler, dataType, null);
+    }
+
+    public ContextHandler(PatternHandler patternHandler, String dataType, ContextSchema contextSchema) {
         this.patternHandler = patternHandler;
         this.dataType = dataType;
+        this.contextSchema = contextSchema;
         this.ctxCounter = new AtomicLong();
-        //this.activateContextsTimeQue = new PriorityQueue<>(50, (o1, o2) -> (int) (o1.getKey() - o2.getKey()));
-        // for taxi
-        this.activateContextsTimeQue = new PriorityQueue<>(50, ((o1, o2) -> {
-            if(o1.getKey() - o2.getKey() == 0){
-                return o1.getValue().getKey().substring(4).compareTo(o2.getValue().getKey().substring(4));
-            }
-            else{
-                return (int) (o1.getKey() - o2.getKey());
-            }
-        }));
+        this.foreignRefs = new HashMap<>();
+        this.recordParser = new RecordParser();
+        this.matchedPatterns = new ArrayList<>();
+        this.activateContextsTimeMap = new HashMap<>();
+        this.activateContextsTimeQues = new ExpiryQueue[0];
+        this.nextOverdueTime = Long.MAX_VALUE;
         this.activateContextsNumberMap = new HashMap<>();
         initActivateContextsNumberMap(patternHandler.getPatternMap());
-        this.latestDate = new Date();
-        this.simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss:SSS");
+        this.latestTime = System.currentTimeMillis();
+        this.timestampDecoder = new TimestampDecoder();
     }
 
     private void initActivateContextsNumberMap(HashMap<String, Pattern> patternHashMap){
@@ -56,11 +73,26 @@ public class ContextHandler implements Loggable{
     }
 
     public List<ContextChange> generateChanges(String line) throws Exception{
+        return generateFromRecord(line == null ? null : recordParser.reset(line));
+    }
+
+    // line in a reused buffer (see LineReader), no String per record
+    public List<ContextChange> generateChanges(char[] line, int length) throws Exception{
+        return generateFromRecord(recordParser.reset(line, length));
+    }
+
+    private List<ContextChange> generateFromRecord(RecordParser record) throws Exception{
+        if(record != null && record.isBlank()){
+            return new ArrayList<>();
+        }
+        if(!keptFieldsResolved){
+            resolveKeptFields();
+        }
         if(dataType.equals("change")){
-            return generateFromChangeLine(line);
+            return generateFromChangeLine(record);
         }
         else if(dataType.equals("rawData")){
-            return generateFromRawDataLine(line);
+            return generateFromRawDataLine(record);
         }
         else{
             logger.error("Illegal dataType.");
@@ -69,17 +101,59 @@ public class ContextHandler implements Loggable{
         return null;
     }
 
-    private List<ContextChange> generateFromChangeLine(String line){
-        if(line == null){
+    // fields used by primary-key matchers are always kept
+    private void resolveKeptFields(){
+        if(keptFields != null){
+            Set<String> fields = new HashSet<>(keptFields);
+            for(Pattern pattern : patternHandler.getPatternMap().values()){
+                if(pattern.getMatcher() instanceof PrimaryKeyMatcher){
+                    fields.add(((PrimaryKeyMatcher) pattern.getMatcher()).getField());
+                }
+            }
+            recordParser.setKeptFields(fields);
+        }
+        keptFieldsResolved = true;
+    }
+
+    private List<ContextChange> generateFromChangeLine(RecordParser record){
+        if(record == null){
             return new ArrayList<>();
         }
-        JSONObject chgJsonObj = JSON.parseObject(line);
-        String chgType = chgJsonObj.getString("changeType");
-        String patternId = chgJsonObj.getString("patternId");
-        JSONObject ctxJsonObj = chgJsonObj.getJSONObject("context");
-        Context context = buildContext(ctxJsonObj.getString("contextId"), ctxJsonObj.getJSONObject("fields"));
+        String chgType = null;
+        String patternId = null;
+        Context context = new Context(contextSchema);
+        record.beginObject();
+        String name;
+        while((name = record.nextName()) != null){
+            switch (name) {
+                case "changeType":
+                    chgType = record.nextString();
+                    break;
+                case "patternId":
+                    patternId = record.nextString();
+                    break;
+                case "context":
+                    record.beginObject();
+                    String ctxName;
+                    while((ctxName = record.nextName()) != null){
+                        if(ctxName.equals("contextId")){
+                            context.setCtx_id(record.nextString());
+                        }
+                        else if(ctxName.equals("fields")){
+                            record.readFields(context);
+                        }
+                        else{
+                            record.skipValue();
+                        }
+                    }
+                    break;
+                default:
+                    record.skipValue();
+                    break;
+            }
+        }
         ContextChange contextChange = new ContextChange();
-        switch (chgType) {
+        switch (Objects.requireNonNull(chgType, "changeType")) {
             case "+":
                 contextChange.setChange_type(ContextChange.Change_Type.ADDITION);
                 break;
@@ -92,69 +166,115 @@ public class ContextHandler implements Loggable{
         }
         contextChange.setPattern_id(patternId);
         contextChange.setContext(context);
+        if(context.isForeign()){
+            countForeignId(contextChange);
+        }
         return new ArrayList<>(){{add(contextChange);}};
     }
 
-    private List<ContextChange> generateFromRawDataLine(String line) throws ParseException {
+    // setCtx_id interned the id, it is released when the context's last addition is deleted
+    private void countForeignId(ContextChange contextChange){
+        String ctx_id = contextChange.getContext().getCtx_id();
+        int refs = foreignRefs.getOrDefault(ctx_id, 0);
+        ContextChange.Change_Type changeType = contextChange.getChange_type();
+        if(changeType == ContextChange.Change_Type.ADDITION){
+            foreignRefs.put(ctx_id, refs + 1);
+        }
+        else if(changeType == ContextChange.Change_Type.DELETION && refs > 1){
+            foreignRefs.put(ctx_id, refs - 1);
+        }
+        else if(changeType == ContextChange.Change_Type.DELETION || refs == 0){
+            // last addition deleted, or a context this handler never added
+            foreignRefs.remove(ctx_id);
+            Context.releaseForeignId(ctx_id);
+        }
+    }
+
+    public int getForeignIdCount(){
+        return foreignRefs.size();
+    }
+
+    private List<ContextChange> generateFromRawDataLine(RecordParser record) throws ParseException {
         List<ContextChange> changeList = new ArrayList<>();
-        if(line == null){
-            latestDate.setTime(latestDate.getTime() + 24*3600*1000L);
-            this.cleanOverdueContext(latestDate, changeList);
+        if(record == null){
+            latestTime += 24*3600*1000L;
+            this.cleanOverdueContext(latestTime, changeList);
         }
         else{
-            //date
-            JSONObject dataJsonObj = JSON.parseObject(line);
-            String timestampStr = dataJsonObj.getString("timestamp");
-            latestDate.setTime(simpleDateFormat.parse(timestampStr).getTime());
-            //context
-            JSONObject fieldsJsonObj = dataJsonObj.getJSONObject("fields");
-            Context context = buildContext("ctx_" + ctxCounter.getAndIncrement(), fieldsJsonObj);
-            //clean overdue
-            this.cleanOverdueContext(latestDate, changeList);
-            //context pattern match
-            boolean matched = false;
-            for(Pattern pattern : patternHandler.getPatternMap().values()){
-                if(pattern.getMatcher() == null || match(pattern, context)){
-                    matched = true;
-                    changeList.addAll(generate(pattern, context));
+            //date and context in one pass
+            boolean timed = false;
+            Context context = new Context(contextSchema);
+            record.beginObject();
+            String name;
+            while((name = record.nextName()) != null){
+                if(name.equals("timestamp")){
+                    latestTime = timestampDecoder.decode(record.nextChars());
+                    timed = true;
+                }
+                else if(name.equals("fields")){
+                    record.readFields(context);
                 }
+                else{
+                    record.skipValue();
+                }
+            }
+            if(!timed){
+                throw new ParseException("No timestamp in record", 0);
+            }
+            context.setId(ctxCounter.getAndIncrement());
+            //clean overdue
+            this.cleanOverdueContext(latestTime, changeList);
+            //context pattern match, candidates from the dispatch index
+            matchedPatterns.clear();
+            patternHandler.getPatternIndex().match(context, matchedPatterns);
+            for(Pattern pattern : matchedPatterns){
+                changeList.addAll(generate(pattern, context));
             }
         }
+        for(ContextChange change : changeList){
+            change.setTimestamp(latestTime);
+        }
         return changeList;
     }
 
-    private Context buildContext(String ctxId, JSONObject fieldsJsonObj){
-        Context context = new Context();
-        context.setCtx_id(ctxId);
-        for(String fieldName : fieldsJsonObj.keySet()){
-            context.getCtx_fields().put(fieldName, fieldsJsonObj.getString(fieldName));
+    private void cleanOverdueContext(long timeLimit, List<ContextChange> changeList){
+        if(timeLimit < nextOverdueTime){
+            return;
         }
-        return context;
-    }
-
-    private void cleanOverdueContext(Date dateLimit, List<ContextChange> changeList){
-        while(!activateContextsTimeQue.isEmpty()){
-            long overdueTime = activateContextsTimeQue.peek().getKey();
-            String patternId = activateContextsTimeQue.peek().getValue().getKey();
-            Context context = activateContextsTimeQue.peek().getValue().getValue();
-            if(overdueTime <= dateLimit.getTime()){
-                ContextChange delChange = new ContextChange();
-                delChange.setChange_type(ContextChange.Change_Type.DELETION);
-                delChange.setPattern_id(patternId);
-                delChange.setContext(context);
-                //TODO(): inducing from-pattern changes.
-                changeList.add(delChange);
-
-                activateContextsTimeQue.poll();
+        // merge the per-pattern queues: all overdue contexts in one batch, by (overdue time, pattern id)
+        while(true){
+            ExpiryQueue next = null;
+            long nextTime = Long.MAX_VALUE;
+            for(ExpiryQueue queue : activateContextsTimeQues){
+                long time = queue.peekTime();
+                if(time < nextTime){
+                    next = queue;
+                    nextTime = time;
+                }
             }
-            else{
-                 break;
+            if(next == null || nextTime > timeLimit){
+                nextOverdueTime = nextTime;
+                break;
             }
+            ContextChange delChange = new ContextChange();
+            delChange.setChange_type(ContextChange.Change_Type.DELETION);
+            delChange.setPattern_id(next.getPatternId());
+            delChange.setContext(next.poll());
+            //TODO(): inducing from-pattern changes.
+            changeList.add(delChange);
         }
     }
 
-    private boolean match(Pattern pattern, Context context){
-        return pattern.getMatcher().match(context);
+    private ExpiryQueue timeQueue(Pattern pattern){
+        ExpiryQueue queue = activateContextsTimeMap.get(pattern.getPatternId());
+        if(queue == null){
+            queue = new ExpiryQueue(pattern.getPatternId(), Long.parseLong(pattern.getFreshnessValue()));
+            activateContextsTimeMap.put(pattern.getPatternId(), queue);
+            ExpiryQueue[] queues = activateContextsTimeMap.values().toArray(new ExpiryQueue[0]);
+            Arrays.sort(queues, Comparator.comparing(ExpiryQueue::getPatternId));
+            activateContextsTimeQues = queues;
+        }
+        return queue;
     }
 
     private List<ContextChange> generate(Pattern pattern, Context context){
@@ -186,8 +306,10 @@ public class ContextHandler implements Loggable{
             queue.add(context);
         }
         else if(pattern.getFreshnessType() == FreshnessType.time){
-            long overdueTime = latestDate.getTime() + Long.parseLong(pattern.getFreshnessValue());
-            activateContextsTimeQue.add(new AbstractMap.SimpleEntry<>(overdueTime, new AbstractMap.SimpleEntry<>(pattern.getPatternId(), context)));
+            ExpiryQueue queue = timeQueue(pattern);
+            long overdueTime = latestTime + queue.getFreshness();
+            queue.add(overdueTime, context);
+            nextOverdueTime = Math.min(nextOverdueTime, overdueTime);
         }
 
         return changeList;
@@ -201,4 +323,14 @@ public class ContextHandler implements Loggable{
     public String getDataType() {
         return dataType;
     }
+
+    // bfuncs and mfuncs are opaque, so only the user knows which fields they read
+    public void setKeptFields(Set<String> keptFields) {
+        this.keptFields = keptFields;
+        this.keptFieldsResolved = false;
+    }
+
+    public ContextSchema getContextSchema() {
+        return contextSchema;
+    }
 }
@@ -3,67 +3,77 @@ package com.CC.Contexts;
 import com.CC.Constraints.Rules.Rule;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ContextPool {
 
-    //存储现在有效的context, rule_id to Map<pattern_id to set>
+    //pattern_id to the contexts of the pattern, stored once for all rules
+    private final HashMap<String, PatternPool> PatternPools;
+
+    //存储现在有效的context, rule_id to Map<pattern_id to set>, the sets are this rule's views of PatternPools
     private final HashMap<String, HashMap<String, Set<Context>>> Pool;
 
-    // pattern_id to set
-    private final HashMap<String, Set<Context>> DelSets;
-    private final HashMap<String, Set<Context>> AddSets;
-    private final HashMap<String, Set<Context>> UpdSets;
+    // rule_id to the delta of the rule's last batch (PCCM, INFUSE). a delta is immutable and replaced as a whole,
+    // so batches of different rules can be applied and checked in parallel
+    private final ConcurrentHashMap<String, PoolDelta> Deltas;
 
     public ContextPool() {
+        PatternPools = new HashMap<>();
         Pool = new HashMap<>();
-        DelSets = new HashMap<>();
-        AddSets = new HashMap<>();
-        UpdSets = new HashMap<>();
+        Deltas = new ConcurrentHashMap<>();
     }
 
     public void poolInit(Rule rule){
             HashMap<String, Set<Context>> map = new HashMap<>();
             for(String pattern_id : rule.getVarPatternMap().values()){
-                map.put(pattern_id, new HashSet<>());
+                if(!map.containsKey(pattern_id)){
+                    map.put(pattern_id, PatternPools.computeIfAbsent(pattern_id, k -> new PatternPool()).newView());
+                }
             }
             Pool.put(rule.getRule_id(), map);
+            Deltas.put(rule.getRule_id(), PoolDelta.EMPTY);
+    }
+
+    public PatternPool getPatternPool(String pattern_id){
+        return PatternPools.get(pattern_id);
     }
 
-    public void threeSetsInit(String pattern_id){
-        DelSets.put(pattern_id, new HashSet<>());
-        AddSets.put(pattern_id, new HashSet<>());
-        UpdSets.put(pattern_id, new HashSet<>());
+    public PoolDelta getDelta(String rule_id){
+        return Deltas.get(rule_id);
     }
 
-    public Set<Context> getAddSet(String pattern_id){
-        return AddSets.get(pattern_id);
+    public void setDelta(String rule_id, PoolDelta delta){
+        Deltas.put(rule_id, delta);
     }
 
-    public Set<Context> getDelSet(String pattern_id){
-        return DelSets.get(pattern_id);
+    public Set<Context> getAddSet(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getAddSet(pattern_id);
     }
 
-    public Set<Context> getUpdSet(String pattern_id){
-        return UpdSets.get(pattern_id);
+    public Set<Context> getDelSet(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getDelSet(pattern_id);
+    }
+
+    public Set<Context> getUpdSet(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getUpdSet(pattern_id);
     }
 
     public Set<Context> getPoolSet(String rule_id, String pattern_id){
         return Pool.get(rule_id).get(pattern_id);
     }
 
-    public int getAddSetSize(String pattern_id){
-        return AddSets.get(pattern_id).size();
+    public int getAddSetSize(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getAddSet(pattern_id).size();
     }
 
-    public int getDelSetSize(String pattern_id){
-        return DelSets.get(pattern_id).size();
+    public int getDelSetSize(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getDelSet(pattern_id).size();
     }
 
-    public int getUpdSetSize(String pattern_id){
-        return UpdSets.get(pattern_id).size();
+    public int getUpdSetSize(String rule_id, String pattern_id){
+        return Deltas.get(rule_id).getUpdSet(pattern_id).size();
     }
 
     public int getPoolSetSize(String rule_id, String pattern_id){
@@ -81,79 +91,20 @@ public class ContextPool {
     }
 
     //CPCC method 2
-    public void applyChanges(Rule rule, List<ContextChange> batch) {
-        //init DelSet, AddSet, and ModSet
-        for(String pattern_id : rule.getVarPatternMap().values()){
-            DelSets.get(pattern_id).clear();
-            AddSets.get(pattern_id).clear();
-            UpdSets.get(pattern_id).clear();
-        }
-
-        //update DelSets, AddSets, and ModSets
+    public PoolDelta applyChanges(Rule rule, List<ContextChange> batch) {
+        PoolDelta.Builder builder = new PoolDelta.Builder();
         for(ContextChange contextChange : batch){
-            String pattern_id = contextChange.getPattern_id();
-            if(!rule.getVarPatternMap().containsValue(pattern_id))
+            if(!rule.getVarPatternMap().containsValue(contextChange.getPattern_id()))
                 continue;
-            Set<Context> DelSet = DelSets.get(pattern_id);
-            Set<Context> AddSet = AddSets.get(pattern_id);
-            Set<Context> ModSet = UpdSets.get(pattern_id);
-            if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
-                Pool.get(rule.getRule_id()).get(pattern_id).add(contextChange.getContext());
-                if(DelSet.contains(contextChange.getContext())){
-                    DelSet.remove(contextChange.getContext());
-                    ModSet.add(contextChange.getContext());
-                }
-                else{
-                    AddSet.add(contextChange.getContext());
-                }
-            }
-            else if(contextChange.getChange_type() == ContextChange.Change_Type.DELETION){
-                Pool.get(rule.getRule_id()).get(pattern_id).remove(contextChange.getContext());
-                if(AddSet.contains(contextChange.getContext())){
-                    AddSet.remove(contextChange.getContext());
-                }
-                else if(ModSet.contains(contextChange.getContext())){
-                    ModSet.remove(contextChange.getContext());
-                    DelSet.add(contextChange.getContext());
-                }
-                else{
-                    DelSet.add(contextChange.getContext());
-                }
-            }
-            else {
+            if(contextChange.getChange_type() == ContextChange.Change_Type.UPDATE){
                 System.out.println("Error");
                 System.exit(1);
             }
+            applyChange(rule.getRule_id(), contextChange);
+            builder.apply(contextChange);
         }
-
-    }
-
-    //PCCM CPCC method 1
-    public void applyChangeWithSets(String rule_id, ContextChange contextChange){
-        Set<Context> DelS = DelSets.get(contextChange.getPattern_id());
-        Set<Context> AddS = AddSets.get(contextChange.getPattern_id());
-        Set<Context> ModS = UpdSets.get(contextChange.getPattern_id());
-        if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
-            Pool.get(rule_id).get(contextChange.getPattern_id()).add(contextChange.getContext());
-            if(DelS.contains(contextChange.getContext())){
-                DelS.remove(contextChange.getContext());
-                ModS.add(contextChange.getContext());
-            }else{
-                AddS.add(contextChange.getContext());
-            }
-        }
-        else{
-            Pool.get(rule_id).get(contextChange.getPattern_id()).remove(contextChange.getContext());
-            if(AddS.contains(contextChange.getContext())){
-                AddS.remove(contextChange.getContext());
-            }
-            else if(ModS.contains(contextChange.getContext())){
-                ModS.remove(contextChange.getContext());
-                DelS.add(contextChange.getContext());
-            }
-            else{
-                DelS.add(contextChange.getContext());
-            }
-        }
+        PoolDelta delta = builder.build();
+        Deltas.put(rule.getRule_id(), delta);
+        return delta;
     }
 }
@@ -0,0 +1,173 @@
+package com.CC.Contexts;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * field table shared by all typed contexts: field name -> (index, type, slot).
+ * a field is declared up front or inferred from the first value seen for it;
+ * each type has its own slot numbering, so a typed context only holds a double[], a long[] and a String[].
+ */
+public final class ContextSchema {
+
+    public enum FieldType {LONG, DOUBLE, STRING}
+
+    public static final class Field {
+        private final String name;
+        private final int index;
+        private final FieldType type;
+        private final int slot;
+
+        private Field(String name, int index, FieldType type, int slot) {
+            this.name = name;
+            this.index = index;
+            this.type = type;
+            this.slot = slot;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public FieldType getType() {
+            return type;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+    }
+
+    // keep interning string values bounded, free-text fields would grow the table forever
+    private static final int MAX_INTERNED_VALUES = 1 << 16;
+
+    private final Map<String, Field> fieldMap = new ConcurrentHashMap<>();
+    private volatile Field[] fields = new Field[0];
+    private final int[] slotCounts = new int[FieldType.values().length];
+    private final Map<String, String> valuePool = new ConcurrentHashMap<>();
+
+    public ContextSchema() {}
+
+    // "taxiId:string,longitude:double,speed:long"
+    public static ContextSchema parse(String spec) {
+        ContextSchema schema = new ContextSchema();
+        if(spec == null || spec.isBlank()){
+            return schema;
+        }
+        for(String item : spec.split(",")){
+            String[] kv = item.trim().split(":");
+            if(kv.length != 2){
+                throw new IllegalArgumentException("Illegal schema field \"" + item + "\", expected name:type");
+            }
+            schema.declare(kv[0].trim(), FieldType.valueOf(kv[1].trim().toUpperCase()));
+        }
+        return schema;
+    }
+
+    public synchronized Field declare(String name, FieldType type) {
+        Field field = fieldMap.get(name);
+        if(field != null){
+            if(field.type != type){
+                throw new IllegalArgumentException("Field \"" + name + "\" is already declared as " + field.type);
+            }
+            return field;
+        }
+        field = new Field(name.intern(), fields.length, type, slotCounts[type.ordinal()]++);
+        Field[] newFields = Arrays.copyOf(fields, fields.length + 1);
+        newFields[field.index] = field;
+        fieldMap.put(field.name, field);
+        fields = newFields;
+        return field;
+    }
+
+    public Field getField(Object name) {
+        return name == null ? null : fieldMap.get(name);
+    }
+
+    // unknown fields take the type of their first value
+    Field fieldFor(String name, String firstValue) {
+        Field field = fieldMap.get(name);
+        return field != null ? field : declare(name, inferType(firstValue));
+    }
+
+    Field[] getFields() {
+        return fields;
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    int slotCount(FieldType type) {
+        return slotCounts[type.ordinal()];
+    }
+
+    String intern(String value) {
+        String pooled = valuePool.get(value);
+        if(pooled != null){
+            return pooled;
+        }
+        if(valuePool.size() >= MAX_INTERNED_VALUES){
+            return value;
+        }
+        pooled = valuePool.putIfAbsent(value, value);
+        return pooled == null ? value : pooled;
+    }
+
+    static FieldType inferType(String value) {
+        if(value == null){
+            return FieldType.STRING;
+        }
+        if(fitsLong(value)){
+            return FieldType.LONG;
+        }
+        if(fitsDouble(value)){
+            return FieldType.DOUBLE;
+        }
+        return FieldType.STRING;
+    }
+
+    // only lossless values go to numeric slots, so the string view gives back exactly what was stored
+    static boolean fitsLong(String value) {
+        int len = value.length();
+        if(len == 0 || len > 19){
+            return false;
+        }
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        if(i == len || (value.charAt(i) == '0' && len > i + 1) || (i == 1 && value.charAt(1) == '0')){
+            return false;
+        }
+        for(; i < len; ++i){
+            char c = value.charAt(i);
+            if(c < '0' || c > '9'){
+                return false;
+            }
+        }
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static boolean fitsDouble(String value) {
+        if(value.isEmpty()){
+            return false;
+        }
+        char c = value.charAt(value.length() - 1);
+        if(c < '0' || c > '9'){
+            return false;
+        }
+        try {
+            return Double.toString(Double.parseDouble(value)).equals(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
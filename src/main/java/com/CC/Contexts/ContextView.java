@@ -0,0 +1,92 @@
+package com.CC.Contexts;
+
+import java.util.*;
+
+/*
+ * read-only Map view of a Context as handed to bfunc: ctx_fields plus a virtual "ctx_id" key.
+ * nothing is copied, the view is re-bound to another context instead of being rebuilt.
+ */
+public final class ContextView extends AbstractMap<String, String> {
+
+    public static final String CTX_ID_KEY = "ctx_id";
+
+    private Context context;
+
+    public ContextView() {
+    }
+
+    public ContextView(Context context) {
+        this.context = context;
+    }
+
+    public ContextView bind(Context context) {
+        this.context = context;
+        return this;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    // ctx_fields win over the virtual key, same as the old copy (ctx_id put first, then the fields)
+    private boolean virtualId() {
+        return !context.getCtx_fields().containsKey(CTX_ID_KEY);
+    }
+
+    @Override
+    public String get(Object key) {
+        String value = context.getCtx_fields().get(key);
+        if(value == null && CTX_ID_KEY.equals(key) && virtualId()){
+            return context.getCtx_id();
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return CTX_ID_KEY.equals(key) || context.getCtx_fields().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return context.getCtx_fields().size() + (virtualId() ? 1 : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return false;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                final Iterator<Entry<String, String>> fieldIter = context.getCtx_fields().entrySet().iterator();
+                final boolean withId = virtualId();
+                return new Iterator<>() {
+                    boolean idPending = withId;
+
+                    @Override
+                    public boolean hasNext() {
+                        return idPending || fieldIter.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if(idPending){
+                            idPending = false;
+                            return new SimpleImmutableEntry<>(CTX_ID_KEY, context.getCtx_id());
+                        }
+                        return new SimpleImmutableEntry<>(fieldIter.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ContextView.this.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.CC.Contexts;
+
+/*
+ * live contexts of one time-freshness pattern, ordered by overdue time.
+ * freshness is constant per pattern, so with in-order data every add goes to the tail (FIFO);
+ * a record older than the tail is placed by a backwards shift.
+ * ring buffer of primitive times, no boxing or entry objects per context.
+ */
+final class ExpiryQueue {
+    private final String patternId;
+    private final long freshness;
+
+    private long[] times = new long[64];
+    private Context[] contexts = new Context[64];
+    private int head = 0;
+    private int size = 0;
+
+    ExpiryQueue(String patternId, long freshness) {
+        this.patternId = patternId;
+        this.freshness = freshness;
+    }
+
+    String getPatternId() {
+        return patternId;
+    }
+
+    long getFreshness() {
+        return freshness;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Long.MAX_VALUE when empty
+    long peekTime() {
+        return size == 0 ? Long.MAX_VALUE : times[head];
+    }
+
+    void add(long overdueTime, Context context) {
+        if(size == times.length){
+            grow();
+        }
+        int mask = times.length - 1;
+        int i = size;
+        // shift later entries back, only for out-of-order records
+        while(i > 0 && times[(head + i - 1) & mask] > overdueTime){
+            times[(head + i) & mask] = times[(head + i - 1) & mask];
+            contexts[(head + i) & mask] = contexts[(head + i - 1) & mask];
+            i--;
+        }
+        times[(head + i) & mask] = overdueTime;
+        contexts[(head + i) & mask] = context;
+        size++;
+    }
+
+    Context poll() {
+        Context context = contexts[head];
+        contexts[head] = null;
+        head = (head + 1) & (times.length - 1);
+        size--;
+        return context;
+    }
+
+    private void grow() {
+        int n = times.length;
+        long[] newTimes = new long[n * 2];
+        Context[] newContexts = new Context[n * 2];
+        int firstPart = n - head;
+        System.arraycopy(times, head, newTimes, 0, firstPart);
+        System.arraycopy(times, 0, newTimes, firstPart, head);
+        System.arraycopy(contexts, head, newContexts, 0, firstPart);
+        System.arraycopy(contexts, 0, newContexts, firstPart, head);
+        times = newTimes;
+        contexts = newContexts;
+        head = 0;
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.CC.Contexts;
+
+import java.util.*;
+
+/*
+ * valid contexts of one pattern, shared by all rules using the pattern.
+ * a context is stored once, in a slot of a dense array that lives while at least one rule's view holds it (reference count).
+ * each rule gets a View (its own pool set): a dense array of the slots it holds plus slot -> position, removal swaps in the last one.
+ * views differ only while a rule lags behind (batching) or drops a change (GEAS_opt cancellation).
+ * a view is only written by its own rule's check, views of different rules may be used in parallel:
+ * slot lookup, acquire and release lock the pool, iteration does not.
+ */
+public final class PatternPool {
+
+    private volatile Context[] contexts = new Context[16];
+    private int[] refs = new int[16];
+    private final IdIndex index = new IdIndex();
+    private int[] freeSlots = new int[16];
+    private int freeCount = 0;
+    private int used = 0;
+    private int viewCount = 0;
+
+    //only called while rules are loaded
+    public View newView() {
+        viewCount++;
+        return new View();
+    }
+
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    //contexts held by at least one view
+    public synchronized int size() {
+        return used - freeCount;
+    }
+
+    private synchronized int slotOf(Context context) {
+        return index.get(context.getId());
+    }
+
+    private synchronized int acquire(Context context) {
+        int slot = index.get(context.getId());
+        if(slot < 0){
+            if(freeCount > 0){
+                slot = freeSlots[--freeCount];
+            }
+            else{
+                slot = used++;
+                if(slot == refs.length){
+                    refs = Arrays.copyOf(refs, slot * 2);
+                    contexts = Arrays.copyOf(contexts, slot * 2);
+                }
+            }
+            contexts[slot] = context;
+            index.put(context.getId(), slot);
+        }
+        refs[slot]++;
+        return slot;
+    }
+
+    private synchronized void release(int slot) {
+        if(--refs[slot] == 0){
+            index.remove(contexts[slot].getId());
+            contexts[slot] = null;
+            if(freeCount == freeSlots.length){
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    public final class View extends AbstractSet<Context> {
+        // held slots, dense
+        private int[] members = new int[16];
+        // slot -> position in members + 1, 0 = not held
+        private int[] positions = new int[16];
+        private int size = 0;
+
+        private View() {
+        }
+
+        private boolean holds(int slot) {
+            return slot >= 0 && slot < positions.length && positions[slot] != 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Context && holds(slotOf((Context) o));
+        }
+
+        @Override
+        public boolean add(Context context) {
+            if(holds(slotOf(context))){
+                return false;
+            }
+            int slot = acquire(context);
+            if(slot >= positions.length){
+                positions = Arrays.copyOf(positions, Math.max(slot + 1, positions.length * 2));
+            }
+            if(size == members.length){
+                members = Arrays.copyOf(members, size * 2);
+            }
+            members[size++] = slot;
+            positions[slot] = size;
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if(!(o instanceof Context)){
+                return false;
+            }
+            int slot = slotOf((Context) o);
+            if(!holds(slot)){
+                return false;
+            }
+            removeAt(positions[slot] - 1);
+            return true;
+        }
+
+        private void removeAt(int position) {
+            int slot = members[position];
+            int last = members[--size];
+            members[position] = last;
+            positions[last] = position + 1;
+            positions[slot] = 0;
+            release(slot);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Context> iterator() {
+            return new Iterator<Context>() {
+                private int next = 0;
+                private boolean canRemove = false;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Context next() {
+                    if(next >= size){
+                        throw new NoSuchElementException();
+                    }
+                    canRemove = true;
+                    return contexts[members[next++]];
+                }
+
+                @Override
+                public void remove() {
+                    if(!canRemove){
+                        throw new IllegalStateException();
+                    }
+                    canRemove = false;
+                    //the last member moves into the removed position, visit it next
+                    removeAt(--next);
+                }
+            };
+        }
+    }
+
+    // context id -> slot, open addressing (linear probing), -1 = absent
+    private static final class IdIndex {
+        private long[] ids = new long[16];
+        // slot + 1, 0 = free
+        private int[] slots = new int[16];
+        private int size = 0;
+
+        int get(long id) {
+            int mask = ids.length - 1;
+            for(int i = indexOf(id, mask); slots[i] != 0; i = (i + 1) & mask){
+                if(ids[i] == id){
+                    return slots[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        void put(long id, int slot) {
+            if((size + 1) * 4 > ids.length * 3){
+                resize(ids.length * 2);
+            }
+            int mask = ids.length - 1;
+            int i = indexOf(id, mask);
+            while(slots[i] != 0){
+                if(ids[i] == id){
+                    slots[i] = slot + 1;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            ids[i] = id;
+            slots[i] = slot + 1;
+            size++;
+        }
+
+        void remove(long id) {
+            int mask = ids.length - 1;
+            int i = indexOf(id, mask);
+            while(slots[i] != 0 && ids[i] != id){
+                i = (i + 1) & mask;
+            }
+            if(slots[i] == 0){
+                return;
+            }
+            size--;
+            // shift the rest of the probe run back, so lookups never need tombstones
+            int free = i;
+            for(int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask){
+                int home = indexOf(ids[j], mask);
+                if(((j - home) & mask) >= ((j - free) & mask)){
+                    ids[free] = ids[j];
+                    slots[free] = slots[j];
+                    free = j;
+                }
+            }
+            slots[free] = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldIds = ids;
+            int[] oldSlots = slots;
+            ids = new long[capacity];
+            slots = new int[capacity];
+            int mask = capacity - 1;
+            for(int k = 0; k < oldIds.length; ++k){
+                if(oldSlots[k] != 0){
+                    int i = indexOf(oldIds[k], mask);
+                    while(slots[i] != 0){
+                        i = (i + 1) & mask;
+                    }
+                    ids[i] = oldIds[k];
+                    slots[i] = oldSlots[k];
+                }
+            }
+        }
+
+        private static int indexOf(long id, int mask) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
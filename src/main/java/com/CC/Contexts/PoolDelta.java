@@ -0,0 +1,74 @@
+package com.CC.Contexts;
+
+import java.util.*;
+
+/*
+ * what one batch changed in a rule's pool, per pattern: deleted, added and updated (deleted then added again) contexts.
+ * built for one rule by ContextPool.applyChanges (or by PCCM change by change) and immutable afterwards,
+ * so checks of different rules never share mutable change sets.
+ */
+public final class PoolDelta {
+
+    public static final PoolDelta EMPTY = new PoolDelta(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    //pattern_id to set
+    private final Map<String, Set<Context>> delSets;
+    private final Map<String, Set<Context>> addSets;
+    private final Map<String, Set<Context>> updSets;
+
+    private PoolDelta(Map<String, Set<Context>> delSets, Map<String, Set<Context>> addSets, Map<String, Set<Context>> updSets) {
+        this.delSets = delSets;
+        this.addSets = addSets;
+        this.updSets = updSets;
+    }
+
+    public Set<Context> getDelSet(String pattern_id) {
+        return delSets.getOrDefault(pattern_id, Collections.emptySet());
+    }
+
+    public Set<Context> getAddSet(String pattern_id) {
+        return addSets.getOrDefault(pattern_id, Collections.emptySet());
+    }
+
+    public Set<Context> getUpdSet(String pattern_id) {
+        return updSets.getOrDefault(pattern_id, Collections.emptySet());
+    }
+
+    public static final class Builder {
+        private final Map<String, Set<Context>> delSets = new HashMap<>();
+        private final Map<String, Set<Context>> addSets = new HashMap<>();
+        private final Map<String, Set<Context>> updSets = new HashMap<>();
+
+        public Builder apply(ContextChange contextChange) {
+            String pattern_id = contextChange.getPattern_id();
+            Context context = contextChange.getContext();
+            Set<Context> DelSet = delSets.computeIfAbsent(pattern_id, k -> new HashSet<>());
+            Set<Context> AddSet = addSets.computeIfAbsent(pattern_id, k -> new HashSet<>());
+            Set<Context> ModSet = updSets.computeIfAbsent(pattern_id, k -> new HashSet<>());
+            if(contextChange.getChange_type() == ContextChange.Change_Type.ADDITION){
+                if(DelSet.remove(context)){
+                    ModSet.add(context);
+                }
+                else{
+                    AddSet.add(context);
+                }
+            }
+            //a deleted addition of this batch leaves no trace
+            else if(!AddSet.remove(context)){
+                ModSet.remove(context);
+                DelSet.add(context);
+            }
+            return this;
+        }
+
+        //the builder must not be used afterwards
+        public PoolDelta build() {
+            return new PoolDelta(freeze(delSets), freeze(addSets), freeze(updSets));
+        }
+
+        private static Map<String, Set<Context>> freeze(Map<String, Set<Context>> sets) {
+            sets.replaceAll((pattern_id, set) -> Collections.unmodifiableSet(set));
+            return Collections.unmodifiableMap(sets);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.CC.Contexts;
+
+import java.util.Set;
+
+/*
+ * streaming tokenizer for one JSON record (rawData / change line), fills a Context directly.
+ * no JSONObject tree: names are resolved through a reused char buffer and a name table,
+ * fields nobody references are skipped without building their values.
+ * not thread-safe, one parser per ingest thread.
+ */
+public final class RecordParser {
+
+    private char[] own = new char[1024];
+    private char[] in = own;
+    private int pos;
+    private int end;
+
+    private final StringBuilder buf = new StringBuilder(64);
+    // canonical field names, open addressing on String.hashCode of the chars
+    private String[] names = new String[64];
+    private int nameCount = 0;
+
+    // null: keep every field
+    private Set<String> keptFields;
+
+    public RecordParser() {}
+
+    public void setKeptFields(Set<String> keptFields) {
+        this.keptFields = keptFields;
+    }
+
+    public Set<String> getKeptFields() {
+        return keptFields;
+    }
+
+    public RecordParser reset(String line) {
+        int len = line.length();
+        if(len > own.length){
+            own = new char[Math.max(len, own.length * 2)];
+        }
+        line.getChars(0, len, own, 0);
+        in = own;
+        pos = 0;
+        end = len;
+        return this;
+    }
+
+    public RecordParser reset(char[] line, int length) {
+        in = line;
+        pos = 0;
+        end = length;
+        return this;
+    }
+
+    public boolean isBlank() {
+        skipWs();
+        return pos >= end;
+    }
+
+    // ---- structure ----
+
+    public void beginObject() {
+        expect('{');
+    }
+
+    // next member name of the current object, null when the object ends
+    public String nextName() {
+        skipWs();
+        char c = peek();
+        if(c == ',') {
+            pos++;
+            skipWs();
+            c = peek();
+        }
+        if(c == '}'){
+            pos++;
+            return null;
+        }
+        if(c != '"'){
+            throw error("expected member name");
+        }
+        pos++;
+        String name = readName();
+        skipWs();
+        expect(':');
+        return name;
+    }
+
+    // the value as text: strings unescaped, numbers/literals as written, nested values as raw JSON, null as null
+    public String nextString() {
+        skipWs();
+        char c = peek();
+        if(c == '"'){
+            pos++;
+            readChars();
+            return buf.toString();
+        }
+        int start = pos;
+        if(c == '{' || c == '['){
+            skipValue();
+            return new String(in, start, pos - start);
+        }
+        skipLiteral();
+        if(pos - start == 4 && in[start] == 'n' && in[start + 1] == 'u' && in[start + 2] == 'l' && in[start + 3] == 'l'){
+            return null;
+        }
+        return new String(in, start, pos - start);
+    }
+
+    // string value decoded into the reused buffer, valid until the next call
+    public CharSequence nextChars() {
+        skipWs();
+        if(peek() == '"'){
+            pos++;
+            readChars();
+            return buf;
+        }
+        int start = pos;
+        skipLiteral();
+        buf.setLength(0);
+        buf.append(in, start, pos - start);
+        return buf;
+    }
+
+    // fields object -> context, dropping fields outside keptFields
+    public void readFields(Context context) {
+        skipWs();
+        if(peek() == 'n'){
+            skipLiteral();
+            return;
+        }
+        beginObject();
+        String name;
+        while((name = nextName()) != null){
+            if(keptFields == null || keptFields.contains(name)){
+                context.getCtx_fields().put(name, nextString());
+            }
+            else{
+                skipValue();
+            }
+        }
+    }
+
+    public void skipValue() {
+        skipWs();
+        char c = peek();
+        if(c == '"'){
+            pos++;
+            skipString();
+        }
+        else if(c == '{' || c == '['){
+            int depth = 0;
+            while(pos < end){
+                c = in[pos++];
+                if(c == '"'){
+                    skipString();
+                }
+                else if(c == '{' || c == '['){
+                    depth++;
+                }
+                else if(c == '}' || c == ']'){
+                    if(--depth == 0){
+                        return;
+                    }
+                }
+            }
+            throw error("unterminated value");
+        }
+        else{
+            skipLiteral();
+        }
+    }
+
+    // ---- tokens ----
+
+    private void skipWs() {
+        while(pos < end){
+            char c = in[pos];
+            if(c != ' ' && c != '\t' && c != '\n' && c != '\r'){
+                break;
+            }
+            pos++;
+        }
+    }
+
+    private char peek() {
+        if(pos >= end){
+            throw error("unexpected end of record");
+        }
+        return in[pos];
+    }
+
+    private void expect(char c) {
+        skipWs();
+        if(peek() != c){
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private void skipLiteral() {
+        int start = pos;
+        while(pos < end){
+            char c = in[pos];
+            if(c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r'){
+                break;
+            }
+            pos++;
+        }
+        if(pos == start){
+            throw error("expected value");
+        }
+    }
+
+    private void skipString() {
+        while(pos < end){
+            char c = in[pos++];
+            if(c == '\\'){
+                pos++;
+            }
+            else if(c == '"'){
+                return;
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    // string body after the opening quote -> buf
+    private void readChars() {
+        buf.setLength(0);
+        int start = pos;
+        while(pos < end){
+            char c = in[pos];
+            if(c == '"'){
+                buf.append(in, start, pos - start);
+                pos++;
+                return;
+            }
+            if(c == '\\'){
+                buf.append(in, start, pos - start);
+                pos++;
+                buf.append(unescape());
+                start = pos;
+            }
+            else{
+                pos++;
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private char unescape() {
+        char c = peek();
+        pos++;
+        switch (c) {
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                if(pos + 4 > end){
+                    throw error("bad unicode escape");
+                }
+                int code = 0;
+                for(int i = 0; i < 4; ++i){
+                    int digit = Character.digit(in[pos++], 16);
+                    if(digit < 0){
+                        throw error("bad unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                }
+                return (char) code;
+            default:
+                return c;
+        }
+    }
+
+    private String readName() {
+        readChars();
+        int hash = 0;
+        for(int i = 0; i < buf.length(); ++i){
+            hash = 31 * hash + buf.charAt(i);
+        }
+        int mask = names.length - 1;
+        int idx = hash & mask;
+        while(names[idx] != null){
+            if(names[idx].hashCode() == hash && names[idx].contentEquals(buf)){
+                return names[idx];
+            }
+            idx = (idx + 1) & mask;
+        }
+        String name = buf.toString().intern();
+        if(++nameCount * 2 > names.length){
+            rehash();
+            mask = names.length - 1;
+            idx = hash & mask;
+            while(names[idx] != null){
+                idx = (idx + 1) & mask;
+            }
+        }
+        names[idx] = name;
+        return name;
+    }
+
+    private void rehash() {
+        String[] old = names;
+        names = new String[old.length * 2];
+        int mask = names.length - 1;
+        for(String name : old){
+            if(name != null){
+                int idx = name.hashCode() & mask;
+                while(names[idx] != null){
+                    idx = (idx + 1) & mask;
+                }
+                names[idx] = name;
+            }
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        int from = Math.max(0, pos - 20);
+        int to = Math.min(end, pos + 20);
+        return new IllegalArgumentException("Malformed record, " + message + " at " + pos + ": \"" + new String(in, from, to - from) + "\"");
+    }
+}
@@ -0,0 +1,222 @@
+package com.CC.Contexts;
+
+import com.CC.Contexts.ContextSchema.Field;
+import com.CC.Contexts.ContextSchema.FieldType;
+
+import java.util.*;
+
+/*
+ * ctx_fields of a typed context: values live in primitive slots laid out by the shared ContextSchema.
+ * the Map<String, String> face keeps getCtx_fields() working for bfuncs, mfuncs and the Kotlin side;
+ * a value that cannot be stored losslessly in its field's slot goes to the (rarely allocated) overflow map.
+ */
+final class TypedFields extends AbstractMap<String, String> {
+
+    private final ContextSchema schema;
+    private double[] doubles;
+    private long[] longs;
+    private String[] strings;
+    private long[] present;
+    private HashMap<String, String> overflow;
+    private int size;
+
+    TypedFields(ContextSchema schema) {
+        this.schema = schema;
+        this.doubles = new double[schema.slotCount(FieldType.DOUBLE)];
+        this.longs = new long[schema.slotCount(FieldType.LONG)];
+        this.strings = new String[schema.slotCount(FieldType.STRING)];
+        this.present = new long[(schema.size() + 63) >>> 6];
+    }
+
+    ContextSchema getSchema() {
+        return schema;
+    }
+
+    private boolean isPresent(int index) {
+        int word = index >>> 6;
+        return word < present.length && (present[word] & (1L << index)) != 0;
+    }
+
+    private void setPresent(int index, boolean flag) {
+        int word = index >>> 6;
+        if(word >= present.length){
+            if(!flag){
+                return;
+            }
+            present = Arrays.copyOf(present, word + 1);
+        }
+        if(flag){
+            present[word] |= 1L << index;
+        }
+        else{
+            present[word] &= ~(1L << index);
+        }
+    }
+
+    // the slot of a present field, null if the field is absent or its value is in overflow
+    Field slotField(String name) {
+        Field field = schema.getField(name);
+        return field != null && isPresent(field.getIndex()) ? field : null;
+    }
+
+    double doubleAt(Field field) {
+        return field.getType() == FieldType.DOUBLE ? doubles[field.getSlot()] : (double) longs[field.getSlot()];
+    }
+
+    long longAt(Field field) {
+        return field.getType() == FieldType.LONG ? longs[field.getSlot()] : (long) doubles[field.getSlot()];
+    }
+
+    private String format(Field field) {
+        switch (field.getType()) {
+            case LONG:
+                return Long.toString(longs[field.getSlot()]);
+            case DOUBLE:
+                return Double.toString(doubles[field.getSlot()]);
+            default:
+                return strings[field.getSlot()];
+        }
+    }
+
+    @Override
+    public String get(Object key) {
+        if(overflow != null && overflow.containsKey(key)){
+            return overflow.get(key);
+        }
+        Field field = schema.getField(key);
+        return field != null && isPresent(field.getIndex()) ? format(field) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if(overflow != null && overflow.containsKey(key)){
+            return true;
+        }
+        Field field = schema.getField(key);
+        return field != null && isPresent(field.getIndex());
+    }
+
+    @Override
+    public String put(String key, String value) {
+        String old = remove(key);
+        Field field = schema.fieldFor(key, value);
+        int slot = field.getSlot();
+        boolean stored = false;
+        if(value != null){
+            switch (field.getType()) {
+                case LONG:
+                    if(ContextSchema.fitsLong(value)){
+                        if(slot >= longs.length){
+                            longs = Arrays.copyOf(longs, schema.slotCount(FieldType.LONG));
+                        }
+                        longs[slot] = Long.parseLong(value);
+                        stored = true;
+                    }
+                    break;
+                case DOUBLE:
+                    if(ContextSchema.fitsDouble(value)){
+                        if(slot >= doubles.length){
+                            doubles = Arrays.copyOf(doubles, schema.slotCount(FieldType.DOUBLE));
+                        }
+                        doubles[slot] = Double.parseDouble(value);
+                        stored = true;
+                    }
+                    break;
+                default:
+                    if(slot >= strings.length){
+                        strings = Arrays.copyOf(strings, schema.slotCount(FieldType.STRING));
+                    }
+                    strings[slot] = schema.intern(value);
+                    stored = true;
+                    break;
+            }
+        }
+        if(stored){
+            setPresent(field.getIndex(), true);
+        }
+        else{
+            if(overflow == null){
+                overflow = new HashMap<>(4);
+            }
+            overflow.put(field.getName(), value);
+        }
+        size++;
+        return old;
+    }
+
+    @Override
+    public String remove(Object key) {
+        if(overflow != null && overflow.containsKey(key)){
+            size--;
+            return overflow.remove(key);
+        }
+        Field field = schema.getField(key);
+        if(field == null || !isPresent(field.getIndex())){
+            return null;
+        }
+        String old = format(field);
+        setPresent(field.getIndex(), false);
+        if(field.getType() == FieldType.STRING){
+            strings[field.getSlot()] = null;
+        }
+        size--;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(present, 0L);
+        Arrays.fill(strings, null);
+        overflow = null;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                final Field[] fields = schema.getFields();
+                final Iterator<Entry<String, String>> overflowIter = overflow == null ? null : overflow.entrySet().iterator();
+                return new Iterator<>() {
+                    int next = advance(0);
+
+                    private int advance(int from) {
+                        while(from < fields.length && !isPresent(from)){
+                            from++;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < fields.length || (overflowIter != null && overflowIter.hasNext());
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if(next < fields.length){
+                            Field field = fields[next];
+                            next = advance(next + 1);
+                            return new SimpleImmutableEntry<>(field.getName(), format(field));
+                        }
+                        if(overflowIter == null){
+                            throw new NoSuchElementException();
+                        }
+                        return new SimpleImmutableEntry<>(overflowIter.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import com.CC.Constraints.Runtime.VarSlots;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * keeps every (truth, links) pair in memory, for embedding and tests.
+ * grows with the run, the starters stream to a StreamingLinkSink instead.
+ */
+public class AccumulatingLinkSink implements LinkSink {
+
+    // rule_id -> [(truthValue1, linkSet1), (truthValue2,linkSet2)]
+    // a rule's entry is only written by its own check
+    private final Map<String, List<Map.Entry<Boolean, Set<Link>>>> ruleLinksMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(String rule_id, VarSlots vars, boolean truth, Set<Link> linkSet) {
+        this.ruleLinksMap.computeIfAbsent(rule_id, k -> new ArrayList<>()).add(
+                new AbstractMap.SimpleEntry<>(truth, new HashSet<>(linkSet))
+        );
+    }
+
+    public Map<String, List<Map.Entry<Boolean, Set<Link>>>> getRuleLinksMap() {
+        return ruleLinksMap;
+    }
+}
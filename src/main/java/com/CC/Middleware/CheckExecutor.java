@@ -0,0 +1,262 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Formulas.BfuncInvoker;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/*
+ * engine-wide executor shared by the concurrent checkers (ConC, INFUSE_C), GEAS_opt_c and rule-parallel schedules.
+ * ForkJoin based: a task waiting on the futures of its own sub-tasks from a worker thread helps running them,
+ * so nested ranges cannot starve the pool. the starter that creates it also shuts it down.
+ * invokeRange splits an index range of branches into ranges (RecursiveAction) that call the body per index,
+ * so callers build no task per context; ranges up to the granularity run sequentially in the caller.
+ * virtual mode is for bfuncs that block (lookup services): every index gets its own virtual thread
+ * and a semaphore bounds the bfunc calls in flight instead of the thread count.
+ */
+public final class CheckExecutor implements AutoCloseable {
+
+    public enum Mode {FORKJOIN, VIRTUAL}
+
+    public static final int DEFAULT_GRAIN = 8;
+    public static final int DEFAULT_BLOCKING_PERMITS = 256;
+
+    private static volatile CheckExecutor common;
+
+    private final Mode mode;
+    // FORKJOIN
+    private final ForkJoinPool pool;
+    // smallest range worth a pool task
+    private final int grain;
+    // VIRTUAL
+    private final ExecutorService virtualThreads;
+    private final Semaphore blockingPermits;
+    private final int permits;
+    // the common instance lives as long as the JVM
+    private final boolean owned;
+
+    // parallelism <= 0: one thread per available processor
+    public CheckExecutor(int parallelism) {
+        this(parallelism, DEFAULT_GRAIN);
+    }
+
+    // grain <= 0: DEFAULT_GRAIN
+    public CheckExecutor(int parallelism, int grain) {
+        this(new ForkJoinPool(parallelism > 0 ? parallelism : defaultParallelism()), grain, true);
+    }
+
+    private CheckExecutor(ForkJoinPool pool, int grain, boolean owned) {
+        this.mode = Mode.FORKJOIN;
+        this.pool = pool;
+        this.grain = grain > 0 ? grain : DEFAULT_GRAIN;
+        this.virtualThreads = null;
+        this.blockingPermits = null;
+        this.permits = 0;
+        this.owned = owned;
+    }
+
+    private CheckExecutor(ExecutorService virtualThreads, int permits) {
+        this.mode = Mode.VIRTUAL;
+        this.pool = null;
+        this.grain = 0;
+        this.virtualThreads = virtualThreads;
+        this.permits = permits > 0 ? permits : DEFAULT_BLOCKING_PERMITS;
+        this.blockingPermits = new Semaphore(this.permits);
+        this.owned = true;
+    }
+
+    // permits <= 0: DEFAULT_BLOCKING_PERMITS bfunc calls at once
+    public static CheckExecutor virtual(int permits) {
+        return new CheckExecutor(Executors.newVirtualThreadPerTaskExecutor(), permits);
+    }
+
+    // threads: pool size under FORKJOIN, bfunc calls in flight under VIRTUAL
+    public static CheckExecutor of(Mode mode, int threads, int grain) {
+        return mode == Mode.VIRTUAL ? virtual(threads) : new CheckExecutor(threads, grain);
+    }
+
+    public static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // for checkers built without an executor
+    public static CheckExecutor common() {
+        CheckExecutor executor = common;
+        if(executor == null){
+            synchronized (CheckExecutor.class) {
+                executor = common;
+                if(executor == null){
+                    executor = new CheckExecutor(ForkJoinPool.commonPool(), DEFAULT_GRAIN, false);
+                    common = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return mode == Mode.VIRTUAL ? virtualThreads.submit(task) : pool.submit(task);
+    }
+
+    // runs body for every index in [from, to) and returns the results in index order (index i at i - from).
+    // a failing index rethrows its exception in the caller
+    public <T> List<T> invokeRange(int from, int to, IntFunction<? extends T> body) {
+        int n = Math.max(0, to - from);
+        @SuppressWarnings("unchecked")
+        T[] results = (T[]) new Object[n];
+        if(mode == Mode.VIRTUAL){
+            // no cutoff, a blocked branch must not hold up its neighbours
+            List<Future<?>> futures = new ArrayList<>(n);
+            for(int i = from; i < to; ++i){
+                final int index = i;
+                futures.add(virtualThreads.submit(() -> results[index - from] = body.apply(index)));
+            }
+            for(Future<?> future : futures){
+                join(future);
+            }
+        }
+        else if(n <= grain){
+            for(int i = from; i < to; ++i){
+                results[i - from] = body.apply(i);
+            }
+        }
+        else{
+            // a few ranges per thread, so stealing can even out uneven branches
+            int leaf = Math.max(grain, n / (pool.getParallelism() * 4));
+            RangeTask<T> task = new RangeTask<>(body, results, from, from, to, leaf);
+            if(ForkJoinTask.getPool() == pool){
+                task.invoke();
+            }
+            else{
+                pool.invoke(task);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // invokeRange for bodies without a result
+    public void forRange(int from, int to, IntConsumer body) {
+        invokeRange(from, to, i -> {
+            body.accept(i);
+            return null;
+        });
+    }
+
+    private static void join(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RangeTask<T> extends RecursiveAction {
+        private final IntFunction<? extends T> body;
+        private final T[] results;
+        // index of results[0]
+        private final int base;
+        private final int from;
+        private final int to;
+        private final int leaf;
+
+        RangeTask(IntFunction<? extends T> body, T[] results, int base, int from, int to, int leaf) {
+            this.body = body;
+            this.results = results;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= leaf){
+                for(int i = from; i < to; ++i){
+                    results[i - base] = body.apply(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask<>(body, results, base, from, mid, leaf), new RangeTask<>(body, results, base, mid, to, leaf));
+        }
+    }
+
+    // bfunc calls go through here so that blocking ones are bounded under virtual threads
+    public boolean invokeBfunc(BfuncInvoker bfuncInvoker, String func, Map<String, Map<String, String>> vcMap) {
+        if(blockingPermits == null){
+            return bfuncInvoker.invoke(func, vcMap);
+        }
+        try {
+            blockingPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        try {
+            return bfuncInvoker.invoke(func, vcMap);
+        } finally {
+            blockingPermits.release();
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    // VIRTUAL: bfunc calls in flight
+    public int getParallelism() {
+        return mode == Mode.VIRTUAL ? permits : pool.getParallelism();
+    }
+
+    public boolean isShutdown() {
+        if(!owned){
+            return false;
+        }
+        return mode == Mode.VIRTUAL ? virtualThreads.isShutdown() : pool.isShutdown();
+    }
+
+    public void shutdown() {
+        if(owned){
+            if(mode == Mode.VIRTUAL){
+                virtualThreads.shutdown();
+            }
+            else{
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        if(owned){
+            try {
+                if(mode == Mode.VIRTUAL){
+                    virtualThreads.awaitTermination(1, TimeUnit.MINUTES);
+                }
+                else{
+                    pool.awaitTermination(1, TimeUnit.MINUTES);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.CheckExecutor;
 import com.CC.Util.NotSupportedException;
 
 import java.util.HashSet;
@@ -15,36 +16,41 @@ import java.util.Set;
 public class BASE extends ConC{
 
     public BASE(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG) {
-        super(ruleHandler, contextPool, bfunctions, isMG);
+        this(ruleHandler, contextPool, bfunctions, isMG, CheckExecutor.common());
+    }
+
+    public BASE(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG, CheckExecutor executor) {
+        super(ruleHandler, contextPool, bfunctions, isMG, executor);
         this.technique = "BASE";
     }
 
     @Override
-    public void ctxChangeCheckIMD(ContextChange contextChange) {
-        for(Rule rule : ruleHandler.getRuleMap().values()){
-            if(rule.getVarPatternMap().containsValue(contextChange.getPattern_id())){
-                //apply changes
-                contextPool.applyChange(rule.getRule_id(), contextChange);
-                rule.updateAffectedWithOneChange(contextChange, this);
-                //modify CCT
-                rule.modifyCCT_BASE(contextChange, this);
-                //truth evaluation
-                rule.truthEvaluation_BASE(contextChange, this);
-                //taint SCCT
-                Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
-                if(this.isMG){
-                    this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
-                }
-                //links generation
-                Set<Link> links = rule.linksGeneration_BASE(contextChange, this, prevSubstantialNodes);
-                if(links != null){
-                    rule.addCriticalSet(links);
-                }
-                rule.cleanAffected();
-                if(links != null){
-                    storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links);
-                }
-            }
+    public void ctxChangeCheckIMD(Rule rule, ContextChange contextChange) {
+        //apply changes
+        contextPool.applyChange(rule.getRule_id(), contextChange);
+        rule.updateAffectedWithOneChange(contextChange, this);
+        //modify CCT
+        rule.modifyCCT_BASE(contextChange, this);
+        //truth evaluation
+        rule.truthEvaluation_BASE(contextChange, this);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            rule.cleanAffected();
+            return;
+        }
+        //taint SCCT
+        Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
+        if(this.isMG){
+            this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
+        }
+        //links generation
+        Set<Link> links = rule.linksGeneration_BASE(contextChange, this, prevSubstantialNodes);
+        if(links != null){
+            rule.addCriticalSet(links);
+        }
+        rule.cleanAffected();
+        if(links != null){
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
         }
     }
 
@@ -1,41 +1,91 @@
 package com.CC.Middleware.Checkers;
 
+import com.CC.Constraints.Formulas.BfuncInvoker;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.AccumulatingLinkSink;
+import com.CC.Middleware.CheckExecutor;
+import com.CC.Middleware.LinkSink;
 import com.CC.Util.NotSupportedException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class Checker {
     protected RuleHandler ruleHandler;
     protected ContextPool contextPool;
     protected String technique;
     protected Object bfuncInstance;
+    // bfunc resolved once, shared by all FBfunc nodes
+    protected final BfuncInvoker bfuncInvoker;
+    // shared with the scheduler, owned by whoever built the checker
+    protected final CheckExecutor executor;
     // for MG
     protected boolean isMG;
     protected final Map<String, Set<RuntimeNode>> substantialNodes;
 
-    // rule_id -> [(truthValue1, linkSet1), (truthValue2,linkSet2)]
-    protected final Map<String, List<Map.Entry<Boolean, Set<Link>>>> ruleLinksMap;
+    // every check's links go here as they are produced, in memory unless the starter streams them
+    protected LinkSink linkSink;
+    // lazy links: a check whose root truth did not flip only marks its rule stale,
+    // links are generated when the truth flips or on materializeLinks(), so a violation that
+    // comes and goes while the rule's truth stays the same is never reported
+    protected boolean lazyLinks = false;
 
     public Checker(RuleHandler ruleHandler, ContextPool contextPool, Object bfuncInstance, boolean isMG) {
+        this(ruleHandler, contextPool, bfuncInstance, isMG, CheckExecutor.common());
+    }
+
+    public Checker(RuleHandler ruleHandler, ContextPool contextPool, Object bfuncInstance, boolean isMG, CheckExecutor executor) {
         this.ruleHandler = ruleHandler;
         this.contextPool = contextPool;
-        this.bfuncInstance = bfuncInstance;
+        this.bfuncInvoker = BfuncInvoker.bind(bfuncInstance);
+        this.bfuncInstance = this.bfuncInvoker.getBfuncInstance();
         this.isMG = isMG;
-        this.substantialNodes = new HashMap<>();
-        this.ruleLinksMap = new HashMap<>();
+        this.executor = executor;
+        this.substantialNodes = new ConcurrentHashMap<>();
+        this.linkSink = new AccumulatingLinkSink();
+    }
+
+    protected void storeLink(Rule rule, boolean truth, Set<Link> linkSet){
+        this.linkSink.accept(rule.getRule_id(), rule.getVarSlots(), truth, linkSet);
+    }
+
+    protected void deferLinks(Rule rule){
+        Boolean linksTruth = rule.getLinksTruth();
+        if(linksTruth == null || linksTruth != rule.getCCTRoot().isTruth()){
+            emitLinks(rule);
+        }
+        else{
+            rule.setLinksStale(true);
+        }
     }
 
-    protected void storeLink(String rule_id, boolean truth, Set<Link> linkSet){
-        this.ruleLinksMap.computeIfAbsent(rule_id, k -> new ArrayList<>());
-        Objects.requireNonNull(this.ruleLinksMap.computeIfPresent(rule_id, (k, v) -> v)).add(
-                new AbstractMap.SimpleEntry<>(truth, linkSet)
-        );
+    // ECC generation from the retained CCT, memoized per node: only subtrees changed since the
+    // last generation are recomputed (the incremental generators expect the links of every check)
+    private void emitLinks(Rule rule){
+        Set<Link> links = rule.linksGeneration_ECC(this, Collections.emptySet());
+        rule.setLinksTruth(rule.getCCTRoot().isTruth());
+        rule.setLinksStale(false);
+        if(links != null){
+            rule.addCriticalSet(links);
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
+        }
+    }
+
+    // lazy links: the links of every rule checked since its last emission, no rule may be in checking
+    public void materializeLinks(){
+        if(!this.lazyLinks){
+            return;
+        }
+        for(Rule rule : ruleHandler.getRuleMap().values()){
+            if(rule.isLinksStale()){
+                emitLinks(rule);
+            }
+        }
     }
 
     public void checkInit(){
@@ -49,7 +99,15 @@ public abstract class Checker {
             rule.linksGeneration_ECC(this, prevSubstantialNodes);
         }
     }
-    public abstract void ctxChangeCheckIMD(ContextChange contextChange);
+    public void ctxChangeCheckIMD(ContextChange contextChange){
+        for(Rule rule : ruleHandler.getRuleMap().values()){
+            if(rule.getVarPatternMap().containsValue(contextChange.getPattern_id())){
+                ctxChangeCheckIMD(rule, contextChange);
+            }
+        }
+    }
+    // one rule touched by the change, independent of the other rules
+    public abstract void ctxChangeCheckIMD(Rule rule, ContextChange contextChange);
     public abstract void ctxChangeCheckBatch(Rule rule, List<ContextChange> batch) throws NotSupportedException;
 
 
@@ -69,8 +127,28 @@ public abstract class Checker {
         return bfuncInstance;
     }
 
-    public Map<String, List<Map.Entry<Boolean, Set<Link>>>> getRuleLinksMap() {
-        return ruleLinksMap;
+    public BfuncInvoker getBfuncInvoker() {
+        return bfuncInvoker;
+    }
+
+    public CheckExecutor getExecutor() {
+        return executor;
+    }
+
+    public LinkSink getLinkSink() {
+        return linkSink;
+    }
+
+    public void setLinkSink(LinkSink linkSink) {
+        this.linkSink = linkSink;
+    }
+
+    public boolean isLazyLinks() {
+        return lazyLinks;
+    }
+
+    public void setLazyLinks(boolean lazyLinks) {
+        this.lazyLinks = lazyLinks;
     }
 
     public Map<String, Set<RuntimeNode>> getSubstantialNodes() {
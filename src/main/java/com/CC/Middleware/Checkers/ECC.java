@@ -6,6 +6,7 @@ import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.CheckExecutor;
 
 import java.util.HashSet;
 import java.util.List;
@@ -14,32 +15,36 @@ import java.util.Set;
 public class ECC extends Checker{
 
     public ECC(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG) {
-        super(ruleHandler, contextPool, bfunctions, isMG);
+        this(ruleHandler, contextPool, bfunctions, isMG, CheckExecutor.common());
+    }
+
+    public ECC(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG, CheckExecutor executor) {
+        super(ruleHandler, contextPool, bfunctions, isMG, executor);
         this.technique = "ECC";
     }
 
     @Override
-    public void ctxChangeCheckIMD(ContextChange contextChange) {
+    public void ctxChangeCheckIMD(Rule rule, ContextChange contextChange) {
         //consistency checking
-        for(Rule rule : this.ruleHandler.getRuleMap().values()){
-            if (rule.getVarPatternMap().containsValue(contextChange.getPattern_id())){
-                //apply change
-                contextPool.applyChange(rule.getRule_id(), contextChange);
-                //build CCT
-                rule.buildCCT_ECCPCC(this);
-                //truth value evaluation
-                rule.truthEvaluation_ECC(this);
-                //taint SCCT
-                Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
-                if(this.isMG){
-                    this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
-                }
-                //links generation
-                Set<Link> links = rule.linksGeneration_ECC(this, prevSubstantialNodes);
-                if(links != null){
-                    storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links);
-                }
-            }
+        //apply change
+        contextPool.applyChange(rule.getRule_id(), contextChange);
+        //build CCT
+        rule.buildCCT_ECCPCC(this);
+        //truth value evaluation
+        rule.truthEvaluation_ECC(this);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            return;
+        }
+        //taint SCCT
+        Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
+        if(this.isMG){
+            this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
+        }
+        //links generation
+        Set<Link> links = rule.linksGeneration_ECC(this, prevSubstantialNodes);
+        if(links != null){
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
         }
     }
 
@@ -53,6 +58,10 @@ public class ECC extends Checker{
         rule.buildCCT_ECCPCC(this);
         //truth value evaluation
         rule.truthEvaluation_ECC(this);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            return;
+        }
         //taint SCCT
         Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
         if(this.isMG){
@@ -64,7 +73,7 @@ public class ECC extends Checker{
             rule.addCriticalSet(links);
         }
         if(links != null){
-            storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links);
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
         }
     }
 }
@@ -7,157 +7,41 @@ import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
 import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
+import com.CC.Constraints.Runtime.VarEnv;
 import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.CheckExecutor;
 import com.CC.Util.NotSupportedException;
 
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class INFUSE_C extends Checker{
-    public final ExecutorService ThreadPool;
-
     public INFUSE_C(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG) {
-        super(ruleHandler, contextPool, bfunctions, isMG);
-        ThreadPool = Executors.newFixedThreadPool(13);
-        this.technique = "CPCC_NB";
-    }
-
-    public static class CreateBranchesTask_INFUSE implements Callable<RuntimeNode> {
-        Rule rule;
-        int depth;
-        HashMap<String, Context> varEnv;
-        Context context;
-        Formula originFormula;//父结点的formula
-        Checker checker;
-
-        public CreateBranchesTask_INFUSE(Rule rule, int depth, HashMap<String, Context> varEnv,
-                                         Context context, Formula originFormula, Checker checker){
-            this.rule = rule;
-            this.depth = depth;
-            this.varEnv = varEnv;
-            this.context = context;
-            this.originFormula = originFormula;
-            this.checker = checker;
-        }
-
-        @Override
-        public RuntimeNode call() {
-            RuntimeNode returnNode;
-            if(originFormula.getFormula_type() == Formula.Formula_Type.EXISTS){
-                returnNode = new RuntimeNode(((FExists)originFormula).getSubformula());
-                returnNode.setDepth(this.depth + 1);
-                returnNode.getVarEnv().putAll(this.varEnv);
-                returnNode.getVarEnv().put(((FExists)originFormula).getVar(), context);
-                returnNode.getFormula().createBranches_INFUSE(rule, returnNode, ((FExists)originFormula).getSubformula(), checker);
-            }
-            else{
-                returnNode = new RuntimeNode(((FForall)originFormula).getSubformula());
-                returnNode.setDepth(this.depth + 1);
-                returnNode.getVarEnv().putAll(this.varEnv);
-                returnNode.getVarEnv().put(((FForall)originFormula).getVar(), context);
-                returnNode.getFormula().createBranches_INFUSE(rule, returnNode, ((FForall)originFormula).getSubformula(), checker);
-            }
-            return returnNode;
-        }
-    }
-
-    public static class ModifyBranchTask_INFUSE implements Callable<Void>{
-        Rule rule;
-        RuntimeNode curNode;
-        Formula originFormula;//curNode的formula
-        Checker checker;
-
-        public ModifyBranchTask_INFUSE(Rule rule, RuntimeNode curNode, Formula originFormula, Checker checker){
-            this.rule = rule;
-            this.curNode = curNode;
-            this.originFormula = originFormula;
-            this.checker = checker;
-        }
-
-        @Override
-        public Void call(){
-            curNode.getFormula().modifyBranch_INFUSE(rule, curNode, originFormula, checker);
-            return null;
-        }
-
-    }
-
-    public static class TruthEvaluationTaskCom_INFUSE implements Callable<Boolean>{
-        RuntimeNode curNode;
-        Formula originFormula;
-        Checker checker;
-
-        public TruthEvaluationTaskCom_INFUSE(RuntimeNode curNode, Formula originFormula, Checker checker){
-            this.curNode = curNode;
-            this.originFormula = originFormula;
-            this.checker = checker;
-        }
-
-        @Override
-        public Boolean call() {
-            //must new
-            return curNode.getFormula().truthEvaluationCom_INFUSE(curNode, originFormula, checker);
-        }
+        this(ruleHandler, contextPool, bfunctions, isMG, CheckExecutor.common());
     }
 
-    public static class TruthEvaluationTaskPar_INFUSE implements Callable<Boolean>{
-        RuntimeNode curNode;
-        Formula originFormula;
-        Checker checker;
-
-        public TruthEvaluationTaskPar_INFUSE(RuntimeNode curNode, Formula originFormula, Checker checker){
-            this.curNode = curNode;
-            this.originFormula = originFormula;
-            this.checker = checker;
-        }
-
-        @Override
-        public Boolean call() {
-            //must new
-            return curNode.getFormula().truthEvaluationPar_INFUSE(curNode, originFormula, checker);
-        }
-    }
-
-    public static class LinksGenerationTaskCom_INFUSE implements Callable<Set<Link>>{
-        RuntimeNode curNode;
-        Formula originFormula;
-        final Set<RuntimeNode> prevSubstantialNodes;
-        Checker checker;
-
-        public LinksGenerationTaskCom_INFUSE(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker){
-            this.curNode = curNode;
-            this.originFormula = originFormula;
-            this.prevSubstantialNodes = prevSubstantialNodes;
-            this.checker = checker;
-        }
-
-        @Override
-        public Set<Link> call() {
-            return curNode.getFormula().linksGeneration_ECC(curNode, originFormula, prevSubstantialNodes, checker);
-        }
+    public INFUSE_C(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG, CheckExecutor executor) {
+        super(ruleHandler, contextPool, bfunctions, isMG, executor);
+        this.technique = "CPCC_NB";
     }
 
-    public static class LinksGenerationTaskPar_INFUSE implements Callable<Set<Link>>{
-        RuntimeNode curNode;
-        Formula originFormula;
-        final Set<RuntimeNode> prevSubstantialNodes;
-        Checker checker;
-
-        public LinksGenerationTaskPar_INFUSE(RuntimeNode curNode, Formula originFormula, final Set<RuntimeNode> prevSubstantialNodes, Checker checker){
-            this.curNode = curNode;
-            this.originFormula = originFormula;
-            this.prevSubstantialNodes = prevSubstantialNodes;
-            this.checker = checker;
-        }
-
-        @Override
-        public Set<Link> call() {
-            return curNode.getFormula().linksGeneration_INFUSE(curNode, originFormula, prevSubstantialNodes, checker);
-        }
+    // one branch of a concurrent createBranches, originFormula is the quantifier of the parent node
+    public static RuntimeNode createBranch(Rule rule, int depth, VarEnv varEnv, Context context, Formula originFormula, Checker checker) {
+        RuntimeNode returnNode;
+        if(originFormula.getFormula_type() == Formula.Formula_Type.EXISTS){
+            returnNode = new RuntimeNode(((FExists)originFormula).getSubformula());
+            returnNode.setDepth(depth + 1);
+            returnNode.setVarEnv(varEnv.bind(((FExists)originFormula).getSlot(), context));
+            returnNode.getFormula().createBranches_INFUSE(rule, returnNode, ((FExists)originFormula).getSubformula(), checker);
+        }
+        else{
+            returnNode = new RuntimeNode(((FForall)originFormula).getSubformula());
+            returnNode.setDepth(depth + 1);
+            returnNode.setVarEnv(varEnv.bind(((FForall)originFormula).getSlot(), context));
+            returnNode.getFormula().createBranches_INFUSE(rule, returnNode, ((FForall)originFormula).getSubformula(), checker);
+        }
+        return returnNode;
     }
 
     @Override
@@ -184,6 +68,11 @@ public class INFUSE_C extends Checker{
 
         rule.modifyCCT_INFUSE(this);
         rule.truthEvaluation_INFUSE(this, false);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            rule.cleanAffectedAndCanConcurrent();
+            return;
+        }
         //taint SCCT
         Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
         if(this.isMG){
@@ -195,38 +84,39 @@ public class INFUSE_C extends Checker{
         }
         rule.cleanAffectedAndCanConcurrent();
         if(links2 != null){
-            storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links2);
+            storeLink(rule, rule.getCCTRoot().isTruth(), links2);
         }
     }
 
     @Override
-    public void ctxChangeCheckIMD(ContextChange contextChange) {
-        for(Rule rule : ruleHandler.getRuleMap().values()) {
-            if (rule.getVarPatternMap().containsValue(contextChange.getPattern_id())) {
-                List<ContextChange> batch = new ArrayList<>();
-                batch.add(contextChange);
+    public void ctxChangeCheckIMD(Rule rule, ContextChange contextChange) {
+        List<ContextChange> batch = new ArrayList<>();
+        batch.add(contextChange);
 
-                contextPool.applyChanges(rule, batch);
-                rule.updateAffectedWithChanges(this);
-                rule.updateCanConcurrent_INFUSE(this);
+        contextPool.applyChanges(rule, batch);
+        rule.updateAffectedWithChanges(this);
+        rule.updateCanConcurrent_INFUSE(this);
 
-                rule.modifyCCT_INFUSE(this);
-                rule.truthEvaluation_INFUSE(this,false);
-                //taint SCCT
-                Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
-                if(this.isMG){
-                    this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
-                }
-                Set<Link> links2 = rule.linksGeneration_INFUSE(this, prevSubstantialNodes);
-                if (links2 != null) {
-                    rule.addCriticalSet(links2);
-                   // rule.oracleCount(links2, contextChange);
-                }
-                rule.cleanAffectedAndCanConcurrent();
-                if(links2 != null){
-                    storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links2);
-                }
-            }
+        rule.modifyCCT_INFUSE(this);
+        rule.truthEvaluation_INFUSE(this,false);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            rule.cleanAffectedAndCanConcurrent();
+            return;
+        }
+        //taint SCCT
+        Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
+        if(this.isMG){
+            this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
+        }
+        Set<Link> links2 = rule.linksGeneration_INFUSE(this, prevSubstantialNodes);
+        if (links2 != null) {
+            rule.addCriticalSet(links2);
+           // rule.oracleCount(links2, contextChange);
+        }
+        rule.cleanAffectedAndCanConcurrent();
+        if(links2 != null){
+            storeLink(rule, rule.getCCTRoot().isTruth(), links2);
         }
     }
 }
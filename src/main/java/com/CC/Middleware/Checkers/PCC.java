@@ -6,6 +6,8 @@ import com.CC.Constraints.Runtime.Link;
 import com.CC.Constraints.Runtime.RuntimeNode;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
+import com.CC.Contexts.PoolDelta;
+import com.CC.Middleware.CheckExecutor;
 
 import java.util.HashSet;
 import java.util.List;
@@ -14,56 +16,63 @@ import java.util.Set;
 public class PCC extends Checker{
 
     public PCC(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG) {
-        super(ruleHandler, contextPool, bfunctions, isMG);
+        this(ruleHandler, contextPool, bfunctions, isMG, CheckExecutor.common());
+    }
+
+    public PCC(RuleHandler ruleHandler, ContextPool contextPool, Object bfunctions, boolean isMG, CheckExecutor executor) {
+        super(ruleHandler, contextPool, bfunctions, isMG, executor);
         this.technique = "PCC";
     }
 
     @Override
-    public void ctxChangeCheckIMD(ContextChange contextChange) {
+    public void ctxChangeCheckIMD(Rule rule, ContextChange contextChange) {
         //consistency checking
-        for(Rule rule : ruleHandler.getRuleMap().values()){
-            if(rule.getVarPatternMap().containsValue(contextChange.getPattern_id())){
-                //apply changes
-                contextPool.applyChange(rule.getRule_id(), contextChange);
-                rule.updateAffectedWithOneChange(contextChange, this);
+        //apply changes
+        contextPool.applyChange(rule.getRule_id(), contextChange);
+        rule.updateAffectedWithOneChange(contextChange, this);
 
-                rule.modifyCCT_PCC(contextChange, this);
-                //truth evaluation
-                rule.truthEvaluation_PCC(contextChange, this);
-                //taint SCCT
-                Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
-                if(this.isMG){
-                    this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
-                }
-                //links generation
-                Set<Link> links = rule.linksGeneration_PCC(contextChange, this, prevSubstantialNodes);
-                if(links != null){
-                    rule.addCriticalSet(links);
-                    //rule.oracleCount(links, contextChange);
-                }
-                rule.cleanAffected();
-                if(links != null){
-                    storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links);
-                }
-            }
+        rule.modifyCCT_PCC(contextChange, this);
+        //truth evaluation
+        rule.truthEvaluation_PCC(contextChange, this);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            rule.cleanAffected();
+            return;
+        }
+        //taint SCCT
+        Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
+        if(this.isMG){
+            this.substantialNodes.put(rule.getRule_id(), rule.taintSCCT());
+        }
+        //links generation
+        Set<Link> links = rule.linksGeneration_PCC(contextChange, this, prevSubstantialNodes);
+        if(links != null){
+            rule.addCriticalSet(links);
+            //rule.oracleCount(links, contextChange);
+        }
+        rule.cleanAffected();
+        if(links != null){
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
         }
     }
 
     @Override
     public void ctxChangeCheckBatch(Rule rule, List<ContextChange> batch) {
         //rule.intoFile(batch);
-        //clean
-        for(String pattern_id : rule.getVarPatternMap().values()){
-            contextPool.getAddSet(pattern_id).clear();
-            contextPool.getDelSet(pattern_id).clear();
-            contextPool.getUpdSet(pattern_id).clear();
-        }
+        PoolDelta.Builder delta = new PoolDelta.Builder();
         for(ContextChange contextChange : batch){
-            contextPool.applyChangeWithSets(rule.getRule_id(), contextChange);
+            contextPool.applyChange(rule.getRule_id(), contextChange);
+            delta.apply(contextChange);
             rule.modifyCCT_PCCM(contextChange, this);
         }
+        contextPool.setDelta(rule.getRule_id(), delta.build());
         rule.updateAffectedWithChanges(this);
         rule.truthEvaluation_PCCM(this);
+        if(this.lazyLinks){
+            deferLinks(rule);
+            rule.cleanAffected();
+            return;
+        }
         //taint SCCT
         Set<RuntimeNode> prevSubstantialNodes = this.substantialNodes.getOrDefault(rule.getRule_id(),  new HashSet<>());
         if(this.isMG){
@@ -75,7 +84,7 @@ public class PCC extends Checker{
         }
         rule.cleanAffected();
         if(links != null){
-            storeLink(rule.getRule_id(), rule.getCCTRoot().isTruth(), links);
+            storeLink(rule, rule.getCCTRoot().isTruth(), links);
         }
     }
 
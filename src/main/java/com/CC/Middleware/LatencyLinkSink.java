@@ -0,0 +1,77 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import com.CC.Constraints.Runtime.VarSlots;
+import com.CC.Util.LatencyHistogram;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * passes links on to the run's sink and records the detection delay of the inconsistencies (violated links) among them.
+ * the delay of a link is taken from the start of the batch check that reports it (the arrival of its oldest change)
+ * to the report, so it is an upper bound for links caused by later changes of the batch.
+ * a link only counts when it is not among the last dedupWindow reported ones, checks report standing links again.
+ */
+public class LatencyLinkSink implements LinkSink {
+
+    private final LinkSink sink;
+    // rule_id -> batch start of the rule in checking, a rule's entry is only written by its own check
+    private final Map<String, Long> checking = new ConcurrentHashMap<>();
+    // guarded by this
+    private final Map<Map.Entry<String, Link>, Boolean> window;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public LatencyLinkSink(LinkSink sink, int dedupWindow) {
+        this.sink = sink;
+        int capacity = dedupWindow > 0 ? dedupWindow : StreamingLinkSink.DEFAULT_DEDUP_WINDOW;
+        this.window = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Map.Entry<String, Link>, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // start: the batch start on the same clock as now in accept
+    public void beginCheck(String rule_id, long start) {
+        checking.put(rule_id, start);
+    }
+
+    public void endCheck(String rule_id) {
+        checking.remove(rule_id);
+    }
+
+    @Override
+    public void accept(String rule_id, VarSlots vars, boolean truth, Set<Link> linkSet) {
+        sink.accept(rule_id, vars, truth, linkSet);
+        Long start = checking.get(rule_id);
+        if(truth || start == null || linkSet.isEmpty()){
+            return;
+        }
+        long delay = System.nanoTime() - start;
+        synchronized (this){
+            for(Link link : linkSet){
+                if(window.put(new AbstractMap.SimpleImmutableEntry<>(rule_id, link), Boolean.TRUE) == null){
+                    histogram.record(delay);
+                }
+            }
+        }
+    }
+
+    public synchronized LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    // one line: count and delay percentiles in milliseconds
+    public synchronized String report() {
+        return String.format("%d inconsistencies detected, delay p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms, mean %.3f ms",
+                histogram.getCount(), histogram.quantile(0.5) / 1e6, histogram.quantile(0.9) / 1e6,
+                histogram.quantile(0.99) / 1e6, histogram.getMax() / 1e6, histogram.getMean() / 1e6);
+    }
+
+    @Override
+    public void close() {
+        sink.close();
+    }
+}
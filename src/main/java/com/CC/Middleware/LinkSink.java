@@ -0,0 +1,41 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import com.CC.Constraints.Runtime.VarSlots;
+
+import java.util.Set;
+
+/*
+ * receives the links of every rule check as the checker produces them.
+ * called from concurrent rule checks, implementations must be thread-safe; the sink must not keep linkSet,
+ * checkers may reuse it.
+ */
+public interface LinkSink extends AutoCloseable {
+
+    // vars: the rule's variable slots, to name the variables of the links
+    void accept(String rule_id, VarSlots vars, boolean truth, Set<Link> linkSet);
+
+    @Override
+    default void close() {}
+
+    // incs line: rule_id(VIOLATED,{(v1,id),(v2,id)}), "ctx_N" ids counted from 1, other ctx_ids as they are
+    static String format(String rule_id, VarSlots vars, boolean truth, Link link) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(rule_id).append('(');
+        builder.append(truth ? Link.Link_Type.SATISFIED.name() : Link.Link_Type.VIOLATED.name()).append(",{");
+        for(int i = 0; i < link.size(); ++i){
+            String foreignId = link.getForeignId(i);
+            builder.append("(").append(link.getVar(i, vars)).append(",");
+            if(foreignId != null){
+                builder.append(foreignId);
+            }
+            else{
+                builder.append(link.getContextId(i) + 1);
+            }
+            builder.append("),");
+        }
+        builder.deleteCharAt(builder.length() - 1);
+        builder.append("})");
+        return builder.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.CC.Middleware.Schedulers;
+
+import com.CC.Constraints.Rules.Rule;
+import com.CC.Contexts.ContextChange;
+import com.CC.Middleware.LatencyLinkSink;
+
+import java.util.List;
+
+/*
+ * bound on a rule's open batch for the batching schedules (GEAS_*, INFUSE_S): besides an S-condition or risk match,
+ * a batch is closed when it already holds maxSize changes or its oldest change is maxAge old,
+ * in event time (record timestamps, rawData only) or wall time (arrival at the scheduler).
+ * the size is tested when the next change of the rule arrives, that change then opens the next batch.
+ * the age of every open batch is tested on each change and, in wall time, while the online receiver waits for data.
+ * detection delays of the closed batches go to the latency sink.
+ */
+public class BatchBound {
+
+    public enum Clock {EVENT, WALL}
+
+    // <= 0: no size cap
+    private final int maxSize;
+    // millis, <= 0: no age cap
+    private final long maxAge;
+    private final Clock clock;
+    private final LatencyLinkSink latencySink;
+
+    // latest record timestamp seen, event time only advances with the changes
+    private long latestEvent = 0;
+
+    public BatchBound(int maxSize, long maxAge, Clock clock, LatencyLinkSink latencySink) {
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.clock = clock;
+        this.latencySink = latencySink;
+    }
+
+    public void arrive(ContextChange contextChange) {
+        contextChange.setArrival(System.nanoTime());
+        latestEvent = Math.max(latestEvent, contextChange.getTimestamp());
+    }
+
+    // whether the rule's batch has to be checked before the next change can join it
+    public boolean isFull(Rule rule) {
+        List<ContextChange> batch = rule.getBatch();
+        return maxSize > 0 && batch != null && batch.size() >= maxSize;
+    }
+
+    // whether the oldest change of the rule's batch has reached the age bound
+    public boolean isAged(Rule rule) {
+        List<ContextChange> batch = rule.getBatch();
+        if(maxAge <= 0 || batch == null || batch.isEmpty()){
+            return false;
+        }
+        ContextChange oldest = batch.get(0);
+        if(clock == Clock.EVENT){
+            return oldest.getTimestamp() != 0 && latestEvent - oldest.getTimestamp() >= maxAge;
+        }
+        return System.nanoTime() - oldest.getArrival() >= maxAge * 1_000_000L;
+    }
+
+    // millis between age tests while no change arrives, a quiet batch is closed at most half the bound late.
+    // 0: event time does not advance without changes
+    public long getFlushInterval() {
+        return clock == Clock.WALL && maxAge > 0 ? Math.max(1, maxAge / 2) : 0;
+    }
+
+    public void beginCheck(Rule rule, List<ContextChange> batch) {
+        if(!batch.isEmpty()){
+            latencySink.beginCheck(rule.getRule_id(), batch.get(0).getArrival());
+        }
+    }
+
+    public void endCheck(Rule rule) {
+        latencySink.endCheck(rule.getRule_id());
+    }
+
+    public LatencyLinkSink getLatencySink() {
+        return latencySink;
+    }
+}
@@ -1,38 +1,30 @@
 package com.CC.Middleware.Schedulers;
 
-import com.CC.Constraints.Formulas.Formula;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
-import com.CC.Constraints.Runtime.RuntimeNode;
 import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
 import com.CC.Middleware.Checkers.Checker;
-import com.CC.Util.NotSupportedException;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class GEAS_opt_c extends GEAS_ori{
-    public final ExecutorService ThreadPool;
-
     public GEAS_opt_c(RuleHandler ruleHandler, ContextPool contextPool, Checker checker) {
         super(ruleHandler, contextPool, checker);
-        this.ThreadPool = Executors.newFixedThreadPool(13);
         this.strategy = "GEAS_opt_c";
     }
 
 
     @Override
     public void doSchedule(ContextChange contextChange) throws Exception {
+        arrive(contextChange);
         batchFormAndRefineConcurrent(contextChange);
         for(Rule rule : ruleHandler.getRuleMap().values()){
             if(rule.getNewBatch() != null){
-                this.checker.ctxChangeCheckBatch(rule, rule.getBatch());
+                checkBatch(rule, rule.getBatch());
                 rule.setBatch(rule.getNewBatch());
                 rule.setNewBatch(null);
             }
@@ -44,7 +36,7 @@ public class GEAS_opt_c extends GEAS_ori{
             if(!rule.getVarPatternMap().containsValue(newChange.getPattern_id()))
                 continue;
 
-            if(sConditionMatch(rule, newChange)){
+            if(batchFull(rule) || sConditionMatch(rule, newChange)){
                 List<ContextChange> newBatch = new ArrayList<>();
                 newBatch.add(newChange);
                 rule.setNewBatch(newBatch);
@@ -53,7 +45,7 @@ public class GEAS_opt_c extends GEAS_ori{
                 ContextChange oriChange = cConditionExamineConcurrent(rule, newChange);
                 if(oriChange == null){
                     if(rule.getBatch() != null){
-                        rule.getBatch().add(newChange);
+                        rule.addToBatch(newChange);
                     }
                     else{
                         List<ContextChange> batch = new ArrayList<>();
@@ -63,7 +55,7 @@ public class GEAS_opt_c extends GEAS_ori{
                 }
                 else{
                     //此时一定有batch
-                    rule.getBatch().remove(oriChange);
+                    rule.removeFromBatch(oriChange);
                     simpleUpdating(rule, oriChange, newChange);
                 }
             }
@@ -90,7 +82,7 @@ public class GEAS_opt_c extends GEAS_ori{
             }
 
             long oldTime = System.nanoTime();
-            if(rule.inCriticalSet(chg.getContext().getCtx_id()) || rule.inCriticalSet(newChange.getContext().getCtx_id())){
+            if(rule.inCriticalSet(chg.getContext().getId()) || rule.inCriticalSet(newChange.getContext().getId())){
                 continue;
             }
 
@@ -126,27 +118,6 @@ public class GEAS_opt_c extends GEAS_ori{
             return false;
         return rule.getCCTRoot().getFormula().evaluationAndEqualSideEffect(rule.getCCTRoot(), rule.getFormula(), null, delChange, addChange, true, this);
     }
-    //并发版本EvaluationAndEqualSideEffect
-    public static class evaluationAndEqualSideEffectCon implements Callable<Boolean> {
-        RuntimeNode curNode;
-        Formula formula;
-        ContextChange delChange;
-        ContextChange addChange;
-        Scheduler scheduler;
-
-        public evaluationAndEqualSideEffectCon(RuntimeNode curNode, Formula formula, ContextChange delChange, ContextChange addChange, Scheduler scheduler) {
-            this.curNode = curNode;
-            this.formula = formula;
-            this.delChange = delChange;
-            this.addChange = addChange;
-            this.scheduler = scheduler;
-        }
-
-        @Override
-        public Boolean call() {
-            return curNode.getFormula().evaluationAndEqualSideEffect(curNode, formula, null, delChange, addChange, false, scheduler);
-        }
-    }
 
     private void sideEffectResolutionConcurrent(Rule rule, ContextChange chg1, ContextChange chg2){
         assert chg1.getPattern_id().equals(chg2.getPattern_id());
@@ -154,33 +125,4 @@ public class GEAS_opt_c extends GEAS_ori{
         ContextChange addChange = chg1.getChange_type() == ContextChange.Change_Type.ADDITION ? chg1 : chg2;
         rule.getCCTRoot().getFormula().sideeffectresolution(rule.getCCTRoot(), rule.getFormula(), null, delChange, addChange, true, this);
     }
-    //并发版本sideEffectResolution
-    public static class sideEffectResolutionCon implements Callable<Void>{
-        RuntimeNode curNode;
-        Formula formula;
-        ContextChange delChange;
-        ContextChange addChange;
-        Scheduler scheduler;
-
-        public sideEffectResolutionCon(RuntimeNode curNode, Formula formula, ContextChange delChange, ContextChange addChange, Scheduler scheduler) {
-            this.curNode = curNode;
-            this.formula = formula;
-            this.delChange = delChange;
-            this.addChange = addChange;
-            this.scheduler = scheduler;
-        }
-
-        @Override
-        public Void call() {
-            curNode.getFormula().sideeffectresolution(curNode, formula, null, delChange, addChange, false, scheduler);
-            return null;
-        }
-    }
-
-    @Override
-    public void checkEnds() throws NotSupportedException {
-        super.checkEnds();
-        this.ThreadPool.shutdown();
-    }
-
 }
@@ -21,10 +21,11 @@ public class GEAS_opt_s extends GEAS_ori{
 
     @Override
     public void doSchedule(ContextChange contextChange) throws Exception {
+        arrive(contextChange);
         batchFormAndRefineSerial(contextChange);
         for(Rule rule : ruleHandler.getRuleMap().values()){
             if(rule.getNewBatch() != null){
-                this.checker.ctxChangeCheckBatch(rule, rule.getBatch());
+                checkBatch(rule, rule.getBatch());
                 rule.setBatch(rule.getNewBatch());
                 rule.setNewBatch(null);
             }
@@ -36,7 +37,7 @@ public class GEAS_opt_s extends GEAS_ori{
             if(!rule.getVarPatternMap().containsValue(newChange.getPattern_id()))
                 continue;
 
-            if(sConditionMatch(rule, newChange)){
+            if(batchFull(rule) || sConditionMatch(rule, newChange)){
                 List<ContextChange> newBatch = new ArrayList<>();
                 newBatch.add(newChange);
                 rule.setNewBatch(newBatch);
@@ -45,7 +46,7 @@ public class GEAS_opt_s extends GEAS_ori{
                 ContextChange oriChange = cConditionExamineSerial(rule, newChange);
                 if(oriChange == null){
                     if(rule.getBatch() != null){
-                        rule.getBatch().add(newChange);
+                        rule.addToBatch(newChange);
                     }
                     else{
                         List<ContextChange> batch = new ArrayList<>();
@@ -55,7 +56,7 @@ public class GEAS_opt_s extends GEAS_ori{
                 }
                 else{
                     //此时一定有batch
-                    rule.getBatch().remove(oriChange);
+                    rule.removeFromBatch(oriChange);
                     simpleUpdating(rule, oriChange, newChange);
                 }
             }
@@ -81,7 +82,7 @@ public class GEAS_opt_s extends GEAS_ori{
                 continue;
             }
 
-            if(rule.inCriticalSet(chg.getContext().getCtx_id()) || rule.inCriticalSet(newChange.getContext().getCtx_id())){
+            if(rule.inCriticalSet(chg.getContext().getId()) || rule.inCriticalSet(newChange.getContext().getId())){
                 continue;
             }
             //examine part2 - sideEffect
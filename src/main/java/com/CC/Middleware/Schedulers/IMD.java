@@ -1,12 +1,14 @@
 package com.CC.Middleware.Schedulers;
 
 
+import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
 import com.CC.Middleware.Checkers.Checker;
-import com.CC.Middleware.Checkers.INFUSE_C;
-import com.CC.Middleware.Checkers.ConC;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class IMD extends Scheduler{
@@ -19,23 +21,22 @@ public class IMD extends Scheduler{
 
     @Override
     public void doSchedule(ContextChange contextChange) throws Exception {
-        this.checker.ctxChangeCheckIMD(contextChange);
+        if(!isRuleParallel()){
+            this.checker.ctxChangeCheckIMD(contextChange);
+            return;
+        }
+        List<Rule> rules = new ArrayList<>();
+        for(Rule rule : ruleHandler.getRuleMap().values()){
+            if(rule.getVarPatternMap().containsValue(contextChange.getPattern_id())){
+                rules.add(rule);
+            }
+        }
+        checkRules(rules, rule -> this.checker.ctxChangeCheckIMD(rule, contextChange));
     }
 
     @Override
     public void checkEnds() throws Exception {
-        switch (this.checker.getTechnique()) {
-            case "ConC":
-                ((ConC) this.checker).ThreadPool.shutdown();
-                break;
-            case "CPCC_NB":
-                ((INFUSE_C) this.checker).ThreadPool.shutdown();
-                break;
-            case "BASE":
-                assert this.checker instanceof ConC;
-                ((ConC) this.checker).ThreadPool.shutdown();
-                break;
-        }
+        // every change is checked at once, nothing is left to flush
     }
 
     @Override
@@ -6,13 +6,9 @@ import com.CC.Constraints.Formulas.Formula;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
 import com.CC.Constraints.Runtime.RuntimeNode;
-import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextPool;
 import com.CC.Middleware.Checkers.Checker;
-import com.CC.Middleware.Checkers.INFUSE_C;
-import com.CC.Middleware.Checkers.ConC;
-import com.CC.Util.NotSupportedException;
 
 import java.util.*;
 
@@ -26,15 +22,20 @@ public class INFUSE_S extends Scheduler{
 
     @Override
     public void doSchedule(ContextChange contextChange) throws Exception {
+        arrive(contextChange);
         batchFormINFUSE(contextChange);
+        List<Rule> rules = new ArrayList<>();
         for(Rule rule : ruleHandler.getRuleMap().values()){
             if(rule.getNewBatch() != null){
-                this.checker.ctxChangeCheckBatch(rule, rule.getBatch());
-                rule.setBatch(rule.getNewBatch());
-                rule.setNewBatch(null);
-                this.riskRefresh(rule);
+                rules.add(rule);
             }
         }
+        checkRules(rules, rule -> {
+            checkBatch(rule, rule.getBatch());
+            setBatch(rule, rule.getNewBatch());
+            rule.setNewBatch(null);
+            this.riskRefresh(rule);
+        });
     }
 
     private void batchFormINFUSE(ContextChange newChange){
@@ -42,24 +43,49 @@ public class INFUSE_S extends Scheduler{
             if(!rule.getVarPatternMap().containsValue(newChange.getPattern_id()))
                 continue;
 
-            if(riskMatch(rule, newChange)){
+            if(batchFull(rule) || riskMatch(rule, newChange)){
                 List<ContextChange> newBatch = new ArrayList<>();
                 newBatch.add(newChange);
                 rule.setNewBatch(newBatch);
             }
             else{
                 if(rule.getBatch() != null){
-                    rule.getBatch().add(newChange);
+                    rule.addToBatch(newChange);
+                    indexBatchAddition(rule, newChange);
                 }
                 else{
                     List<ContextChange> batch = new ArrayList<>();
                     batch.add(newChange);
-                    rule.setBatch(batch);
+                    setBatch(rule, batch);
                 }
             }
         }
     }
 
+    // no batch follows an aged one, the next change of the rule starts over as the first one did
+    @Override
+    protected void closeBatch(Rule rule) throws Exception {
+        checkBatch(rule, rule.getBatch());
+        setBatch(rule, null);
+        rule.setRiskAlready(false);
+    }
+
+    private void setBatch(Rule rule, List<ContextChange> batch){
+        rule.setBatch(batch);
+        rule.getBatchAdditions().clear();
+        if(batch != null){
+            for(ContextChange change : batch){
+                indexBatchAddition(rule, change);
+            }
+        }
+    }
+
+    private void indexBatchAddition(Rule rule, ContextChange change){
+        if(change.getChange_type() == ContextChange.Change_Type.ADDITION){
+            rule.getBatchAdditions().computeIfAbsent(change.getPattern_id(), k -> new HashSet<>()).add(change.getContext().getId());
+        }
+    }
+
     private boolean riskMatch(Rule rule, ContextChange newChange){
         String pattern_id = newChange.getPattern_id();
         Formula formula = rule.getPatToFormula().get(pattern_id);
@@ -94,8 +120,7 @@ public class INFUSE_S extends Scheduler{
             else{
                 if(newChange.getChange_type() == reType){
                     for(RuntimeNode runtimeNode : runtimeNodeSet){
-                        HashMap<Context, RuntimeNode.Virtual_Truth_Type> kidsVT = runtimeNode.getKidsVT();
-                        RuntimeNode.Virtual_Truth_Type kidVT = kidsVT.get(newChange.getContext());
+                        RuntimeNode.Virtual_Truth_Type kidVT = runtimeNode.getKidsVT().get(newChange.getContext());
                         if(kidVT == RuntimeNode.Virtual_Truth_Type.UNKNOWN){
                             reFlag = true;
                             break;
@@ -103,20 +128,13 @@ public class INFUSE_S extends Scheduler{
                     }
                     if(!reFlag){
                         //检查batch
-                        for(ContextChange change : rule.getBatch()){
-                            if(change.getChange_type() == ContextChange.Change_Type.ADDITION &&
-                                change.getPattern_id().equals(pattern_id) &&
-                                change.getContext().equals(newChange.getContext())){
-                                reFlag = true;
-                                break;
-                            }
-                        }
+                        Set<Long> batchAdded = rule.getBatchAdditions().get(pattern_id);
+                        reFlag = batchAdded != null && batchAdded.contains(newChange.getContext().getId());
                     }
                 }
                 if(!reFlag){
                     for(RuntimeNode runtimeNode : runtimeNodeSet){
-                        HashMap<Context, RuntimeNode.Virtual_Truth_Type> kidsVT = runtimeNode.getKidsVT();
-                        RuntimeNode.Virtual_Truth_Type kidVT = kidsVT.get(newChange.getContext());
+                        RuntimeNode.Virtual_Truth_Type kidVT = runtimeNode.getKidsVT().get(newChange.getContext());
                         if(kidVT != null){
                             runtimeNode.vtPropagationDelete(kidVT, newChange.getContext());
                         }
@@ -141,8 +159,7 @@ public class INFUSE_S extends Scheduler{
             else{
                 if(newChange.getChange_type() == rcType){
                     for(RuntimeNode runtimeNode : runtimeNodeSet){
-                        HashMap<Context, RuntimeNode.Virtual_Truth_Type> kidsVT = runtimeNode.getKidsVT();
-                        RuntimeNode.Virtual_Truth_Type kidVT = kidsVT.get(newChange.getContext());
+                        RuntimeNode.Virtual_Truth_Type kidVT = runtimeNode.getKidsVT().get(newChange.getContext());
                         if(kidVT != null && rcSet.get(ContextChange.Change_Type.DELETION).contains(kidVT)){
                             rcFlag = true;
                             break;
@@ -150,8 +167,7 @@ public class INFUSE_S extends Scheduler{
                     }
                 }
                 for(RuntimeNode runtimeNode : runtimeNodeSet){
-                    HashMap<Context, RuntimeNode.Virtual_Truth_Type> kidsVT = runtimeNode.getKidsVT();
-                    RuntimeNode.Virtual_Truth_Type kidVT = kidsVT.get(newChange.getContext());
+                    RuntimeNode.Virtual_Truth_Type kidVT = runtimeNode.getKidsVT().get(newChange.getContext());
                     if(kidVT != null){
                         runtimeNode.vtPropagationDelete(kidVT, newChange.getContext());
                     }
@@ -169,30 +185,22 @@ public class INFUSE_S extends Scheduler{
         assert !ret;
     }
 
-    public void checkEnds() throws NotSupportedException {
+    public void checkEnds() throws Exception {
         CleanUp();
-        switch (this.checker.getTechnique()) {
-            case "ConC":
-                ((ConC) checker).ThreadPool.shutdown();
-                break;
-            case "CPCC_NB":
-                ((INFUSE_C) checker).ThreadPool.shutdown();
-                break;
-            case "BASE":
-                assert this.checker instanceof ConC;
-                ((ConC) checker).ThreadPool.shutdown();
-                break;
-        }
     }
 
-    protected void CleanUp() throws NotSupportedException {
+    protected void CleanUp() throws Exception {
         //最后一次检测
+        List<Rule> rules = new ArrayList<>();
         for(Rule rule : ruleHandler.getRuleMap().values()){
             if(rule.getBatch() != null){
-                this.checker.ctxChangeCheckBatch(rule, rule.getBatch());
-                rule.setBatch(null);
+                rules.add(rule);
             }
         }
+        checkRules(rules, rule -> {
+            checkBatch(rule, rule.getBatch());
+            setBatch(rule, null);
+        });
     }
 
     @Override
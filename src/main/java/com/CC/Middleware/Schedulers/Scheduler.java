@@ -1,8 +1,16 @@
 package com.CC.Middleware.Schedulers;
 
+import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
 import com.CC.Contexts.*;
+import com.CC.Middleware.CheckExecutor;
 import com.CC.Middleware.Checkers.*;
+import com.CC.Util.NotSupportedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public abstract class Scheduler {
     protected String strategy;
@@ -10,6 +18,12 @@ public abstract class Scheduler {
     protected ContextPool contextPool;
     protected Checker checker;
 
+    // rule-parallel mode: the rules of a change go to the shared executor
+    protected boolean ruleParallel = false;
+
+    // batching schedules: optional size/age bound of a rule's batch, null: batches close on S-condition/risk matches only
+    protected BatchBound batchBound = null;
+
     public Scheduler(RuleHandler ruleHandler, ContextPool contextPool, Checker checker){
         this.ruleHandler = ruleHandler;
         this.contextPool = contextPool;
@@ -23,4 +37,114 @@ public abstract class Scheduler {
     public Checker getChecker() {
         return checker;
     }
+
+    // same executor as the checker
+    public CheckExecutor getExecutor() {
+        return checker.getExecutor();
+    }
+
+    public void setRuleParallel(boolean ruleParallel) {
+        this.ruleParallel = ruleParallel;
+    }
+
+    public boolean isRuleParallel() {
+        return ruleParallel;
+    }
+
+    public void setBatchBound(BatchBound batchBound) {
+        this.batchBound = batchBound;
+    }
+
+    public BatchBound getBatchBound() {
+        return batchBound;
+    }
+
+    // stamps the change and closes the batches it ages out, before the change is added to any batch
+    protected void arrive(ContextChange contextChange) throws Exception {
+        if(batchBound != null){
+            batchBound.arrive(contextChange);
+            flushAgedBatches();
+        }
+    }
+
+    // the rule's batch is full, the new change opens the next one as an S-condition match would
+    protected boolean batchFull(Rule rule) {
+        return batchBound != null && batchBound.isFull(rule);
+    }
+
+    // checks and closes every open batch that reached the age bound, also called by the online receiver when no data arrives
+    public void flushAgedBatches() throws Exception {
+        if(batchBound == null){
+            return;
+        }
+        List<Rule> rules = new ArrayList<>();
+        for(Rule rule : ruleHandler.getRuleMap().values()){
+            if(batchBound.isAged(rule)){
+                rules.add(rule);
+            }
+        }
+        checkRules(rules, this::closeBatch);
+    }
+
+    // checks the rule's batch and leaves no batch open
+    protected void closeBatch(Rule rule) throws Exception {
+        checkBatch(rule, rule.getBatch());
+        rule.setBatch(null);
+    }
+
+    // checks a closed batch, timing its detections when batches are bounded
+    protected void checkBatch(Rule rule, List<ContextChange> batch) throws NotSupportedException {
+        if(batchBound == null){
+            checker.ctxChangeCheckBatch(rule, batch);
+            return;
+        }
+        batchBound.beginCheck(rule, batch);
+        try {
+            checker.ctxChangeCheckBatch(rule, batch);
+        } finally {
+            batchBound.endCheck(rule);
+        }
+    }
+
+    protected interface RuleCheck {
+        void check(Rule rule) throws Exception;
+    }
+
+    // runs the check of every rule and returns once all of them are done;
+    // rules have their own CCT, batch and pool slice, so in rule-parallel mode they go to the work-stealing executor
+    protected void checkRules(List<Rule> rules, RuleCheck ruleCheck) throws Exception {
+        if(!ruleParallel || rules.size() < 2){
+            for(Rule rule : rules){
+                ruleCheck.check(rule);
+            }
+            return;
+        }
+        List<Future<Void>> tasks = new ArrayList<>(rules.size() - 1);
+        for(int i = 1; i < rules.size(); ++i){
+            Rule rule = rules.get(i);
+            tasks.add(getExecutor().submit(() -> {
+                ruleCheck.check(rule);
+                return null;
+            }));
+        }
+        Exception failure = null;
+        try {
+            ruleCheck.check(rules.get(0));
+        } catch (Exception e) {
+            failure = e;
+        }
+        // join all before the next change, even if one rule failed
+        for(Future<Void> task : tasks){
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                if(failure == null){
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : new RuntimeException(e.getCause());
+                }
+            }
+        }
+        if(failure != null){
+            throw failure;
+        }
+    }
 }
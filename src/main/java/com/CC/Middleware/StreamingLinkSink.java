@@ -0,0 +1,167 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import com.CC.Constraints.Runtime.VarSlots;
+import com.CC.Util.Loggable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/*
+ * writes links as incs lines while checking goes on, on its own writer thread.
+ * checkers only snapshot the link set into a bounded queue (they wait when the writer falls behind);
+ * the writer formats, drops lines seen within the last dedupWindow distinct lines, and flushes whenever
+ * the queue runs dry. memory is bounded by queueCapacity and dedupWindow, not by the length of the run.
+ */
+public class StreamingLinkSink implements LinkSink, Loggable {
+
+    public static final int DEFAULT_DEDUP_WINDOW = 1 << 16;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final class Batch {
+        final String rule_id;
+        final VarSlots vars;
+        final boolean truth;
+        final Link[] links;
+
+        Batch(String rule_id, VarSlots vars, boolean truth, Link[] links) {
+            this.rule_id = rule_id;
+            this.vars = vars;
+            this.truth = truth;
+            this.links = links;
+        }
+    }
+
+    private static final Batch END = new Batch(null, null, false, new Link[0]);
+
+    private final Writer writer;
+    private final BlockingQueue<Batch> queue;
+    // recently written lines, least recently seen evicted first
+    private final Map<String, Boolean> window;
+    private final Thread writerThread;
+    private volatile IOException failure;
+    private long written = 0;
+    private long duplicates = 0;
+    private boolean closed = false;
+
+    public StreamingLinkSink(Writer writer) {
+        this(writer, DEFAULT_DEDUP_WINDOW, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public StreamingLinkSink(Writer writer, int dedupWindow, int queueCapacity) {
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        int capacity = dedupWindow > 0 ? dedupWindow : DEFAULT_DEDUP_WINDOW;
+        this.window = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.writerThread = new Thread(this::drain, "link-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void accept(String rule_id, VarSlots vars, boolean truth, Set<Link> linkSet) {
+        if(failure != null){
+            throw new RuntimeException("Fail to write links", failure);
+        }
+        if(linkSet.isEmpty()){
+            return;
+        }
+        try {
+            queue.put(new Batch(rule_id, vars, truth, linkSet.toArray(new Link[0])));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void drain() {
+        try {
+            while(true){
+                Batch batch = queue.poll();
+                if(batch == null){
+                    flush();
+                    batch = queue.take();
+                }
+                if(batch == END){
+                    break;
+                }
+                // after a failure keep draining, checkers must never block on a dead writer
+                if(failure == null){
+                    write(batch);
+                }
+            }
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Batch batch) {
+        try {
+            for(Link link : batch.links){
+                String line = LinkSink.format(batch.rule_id, batch.vars, batch.truth, link);
+                if(window.put(line, Boolean.TRUE) != null){
+                    duplicates++;
+                    continue;
+                }
+                writer.write(line);
+                writer.write('\n');
+                written++;
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void flush() {
+        if(failure == null){
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    // waits for the queued links to be written, then closes the writer
+    @Override
+    public synchronized void close() {
+        if(closed){
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if(failure == null){
+                failure = e;
+            }
+        }
+        if(failure != null){
+            throw new RuntimeException("Fail to write links", failure);
+        }
+        logger.info(String.format("Links written: %d, duplicates dropped: %d", written, duplicates));
+    }
+}
@@ -1,15 +1,18 @@
 package com.CC;
 
+import com.CC.Constraints.Formulas.BfuncInvoker;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
-import com.CC.Constraints.Runtime.Link;
-import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextHandler;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.CheckExecutor;
+import com.CC.Middleware.LatencyLinkSink;
+import com.CC.Middleware.StreamingLinkSink;
 import com.CC.Middleware.Checkers.*;
 import com.CC.Middleware.Schedulers.*;
 import com.CC.Patterns.PatternHandler;
+import com.CC.Util.LineReader;
 import com.CC.Util.Loggable;
 
 import java.io.*;
@@ -21,15 +24,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 public class OfflineStarter implements Loggable {
 
     private Scheduler scheduler;
     private Checker checker;
+    // shared by checker and scheduler, shut down once checking ends
+    private CheckExecutor executor;
+    // incs lines are written while checking goes on
+    private StreamingLinkSink linkSink;
     private String ruleFile;
     private String bfuncFile;
     private String patternFile;
@@ -47,6 +51,10 @@ public class OfflineStarter implements Loggable {
     public OfflineStarter() {}
 
     public void start(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataFile, String dataType, boolean isMG, String incOutFile){
+        start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataFile, dataType, isMG, incOutFile, new RunOptions());
+    }
+
+    public void start(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataFile, String dataType, boolean isMG, String incOutFile, RunOptions runOptions){
         this.ruleFile = ruleFile;
         this.bfuncFile = bfuncFile;
         this.patternFile = patternFile;
@@ -56,7 +64,9 @@ public class OfflineStarter implements Loggable {
 
         this.ruleHandler = new RuleHandler();
         this.patternHandler = new PatternHandler();
-        this.contextHandler = new ContextHandler(patternHandler, dataType);
+        this.contextHandler = new ContextHandler(patternHandler, dataType, runOptions.getContextSchema());
+        this.contextHandler.setKeptFields(runOptions.getKeptFields());
+        this.patternHandler.setMfuncMemoCapacity(runOptions.getMfuncMemoCapacity());
         this.contextPool = new ContextPool();
 
         try {
@@ -65,14 +75,16 @@ public class OfflineStarter implements Loggable {
             throw new RuntimeException(e);
         }
 
-        Object bfuncInstance = null;
+        BfuncInvoker bfuncInvoker = null;
         try {
-            bfuncInstance = loadBfuncFile();
+            bfuncInvoker = loadBfuncFile();
             logger.info("Load bfunctions successfully.");
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
 
+        this.executor = CheckExecutor.of(runOptions.getExecutorMode(), runOptions.getThreads(), runOptions.getGrain());
+
         String technique = null;
         String schedule = null;
         if(approach.contains("+")){
@@ -95,25 +107,35 @@ public class OfflineStarter implements Loggable {
 
         switch (technique) {
             case "ECC":
-                this.checker = new ECC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                this.checker = new ECC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                 break;
             case "ConC":
-                this.checker = new ConC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                this.checker = new ConC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                 break;
             case "PCC":
-                this.checker = new PCC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                this.checker = new PCC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                 break;
             case "INFUSE_base":
-                this.checker = new BASE(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                this.checker = new BASE(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                 break;
             case "INFUSE_C":
-                this.checker = new INFUSE_C(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                this.checker = new INFUSE_C(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                 break;
         }
 
+        try {
+            this.linkSink = new StreamingLinkSink(Files.newBufferedWriter(Paths.get(incOutFile), StandardCharsets.UTF_8),
+                    runOptions.getLinkWindow(), StreamingLinkSink.DEFAULT_QUEUE_CAPACITY);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.checker.setLinkSink(linkSink);
+        this.checker.setLazyLinks(runOptions.isLazyLinks());
+
         switch (schedule){
             case "IMD":
                 this.scheduler = new IMD(ruleHandler, contextPool, checker);
+                this.scheduler.setRuleParallel(runOptions.isRuleParallel());
                 break;
             case "GEAS_ori":
                 this.scheduler = new GEAS_ori(ruleHandler, contextPool, checker);
@@ -126,9 +148,16 @@ public class OfflineStarter implements Loggable {
                 break;
             case "INFUSE_S":
                 this.scheduler = new INFUSE_S(ruleHandler, contextPool, checker);
+                this.scheduler.setRuleParallel(runOptions.isRuleParallel());
                 break;
         }
 
+        if(runOptions.isBatchBounded() && !schedule.equals("IMD")){
+            LatencyLinkSink latencySink = new LatencyLinkSink(linkSink, runOptions.getLinkWindow());
+            this.checker.setLinkSink(latencySink);
+            this.scheduler.setBatchBound(new BatchBound(runOptions.getBatchCap(), runOptions.getBatchAge(), runOptions.getBatchClock(), latencySink));
+        }
+
         //check init
         this.checker.checkInit();
         logger.info("Init checking successfully.");
@@ -137,9 +166,14 @@ public class OfflineStarter implements Loggable {
         try {
             logger.info("Start running......");
             run();
-            incsOutput();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            try {
+                this.linkSink.close();
+            } finally {
+                this.executor.close();
+            }
         }
     }
 
@@ -156,42 +190,36 @@ public class OfflineStarter implements Loggable {
             //DIS
             rule.deriveRCRESets();
         }
-
-        for(String pattern_id : patternHandler.getPatternMap().keySet()){
-            contextPool.threeSetsInit(pattern_id);
-        }
     }
 
-    private Object loadBfuncFile() {
+    private BfuncInvoker loadBfuncFile() {
         Path bfuncPath = Paths.get(bfuncFile).toAbsolutePath();
-        Object bfuncInstance = null;
+        BfuncInvoker bfuncInvoker = null;
         try(URLClassLoader classLoader = new URLClassLoader(new URL[]{ bfuncPath.getParent().toFile().toURI().toURL()})){
             Class<?> c = classLoader.loadClass(bfuncPath.getFileName().toString().substring(0, bfuncPath.getFileName().toString().length() - 6));
             Constructor<?> constructor = c.getConstructor();
-            bfuncInstance = constructor.newInstance();
+            // resolve bfunc once here, FBfunc nodes call the cached handle
+            bfuncInvoker = BfuncInvoker.bind(constructor.newInstance());
         } catch (ClassNotFoundException | InvocationTargetException | NoSuchMethodException | InstantiationException |
                  IllegalAccessException | IOException e) {
             throw new RuntimeException(e);
         }
-        return bfuncInstance;
+        return bfuncInvoker;
     }
 
     private void run() throws Exception{
-        String line;
         try(InputStream inputStream = Files.newInputStream(Paths.get(dataFile))){
             InputStreamReader inputStreamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-            BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-            while((line = bufferedReader.readLine()) != null){
-                //logger.info(line.trim());
-                List<ContextChange> changeList = this.contextHandler.generateChanges(line);
+            LineReader lineReader = new LineReader(inputStreamReader);
+            while(lineReader.nextLine()){
+                List<ContextChange> changeList = this.contextHandler.generateChanges(lineReader.getLine(), lineReader.getLength());
                 while(!changeList.isEmpty()){
                     ContextChange chg = changeList.get(0);
                     changeList.remove(0);
                     this.scheduler.doSchedule(chg);
                 }
             }
-            bufferedReader.close();
-            inputStreamReader.close();
+            lineReader.close();
 
             List<ContextChange> changeList = this.contextHandler.generateChanges(null);
             while(!changeList.isEmpty()){
@@ -200,59 +228,11 @@ public class OfflineStarter implements Loggable {
                 this.scheduler.doSchedule(chg);
             }
             this.scheduler.checkEnds();
-        }
-    }
-
-    private void incsOutput() throws Exception {
-        OutputStream outputStream = Files.newOutputStream(Paths.get(incOutFile));
-        OutputStreamWriter outputStreamWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-        BufferedWriter bufferedWriter = new BufferedWriter(outputStreamWriter);
-        //对每个rule遍历
-        for(Map.Entry<String, List<Map.Entry<Boolean, Set<Link>>>> entry : this.checker.getRuleLinksMap().entrySet()){
-            StringBuilder stringBuilder = new StringBuilder();
-            stringBuilder.append(entry.getKey()).append('(');
-            //累计每一次的link，氛围violated和satisfied(and or implies 两种都可能会有)
-            Set<Link> accumVioLinks = new HashSet<>();
-            Set<Link> accumSatLinks = new HashSet<>();
-            for(Map.Entry<Boolean, Set<Link>> resultEntry : entry.getValue()){
-                if(resultEntry.getKey()){
-                    accumSatLinks.addAll(resultEntry.getValue());
-                }
-                else{
-                    accumVioLinks.addAll(resultEntry.getValue());
-                }
-            }
-            for(Link link : accumVioLinks){
-                Link.Link_Type linkType = Link.Link_Type.VIOLATED;
-                StringBuilder tmpBuilder = new StringBuilder(stringBuilder);
-                tmpBuilder.append(linkType.name()).append(",{");
-                //对当前每个link的变量赋值遍历
-                for(Map.Entry<String, Context> va : link.getVaSet()){
-                    tmpBuilder.append("(").append(va.getKey()).append(",").append(Integer.parseInt(va.getValue().getCtx_id().substring(4)) + 1).append("),");
-                }
-                tmpBuilder.deleteCharAt(tmpBuilder.length() - 1);
-                tmpBuilder.append("})");
-                bufferedWriter.write(tmpBuilder.toString() + "\n");
-                bufferedWriter.flush();
-            }
-            for(Link link : accumSatLinks){
-                Link.Link_Type linkType = Link.Link_Type.SATISFIED;
-                StringBuilder tmpBuilder = new StringBuilder(stringBuilder);
-                tmpBuilder.append(linkType.name()).append(",{");
-                //对当前每个link的变量赋值遍历
-                for(Map.Entry<String, Context> va : link.getVaSet()){
-                    tmpBuilder.append("(").append(va.getKey()).append(",").append(Integer.parseInt(va.getValue().getCtx_id().substring(4)) + 1).append("),");
-                }
-                tmpBuilder.deleteCharAt(tmpBuilder.length() - 1);
-                tmpBuilder.append("})");
-                bufferedWriter.write(tmpBuilder.toString() + "\n");
-                bufferedWriter.flush();
+            this.checker.materializeLinks();
+            if(this.scheduler.getBatchBound() != null){
+                logger.info(this.scheduler.getBatchBound().getLatencySink().report());
             }
         }
-
-        bufferedWriter.close();
-        outputStreamWriter.close();
-        outputStream.close();
     }
 
 }
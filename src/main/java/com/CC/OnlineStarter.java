@@ -1,16 +1,19 @@
 package com.CC;
 
+import com.CC.Constraints.Formulas.BfuncInvoker;
 import com.CC.Constraints.Rules.Rule;
 import com.CC.Constraints.Rules.RuleHandler;
-import com.CC.Constraints.Runtime.Link;
-import com.CC.Contexts.Context;
 import com.CC.Contexts.ContextChange;
 import com.CC.Contexts.ContextHandler;
 import com.CC.Contexts.ContextPool;
+import com.CC.Middleware.CheckExecutor;
+import com.CC.Middleware.LatencyLinkSink;
+import com.CC.Middleware.StreamingLinkSink;
 import com.CC.Middleware.Checkers.*;
 import com.CC.Middleware.Schedulers.*;
 import com.CC.Patterns.PatternHandler;
 import com.CC.Util.Loggable;
+import com.CC.Util.TimestampDecoder;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
 
@@ -23,7 +26,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -45,6 +47,10 @@ public class OnlineStarter implements Loggable {
         private final ContextPool contextPool;
         private Scheduler scheduler;
         private Checker checker;
+        // shared by checker and scheduler, shut down once checking ends
+        private CheckExecutor executor;
+        // incs lines are written while checking goes on
+        private StreamingLinkSink linkSink;
 
         private long oldTime_gen = 0L;
         private long totalTime_gen = 0L;
@@ -53,7 +59,10 @@ public class OnlineStarter implements Loggable {
         private final Queue<ContextChange> changeQueue = new LinkedList<>();
         private boolean cleaned = false;
 
-        public CCEServer(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataType, boolean isMG, String incOutFile) {
+        // no data for this long ends the receiving
+        private static final int IDLE_TIMEOUT = 10000;
+
+        public CCEServer(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataType, boolean isMG, String incOutFile, RunOptions runOptions) {
             this.ruleFile = ruleFile;
             this.bfuncFile = bfuncFile;
             this.patternFile = patternFile;
@@ -62,7 +71,9 @@ public class OnlineStarter implements Loggable {
 
             this.ruleHandler = new RuleHandler();
             this.patternHandler = new PatternHandler();
-            this.contextHandler = new ContextHandler(patternHandler, dataType);
+            this.contextHandler = new ContextHandler(patternHandler, dataType, runOptions.getContextSchema());
+            this.contextHandler.setKeptFields(runOptions.getKeptFields());
+            this.patternHandler.setMfuncMemoCapacity(runOptions.getMfuncMemoCapacity());
             this.contextPool = new ContextPool();
 
             try {
@@ -71,14 +82,16 @@ public class OnlineStarter implements Loggable {
                 throw new RuntimeException(e);
             }
 
-            Object bfuncInstance = null;
+            BfuncInvoker bfuncInvoker = null;
             try {
-                bfuncInstance = loadBfuncFile();
+                bfuncInvoker = loadBfuncFile();
                 logger.info("Load bfunctions successfully.");
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
 
+            this.executor = CheckExecutor.of(runOptions.getExecutorMode(), runOptions.getThreads(), runOptions.getGrain());
+
             String technique = null;
             String schedule = null;
             if(approach.contains("+")){
@@ -101,25 +114,35 @@ public class OnlineStarter implements Loggable {
 
             switch (technique) {
                 case "ECC":
-                    this.checker = new ECC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                    this.checker = new ECC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                     break;
                 case "ConC":
-                    this.checker = new ConC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                    this.checker = new ConC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                     break;
                 case "PCC":
-                    this.checker = new PCC(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                    this.checker = new PCC(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                     break;
                 case "INFUSE_base":
-                    this.checker = new BASE(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                    this.checker = new BASE(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                     break;
                 case "INFUSE_C":
-                    this.checker = new INFUSE_C(this.ruleHandler, this.contextPool, bfuncInstance, isMG);
+                    this.checker = new INFUSE_C(this.ruleHandler, this.contextPool, bfuncInvoker, isMG, executor);
                     break;
             }
 
+            try {
+                this.linkSink = new StreamingLinkSink(Files.newBufferedWriter(Paths.get(incOutFile), StandardCharsets.UTF_8),
+                        runOptions.getLinkWindow(), StreamingLinkSink.DEFAULT_QUEUE_CAPACITY);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            this.checker.setLinkSink(linkSink);
+            this.checker.setLazyLinks(runOptions.isLazyLinks());
+
             switch (schedule){
                 case "IMD":
                     this.scheduler = new IMD(ruleHandler, contextPool, checker);
+                    this.scheduler.setRuleParallel(runOptions.isRuleParallel());
                     break;
                 case "GEAS_ori":
                     this.scheduler = new GEAS_ori(ruleHandler, contextPool, checker);
@@ -132,9 +155,16 @@ public class OnlineStarter implements Loggable {
                     break;
                 case "INFUSE_S":
                     this.scheduler = new INFUSE_S(ruleHandler, contextPool, checker);
+                    this.scheduler.setRuleParallel(runOptions.isRuleParallel());
                     break;
             }
 
+            if(runOptions.isBatchBounded() && !schedule.equals("IMD")){
+                LatencyLinkSink latencySink = new LatencyLinkSink(linkSink, runOptions.getLinkWindow());
+                this.checker.setLinkSink(latencySink);
+                this.scheduler.setBatchBound(new BatchBound(runOptions.getBatchCap(), runOptions.getBatchAge(), runOptions.getBatchClock(), latencySink));
+            }
+
             //check init
             this.checker.checkInit();
             logger.info("Init checking successfully.");
@@ -153,24 +183,21 @@ public class OnlineStarter implements Loggable {
                 //DIS
                 rule.deriveRCRESets();
             }
-
-            for(String pattern_id : patternHandler.getPatternMap().keySet()){
-                contextPool.threeSetsInit(pattern_id);
-            }
         }
 
-        private Object loadBfuncFile() {
+        private BfuncInvoker loadBfuncFile() {
             Path bfuncPath = Paths.get(bfuncFile).toAbsolutePath();
-            Object bfuncInstance = null;
+            BfuncInvoker bfuncInvoker = null;
             try(URLClassLoader classLoader = new URLClassLoader(new URL[]{ bfuncPath.getParent().toFile().toURI().toURL()})){
                 Class<?> c = classLoader.loadClass(bfuncPath.getFileName().toString().substring(0, bfuncPath.getFileName().toString().length() - 6));
                 Constructor<?> constructor = c.getConstructor();
-                bfuncInstance = constructor.newInstance();
+                // resolve bfunc once here, FBfunc nodes call the cached handle
+                bfuncInvoker = BfuncInvoker.bind(constructor.newInstance());
             } catch (ClassNotFoundException | InvocationTargetException | NoSuchMethodException | InstantiationException |
                      IllegalAccessException | IOException e) {
                 throw new RuntimeException(e);
             }
-            return bfuncInstance;
+            return bfuncInvoker;
         }
 
         @Override
@@ -178,7 +205,7 @@ public class OnlineStarter implements Loggable {
             DatagramSocket datagramSocket = null;
             try {
                 datagramSocket = new DatagramSocket(6244);
-                datagramSocket.setSoTimeout(10000);
+                datagramSocket.setSoTimeout(pollTimeout());
             } catch (SocketException e) {
                 logger.error("Fail to build datagramSocket.");
                 e.printStackTrace();
@@ -202,17 +229,46 @@ public class OnlineStarter implements Loggable {
                 }
             }
             long oldTime_chk = System.currentTimeMillis();
-            this.scheduler.checkEnds();
+            try {
+                this.scheduler.checkEnds();
+                this.checker.materializeLinks();
+            } finally {
+                try {
+                    this.linkSink.close();
+                } finally {
+                    this.executor.close();
+                }
+            }
             totalTime_det += System.currentTimeMillis() - oldTime_chk;
 
-            incsOutput();
             //Output fixed data
             //TODO()
             logger.info("Checking completes at " + new Date(System.currentTimeMillis()) );
+            if(this.scheduler.getBatchBound() != null){
+                logger.info(this.scheduler.getBatchBound().getLatencySink().report());
+            }
             logger.info("TotalTime_gen: " + this.totalTime_gen + " ms\ttotalTime_det: " + this.totalTime_det + " ms\n");
             return null;
         }
 
+        // bounded batches in wall time are also tested while no data arrives, by polling the socket
+        private int pollTimeout() {
+            long interval = this.scheduler.getBatchBound() == null ? 0 : this.scheduler.getBatchBound().getFlushInterval();
+            return interval > 0 ? (int) Math.min(interval, IDLE_TIMEOUT) : IDLE_TIMEOUT;
+        }
+
+        // runs on the receiving thread between two receives, as doSchedule does, so no locking is needed
+        private void flushAgedBatches() {
+            long oldTime_chk = System.currentTimeMillis();
+            try {
+                this.scheduler.flushAgedBatches();
+            } catch (Exception e) {
+                logger.error("Fail to flush aged batches");
+                e.printStackTrace();
+            }
+            totalTime_det += System.currentTimeMillis() - oldTime_chk;
+        }
+
         private ContextChange getNextChange(DatagramSocket datagramSocket){
             if(!changeQueue.isEmpty()){
                 return changeQueue.poll();
@@ -222,7 +278,18 @@ public class OnlineStarter implements Loggable {
             DatagramPacket datagramPacket = new DatagramPacket(data, data.length);
             try {
                 totalTime_gen += System.currentTimeMillis() - oldTime_gen;
-                datagramSocket.receive(datagramPacket);
+                long idleStart = System.currentTimeMillis();
+                while(true){
+                    try {
+                        datagramSocket.receive(datagramPacket);
+                        break;
+                    } catch (SocketTimeoutException e) {
+                        if(System.currentTimeMillis() - idleStart >= IDLE_TIMEOUT){
+                            throw e;
+                        }
+                        flushAgedBatches();
+                    }
+                }
                 oldTime_gen = System.currentTimeMillis();
                 String line = new String(datagramPacket.getData(), datagramPacket.getOffset(), datagramPacket.getLength(), StandardCharsets.UTF_8);
                 logger.info("Receive data: \"" + line.trim() + "\"");
@@ -247,7 +314,7 @@ public class OnlineStarter implements Loggable {
                     }
                 }
             } catch (ParseException e) {
-                logger.error("\033[91m" + "SimpleDateFormat failed to parse" + "\033[0m");
+                logger.error("\033[91m" + "Failed to parse the timestamp" + "\033[0m");
                 e.printStackTrace();
             } catch (Exception e) {
                 logger.error("\033[91m" + "Fail to generate changes" + "\033[0m");
@@ -255,58 +322,6 @@ public class OnlineStarter implements Loggable {
             }
             return null;
         }
-
-        private void incsOutput() throws Exception {
-            OutputStream outputStream = Files.newOutputStream(Paths.get(incOutFile));
-            OutputStreamWriter outputStreamWriter = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-            BufferedWriter bufferedWriter = new BufferedWriter(outputStreamWriter);
-            //对每个rule遍历
-            for(Map.Entry<String, List<Map.Entry<Boolean, Set<Link>>>> entry : this.checker.getRuleLinksMap().entrySet()){
-                StringBuilder stringBuilder = new StringBuilder();
-                stringBuilder.append(entry.getKey()).append('(');
-                //累计每一次的link，氛围violated和satisfied(and or implies 两种都可能会有)
-                Set<Link> accumVioLinks = new HashSet<>();
-                Set<Link> accumSatLinks = new HashSet<>();
-                for(Map.Entry<Boolean, Set<Link>> resultEntry : entry.getValue()){
-                    if(resultEntry.getKey()){
-                        accumSatLinks.addAll(resultEntry.getValue());
-                    }
-                    else{
-                        accumVioLinks.addAll(resultEntry.getValue());
-                    }
-                }
-                for(Link link : accumVioLinks){
-                    Link.Link_Type linkType = Link.Link_Type.VIOLATED;
-                    StringBuilder tmpBuilder = new StringBuilder(stringBuilder);
-                    tmpBuilder.append(linkType.name()).append(",{");
-                    //对当前每个link的变量赋值遍历
-                    for(Map.Entry<String, Context> va : link.getVaSet()){
-                        tmpBuilder.append("(").append(va.getKey()).append(",").append(Integer.parseInt(va.getValue().getCtx_id().substring(4)) + 1).append("),");
-                    }
-                    tmpBuilder.deleteCharAt(tmpBuilder.length() - 1);
-                    tmpBuilder.append("})");
-                    bufferedWriter.write(tmpBuilder.toString() + "\n");
-                    bufferedWriter.flush();
-                }
-                for(Link link : accumSatLinks){
-                    Link.Link_Type linkType = Link.Link_Type.SATISFIED;
-                    StringBuilder tmpBuilder = new StringBuilder(stringBuilder);
-                    tmpBuilder.append(linkType.name()).append(",{");
-                    //对当前每个link的变量赋值遍历
-                    for(Map.Entry<String, Context> va : link.getVaSet()){
-                        tmpBuilder.append("(").append(va.getKey()).append(",").append(Integer.parseInt(va.getValue().getCtx_id().substring(4)) + 1).append("),");
-                    }
-                    tmpBuilder.deleteCharAt(tmpBuilder.length() - 1);
-                    tmpBuilder.append("})");
-                    bufferedWriter.write(tmpBuilder.toString() + "\n");
-                    bufferedWriter.flush();
-                }
-            }
-
-            bufferedWriter.close();
-            outputStreamWriter.close();
-            outputStream.close();
-        }
     }
 
     static class CCEClient implements Callable<Void>{
@@ -332,7 +347,7 @@ public class OnlineStarter implements Loggable {
             long startTime_real = -1;
             String line;
             int cnt = 0;
-            SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss:SSS");
+            TimestampDecoder timestampDecoder = new TimestampDecoder();
 
             logger.info("[CCEClient]: begin at: " + new Date(System.currentTimeMillis()));
             do {
@@ -342,7 +357,7 @@ public class OnlineStarter implements Loggable {
                 }
 
                 JSONObject recordJsonObj = JSON.parseObject(line.trim());
-                long curTime_fake = simpleDateFormat.parse(recordJsonObj.getString("timestamp")).getTime();
+                long curTime_fake = timestampDecoder.decode(recordJsonObj.getString("timestamp"));
                 long curTime_real = System.currentTimeMillis();
 
                 byte[] data = String.format("%-1024s", line).getBytes(StandardCharsets.UTF_8);
@@ -378,8 +393,12 @@ public class OnlineStarter implements Loggable {
     }
 
     public void start(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataType, boolean isMG, String incOutFile){
+        start(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataType, isMG, incOutFile, new RunOptions());
+    }
+
+    public void start(String approach, String ruleFile, String bfuncFile, String patternFile, String mfuncFile, String dataType, boolean isMG, String incOutFile, RunOptions runOptions){
        //FutureTask<Void> clientTask = new FutureTask<>(new CCEClient("./taxi/data_5_0-1_new.txt"));
-        FutureTask<Void> serverTask = new FutureTask<>(new CCEServer(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataType, isMG, incOutFile));
+        FutureTask<Void> serverTask = new FutureTask<>(new CCEServer(approach, ruleFile, bfuncFile, patternFile, mfuncFile, dataType, isMG, incOutFile, runOptions));
         //new Thread(clientTask, "Client...").start();
         new Thread(serverTask, "Server...").start();
         try {
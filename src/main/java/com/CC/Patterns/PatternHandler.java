@@ -1,6 +1,7 @@
 package com.CC.Patterns;
 
 import com.CC.Patterns.matcher.FunctionMatcher;
+import com.CC.Patterns.matcher.MfuncInvoker;
 import com.CC.Patterns.matcher.PrimaryKeyMatcher;
 import com.CC.Patterns.types.FreshnessType;
 import com.CC.Util.Loggable;
@@ -24,6 +25,10 @@ import java.util.List;
 
 public class PatternHandler implements Loggable {
     private final LinkedHashMap<String, Pattern> patternMap;
+    // built once the patterns are loaded
+    private PatternIndex patternIndex;
+    // memo entries per function matcher, 0: no memo
+    private int mfuncMemoCapacity = 0;
 
     public PatternHandler(){
         patternMap = new LinkedHashMap<>();
@@ -33,9 +38,21 @@ public class PatternHandler implements Loggable {
         return patternMap;
     }
 
+    // buildPatterns rebuilds the index after every load, so replaced patterns are dispatched by their new matchers
+    public PatternIndex getPatternIndex() {
+        if(patternIndex == null){
+            patternIndex = new PatternIndex(patternMap.values());
+        }
+        return patternIndex;
+    }
+
+    public void setMfuncMemoCapacity(int mfuncMemoCapacity) {
+        this.mfuncMemoCapacity = mfuncMemoCapacity;
+    }
+
     public void buildPatterns(String patternFile, String mfuncFile) {
-        Object mfuncInstance = loadMfuncFile(mfuncFile);
-        if(mfuncInstance != null){
+        MfuncInvoker mfuncInvoker = loadMfuncFile(mfuncFile);
+        if(mfuncInvoker != null){
             logger.info("Load mfunc file successfully");
         }
         try(InputStream inputStream = Files.newInputStream(Paths.get(patternFile))){
@@ -76,7 +93,8 @@ public class PatternHandler implements Loggable {
                     }
                     else if(matcherType.equals("function")){
                         assert matcherElements.get(1).getName().equals("functionName");
-                        FunctionMatcher functionMatcher = new FunctionMatcher(matcherElements.get(1).getText(), mfuncInstance);
+                        FunctionMatcher functionMatcher = new FunctionMatcher(matcherElements.get(1).getText(), mfuncInvoker);
+                        functionMatcher.enableMemo(mfuncMemoCapacity);
                         //extraArgumentList (optional)
                         if(matcherElements.size() == 3){
                             assert matcherElements.get(2).getName().equals("extraArgumentList");
@@ -94,25 +112,27 @@ public class PatternHandler implements Loggable {
                 }
                 patternMap.put(pattern.getPatternId(), pattern);
             }
+            patternIndex = new PatternIndex(patternMap.values());
         }
         catch (DocumentException | IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private Object loadMfuncFile(String mfuncFile) {
+    // the mfunc entry point is resolved once here and shared by all function matchers
+    private MfuncInvoker loadMfuncFile(String mfuncFile) {
         if(mfuncFile == null || mfuncFile.equals(""))
             return null;
-        Object mfuncInstance;
+        MfuncInvoker mfuncInvoker;
         Path mfuncPath = Paths.get(mfuncFile).toAbsolutePath();
         try (URLClassLoader classLoader = new URLClassLoader(new URL[]{mfuncPath.getParent().toFile().toURI().toURL()})) {
             Class<?> clazz = classLoader.loadClass(mfuncPath.getFileName().toString().split("\\.")[0]);
             Constructor<?> constructor = clazz.getConstructor();
-            mfuncInstance = constructor.newInstance();
+            mfuncInvoker = MfuncInvoker.bind(constructor.newInstance());
         } catch (IOException | ClassNotFoundException | NoSuchMethodException | InvocationTargetException |
                  InstantiationException | IllegalAccessException e) {
             throw new RuntimeException(e);
         }
-        return mfuncInstance;
+        return mfuncInvoker;
     }
 }
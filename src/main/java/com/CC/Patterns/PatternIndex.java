@@ -0,0 +1,90 @@
+package com.CC.Patterns;
+
+import com.CC.Contexts.Context;
+import com.CC.Patterns.matcher.PrimaryKeyMatcher;
+
+import java.util.*;
+
+/*
+ * dispatch index built from the patterns: (primary-key field, value) -> patterns whose value list holds it.
+ * a context is only checked against those candidates plus the patterns that cannot be indexed
+ * (no matcher, function matcher); matched patterns come out in pattern-file order.
+ */
+public class PatternIndex {
+    private final Pattern[] patterns;
+    // ordinals of patterns without a matcher or with a function matcher
+    private final int[] unindexed;
+    private final String[] keyFields;
+    // per key field: value -> ordinals (ascending) of the primary-key patterns accepting it
+    private final List<Map<String, int[]>> valueIndex;
+
+    // reused candidate buffer, one index per ingest thread
+    private int[] candidates;
+
+    public PatternIndex(Collection<Pattern> patternCollection) {
+        this.patterns = patternCollection.toArray(new Pattern[0]);
+        List<Integer> unindexedList = new ArrayList<>();
+        List<String> fieldList = new ArrayList<>();
+        List<Map<String, List<Integer>>> building = new ArrayList<>();
+        for(int i = 0; i < patterns.length; ++i){
+            if(patterns[i].getMatcher() instanceof PrimaryKeyMatcher){
+                PrimaryKeyMatcher matcher = (PrimaryKeyMatcher) patterns[i].getMatcher();
+                int f = fieldList.indexOf(matcher.getField());
+                if(f < 0){
+                    f = fieldList.size();
+                    fieldList.add(matcher.getField());
+                    building.add(new HashMap<>());
+                }
+                for(String value : new LinkedHashSet<>(matcher.getOptionalValueList())){
+                    building.get(f).computeIfAbsent(value, k -> new ArrayList<>()).add(i);
+                }
+            }
+            else{
+                unindexedList.add(i);
+            }
+        }
+        this.unindexed = unindexedList.stream().mapToInt(Integer::intValue).toArray();
+        this.keyFields = fieldList.toArray(new String[0]);
+        this.valueIndex = new ArrayList<>(building.size());
+        for(Map<String, List<Integer>> fieldValues : building){
+            Map<String, int[]> compact = new HashMap<>();
+            for(Map.Entry<String, List<Integer>> entry : fieldValues.entrySet()){
+                compact.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+            this.valueIndex.add(compact);
+        }
+        this.candidates = new int[patterns.length];
+    }
+
+    // appends the patterns matching the context to matched, in pattern order
+    public void match(Context context, List<Pattern> matched) {
+        int count = 0;
+        for(int ordinal : unindexed){
+            candidates[count++] = ordinal;
+        }
+        boolean sorted = true;
+        for(int f = 0; f < keyFields.length; ++f){
+            String value = context.getCtx_fields().get(keyFields[f]);
+            if(value == null){
+                continue;
+            }
+            int[] hits = valueIndex.get(f).get(value);
+            if(hits != null){
+                for(int ordinal : hits){
+                    sorted &= count == 0 || candidates[count - 1] < ordinal;
+                    candidates[count++] = ordinal;
+                }
+            }
+        }
+        if(!sorted){
+            Arrays.sort(candidates, 0, count);
+        }
+        for(int i = 0; i < count; ++i){
+            Pattern pattern = patterns[candidates[i]];
+            // index hits are matches already, only function matchers are evaluated
+            if(pattern.getMatcher() == null || pattern.getMatcher() instanceof PrimaryKeyMatcher || pattern.getMatcher().match(context)){
+                matched.add(pattern);
+            }
+        }
+    }
+}
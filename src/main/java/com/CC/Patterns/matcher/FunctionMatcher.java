@@ -4,32 +4,43 @@ package com.CC.Patterns.matcher;
 import com.CC.Contexts.Context;
 import com.CC.Patterns.types.MatcherType;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
 public class FunctionMatcher extends AbstractMatcher{
     private final String funcName;
     private final List<String> extraArgList;
+    // null when no mfunction file is loaded
+    private final MfuncInvoker mfuncInvoker;
+    // null: every match calls the mfunc
+    private MfuncMemo memo;
 
     public FunctionMatcher(String funcName, Object mfuncInstance){
         this.matcherType = MatcherType.function;
-        this.mfuncInstance = mfuncInstance;
+        this.mfuncInvoker = mfuncInstance == null ? null : MfuncInvoker.bind(mfuncInstance);
+        this.mfuncInstance = mfuncInvoker == null ? null : mfuncInvoker.getMfuncInstance();
         this.funcName = funcName;
         this.extraArgList = new ArrayList<>();
     }
 
     @Override
     public boolean match(Context context) {
-        boolean result = false;
-        try {
-            Method m = this.mfuncInstance.getClass().getMethod("mfunc", String.class, Class.forName("java.util.Map"), Class.forName("java.util.List"));
-            result = (boolean) m.invoke(this.mfuncInstance, funcName, context.getCtx_fields(), extraArgList);
-        } catch (NoSuchMethodException | ClassNotFoundException | InvocationTargetException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+        if(mfuncInvoker == null){
+            throw new RuntimeException("No mfunction loaded for function matcher \"" + funcName + "\"");
         }
-        return result;
+        if(memo != null){
+            return memo.match(mfuncInvoker, funcName, context.getCtx_fields(), extraArgList);
+        }
+        return mfuncInvoker.invoke(funcName, context.getCtx_fields(), extraArgList);
+    }
+
+    // only sound for mfuncs whose result depends on the fields they read and the extra arguments alone
+    public void enableMemo(int capacity){
+        this.memo = capacity > 0 ? new MfuncMemo(capacity) : null;
+    }
+
+    public boolean isMemoActive(){
+        return memo != null && !memo.isDisabled();
     }
 
     public void addExtraArg(String extraArg){
@@ -0,0 +1,61 @@
+package com.CC.Patterns.matcher;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * mfunc binding: resolve mfunc(String, Map, List) of the user's Mfunction class once,
+ * all FunctionMatchers share the cached handle
+ */
+public final class MfuncInvoker {
+
+    private static final MethodType MFUNC_TYPE = MethodType.methodType(boolean.class, String.class, Map.class, List.class);
+
+    private final Object mfuncInstance;
+    // (String, Map, List) -> boolean, receiver already bound
+    private final MethodHandle mfuncHandle;
+
+    private MfuncInvoker(Object mfuncInstance, MethodHandle mfuncHandle) {
+        this.mfuncInstance = mfuncInstance;
+        this.mfuncHandle = mfuncHandle;
+    }
+
+    public static MfuncInvoker bind(Object mfuncInstance) {
+        if(mfuncInstance instanceof MfuncInvoker){
+            return (MfuncInvoker) mfuncInstance;
+        }
+        try {
+            MethodHandle mh = MethodHandles.publicLookup()
+                    .findVirtual(mfuncInstance.getClass(), "mfunc", MFUNC_TYPE);
+            return new MfuncInvoker(mfuncInstance, mh.bindTo(mfuncInstance));
+        } catch (NoSuchMethodException e) {
+            // mfunc declared with a boxed return type
+            try {
+                MethodHandle mh = MethodHandles.publicLookup()
+                        .findVirtual(mfuncInstance.getClass(), "mfunc", MethodType.methodType(Boolean.class, String.class, Map.class, List.class));
+                return new MfuncInvoker(mfuncInstance, mh.bindTo(mfuncInstance).asType(MFUNC_TYPE));
+            } catch (NoSuchMethodException | IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean invoke(String funcName, Map<String, String> ctxFields, List<String> extraArgList) {
+        try {
+            return (boolean) mfuncHandle.invokeExact(funcName, (Map) ctxFields, (List) extraArgList);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Object getMfuncInstance() {
+        return mfuncInstance;
+    }
+}
@@ -0,0 +1,119 @@
+package com.CC.Patterns.matcher;
+
+import java.util.*;
+
+/*
+ * memo of one FunctionMatcher, keyed on the values of the fields the mfunc has read so far.
+ * every miss runs the mfunc on a tracing view of ctx_fields; when it reads a field outside the key,
+ * the key grows and the memo is cleared (entries keyed on fewer fields cannot be looked up any more).
+ * if the mfunc touches the map in any other way (iteration, size, writes) memoization is switched off.
+ */
+final class MfuncMemo {
+    private final int capacity;
+    private String[] keyFields = new String[0];
+    private final HashMap<List<String>, Boolean> results = new HashMap<>();
+    private boolean disabled = false;
+
+    MfuncMemo(int capacity) {
+        this.capacity = capacity;
+    }
+
+    boolean isDisabled() {
+        return disabled;
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    boolean match(MfuncInvoker invoker, String funcName, Map<String, String> ctxFields, List<String> extraArgList) {
+        if(disabled){
+            return invoker.invoke(funcName, ctxFields, extraArgList);
+        }
+        List<String> key = keyOf(ctxFields);
+        if(key != null){
+            Boolean cached = results.get(key);
+            if(cached != null){
+                return cached;
+            }
+        }
+        TracingFields tracing = new TracingFields(ctxFields);
+        boolean result = invoker.invoke(funcName, tracing, extraArgList);
+        if(tracing.wholeMap){
+            disabled = true;
+            results.clear();
+            return result;
+        }
+        if(key == null || !Arrays.asList(keyFields).containsAll(tracing.readFields)){
+            Set<String> fields = new LinkedHashSet<>(Arrays.asList(keyFields));
+            fields.addAll(tracing.readFields);
+            keyFields = fields.toArray(new String[0]);
+            results.clear();
+            key = keyOf(ctxFields);
+        }
+        if(results.size() >= capacity){
+            results.clear();
+        }
+        results.put(key, result);
+        return result;
+    }
+
+    // null while no field is known yet
+    private List<String> keyOf(Map<String, String> ctxFields) {
+        if(keyFields.length == 0){
+            return null;
+        }
+        String[] values = new String[keyFields.length];
+        for(int i = 0; i < keyFields.length; ++i){
+            values[i] = ctxFields.get(keyFields[i]);
+        }
+        return Arrays.asList(values);
+    }
+
+    // records the keys looked up, flags any other access
+    private static final class TracingFields extends AbstractMap<String, String> {
+        private final Map<String, String> fields;
+        private final Set<String> readFields = new LinkedHashSet<>();
+        private boolean wholeMap = false;
+
+        TracingFields(Map<String, String> fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public String get(Object key) {
+            readFields.add(String.valueOf(key));
+            return fields.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            readFields.add(String.valueOf(key));
+            return fields.containsKey(key);
+        }
+
+        @Override
+        public String getOrDefault(Object key, String defaultValue) {
+            readFields.add(String.valueOf(key));
+            return fields.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public String put(String key, String value) {
+            wholeMap = true;
+            return fields.put(key, value);
+        }
+
+        @Override
+        public String remove(Object key) {
+            wholeMap = true;
+            return fields.remove(key);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            wholeMap = true;
+            return fields.entrySet();
+        }
+    }
+}
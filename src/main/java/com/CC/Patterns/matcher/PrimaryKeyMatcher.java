@@ -5,28 +5,33 @@ import com.CC.Contexts.Context;
 import com.CC.Patterns.types.MatcherType;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PrimaryKeyMatcher extends AbstractMatcher{
     private final String field;
     private final List<String> optionalValueList;
+    private final Set<String> optionalValueSet;
 
     public PrimaryKeyMatcher(String field) {
         this.matcherType = MatcherType.primaryKey;
         this.mfuncInstance = null;
         this.field = field;
         this.optionalValueList = new ArrayList<>();
+        this.optionalValueSet = new HashSet<>();
     }
 
     @Override
     public boolean match(Context context) {
         String contextValue = context.getCtx_fields().get(field);
-        return optionalValueList.contains(contextValue);
+        return optionalValueSet.contains(contextValue);
     }
 
 
     public void addOptionalValue(String optionalValue){
         this.optionalValueList.add(optionalValue);
+        this.optionalValueSet.add(optionalValue);
     }
 
     public String getField() {
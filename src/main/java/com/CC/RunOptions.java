@@ -0,0 +1,148 @@
+package com.CC;
+
+import com.CC.Contexts.ContextSchema;
+import com.CC.Middleware.CheckExecutor;
+import com.CC.Middleware.Schedulers.BatchBound;
+import com.CC.Middleware.StreamingLinkSink;
+
+import java.util.Set;
+
+// optional tuning knobs of a run, defaults keep the original behaviour
+public class RunOptions {
+    // null: contexts keep their fields in a HashMap
+    private ContextSchema contextSchema = null;
+
+    // fields kept from the input records, null: all of them
+    private Set<String> keptFields = null;
+
+    // memo entries per function matcher, 0: mfuncs are called on every match
+    private int mfuncMemoCapacity = 0;
+
+    private CheckExecutor.Mode executorMode = CheckExecutor.Mode.FORKJOIN;
+
+    // threads of the shared checking executor, <= 0: one per available processor
+    // (VIRTUAL: bfunc calls in flight, <= 0: CheckExecutor.DEFAULT_BLOCKING_PERMITS)
+    private int threads = 0;
+
+    // batches of branch/truth/link tasks up to this size run sequentially, <= 0: CheckExecutor.DEFAULT_GRAIN
+    private int grain = 0;
+
+    // distinct incs lines remembered for dropping repeats, older repeats are written again
+    private int linkWindow = StreamingLinkSink.DEFAULT_DEDUP_WINDOW;
+
+    // links only when a rule's root truth flips and at the end of the run
+    private boolean lazyLinks = false;
+
+    // check the rules of a change in parallel (IMD and INFUSE_S)
+    private boolean ruleParallel = false;
+
+    // batching schedules: close a rule's batch at this many changes, <= 0: no cap
+    private int batchCap = 0;
+
+    // batching schedules: close a rule's batch when its oldest change is this old (millis), <= 0: no cap
+    private long batchAge = 0;
+
+    private BatchBound.Clock batchClock = BatchBound.Clock.WALL;
+
+    public RunOptions() {}
+
+    public ContextSchema getContextSchema() {
+        return contextSchema;
+    }
+
+    public void setContextSchema(ContextSchema contextSchema) {
+        this.contextSchema = contextSchema;
+    }
+
+    public Set<String> getKeptFields() {
+        return keptFields;
+    }
+
+    public void setKeptFields(Set<String> keptFields) {
+        this.keptFields = keptFields;
+    }
+
+    public int getMfuncMemoCapacity() {
+        return mfuncMemoCapacity;
+    }
+
+    public void setMfuncMemoCapacity(int mfuncMemoCapacity) {
+        this.mfuncMemoCapacity = mfuncMemoCapacity;
+    }
+
+    public CheckExecutor.Mode getExecutorMode() {
+        return executorMode;
+    }
+
+    public void setExecutorMode(CheckExecutor.Mode executorMode) {
+        this.executorMode = executorMode;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getGrain() {
+        return grain;
+    }
+
+    public void setGrain(int grain) {
+        this.grain = grain;
+    }
+
+    public int getLinkWindow() {
+        return linkWindow;
+    }
+
+    public void setLinkWindow(int linkWindow) {
+        this.linkWindow = linkWindow;
+    }
+
+    public boolean isLazyLinks() {
+        return lazyLinks;
+    }
+
+    public void setLazyLinks(boolean lazyLinks) {
+        this.lazyLinks = lazyLinks;
+    }
+
+    public boolean isRuleParallel() {
+        return ruleParallel;
+    }
+
+    public void setRuleParallel(boolean ruleParallel) {
+        this.ruleParallel = ruleParallel;
+    }
+
+    public int getBatchCap() {
+        return batchCap;
+    }
+
+    public void setBatchCap(int batchCap) {
+        this.batchCap = batchCap;
+    }
+
+    public long getBatchAge() {
+        return batchAge;
+    }
+
+    public void setBatchAge(long batchAge) {
+        this.batchAge = batchAge;
+    }
+
+    public BatchBound.Clock getBatchClock() {
+        return batchClock;
+    }
+
+    public void setBatchClock(BatchBound.Clock batchClock) {
+        this.batchClock = batchClock;
+    }
+
+    public boolean isBatchBounded() {
+        return batchCap > 0 || batchAge > 0;
+    }
+}
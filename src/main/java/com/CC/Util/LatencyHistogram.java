@@ -0,0 +1,73 @@
+package com.CC.Util;
+
+/*
+ * distribution of non-negative durations in fixed memory: log-linear buckets,
+ * 16 per power of two, so a reported percentile is at most 1/16 below the recorded value.
+ * not thread-safe.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_COUNT];
+    private long total = 0;
+    private long max = 0;
+    private long sum = 0;
+
+    public void record(long value) {
+        if(value < 0){
+            value = 0;
+        }
+        counts[bucketOf(value)]++;
+        total++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    // lower bound of the bucket holding the given quantile (0..1), 0 when empty
+    public long quantile(double q) {
+        if(total == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for(int i = 0; i < counts.length; ++i){
+            seen += counts[i];
+            if(seen >= rank){
+                return Math.min(lowerBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if(value < SUB_COUNT){
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long lowerBound(int bucket) {
+        if(bucket < SUB_COUNT){
+            return bucket;
+        }
+        int exp = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = bucket % SUB_COUNT;
+        return (SUB_COUNT + sub) << (exp - SUB_BITS);
+    }
+}
@@ -0,0 +1,80 @@
+package com.CC.Util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// line reader over a reused char buffer, no String per line (BufferedReader.readLine allocates one)
+public class LineReader implements Closeable {
+    private final Reader reader;
+    private final char[] chunk = new char[8192];
+    private int chunkPos = 0;
+    private int chunkEnd = 0;
+    // the last line ended with '\r', a '\n' right after it belongs to the same line end
+    private boolean skipLF = false;
+
+    private char[] line = new char[1024];
+    private int length = 0;
+
+    public LineReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // false at end of input; the line is in getLine()[0, getLength()) until the next call.
+    // lines end at '\n', '\r' or "\r\n", as with BufferedReader.readLine
+    public boolean nextLine() throws IOException {
+        length = 0;
+        boolean any = false;
+        while(true){
+            if(chunkPos == chunkEnd){
+                chunkEnd = reader.read(chunk, 0, chunk.length);
+                chunkPos = 0;
+                if(chunkEnd <= 0){
+                    chunkEnd = 0;
+                    return any;
+                }
+            }
+            if(skipLF){
+                skipLF = false;
+                if(chunk[chunkPos] == '\n'){
+                    chunkPos++;
+                    continue;
+                }
+            }
+            any = true;
+            int start = chunkPos;
+            while(chunkPos < chunkEnd && chunk[chunkPos] != '\n' && chunk[chunkPos] != '\r'){
+                chunkPos++;
+            }
+            append(start, chunkPos);
+            if(chunkPos < chunkEnd){
+                skipLF = chunk[chunkPos] == '\r';
+                chunkPos++;
+                return true;
+            }
+        }
+    }
+
+    private void append(int from, int to) {
+        int n = to - from;
+        if(length + n > line.length){
+            line = Arrays.copyOf(line, Math.max(length + n, line.length * 2));
+        }
+        System.arraycopy(chunk, from, line, length, n);
+        length += n;
+    }
+
+    public char[] getLine() {
+        return line;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
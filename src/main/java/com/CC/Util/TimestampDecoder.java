@@ -0,0 +1,176 @@
+package com.CC.Util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.TimeZone;
+
+/*
+ * decoder for the data timestamps "yyyy-MM-dd HH:mm:ss:SSS" (local time) -> epoch millis,
+ * plain epoch millis are passed through.
+ * the fixed layout is decoded by hand without allocation; anything else (other layouts, out-of-range
+ * fields, local times in a DST gap/overlap) goes to a per-thread lenient SimpleDateFormat, so results
+ * are the same as before. safe to share between ingest threads.
+ */
+public final class TimestampDecoder {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss:SSS";
+
+    private static final long MILLIS_PER_DAY = 24 * 3600 * 1000L;
+
+    // local-time range [fromLocal, toLocal) with a single offset
+    private static final class OffsetWindow {
+        final long fromLocal;
+        final long toLocal;
+        final long offsetMillis;
+
+        OffsetWindow(long fromLocal, long toLocal, long offsetMillis) {
+            this.fromLocal = fromLocal;
+            this.toLocal = toLocal;
+            this.offsetMillis = offsetMillis;
+        }
+    }
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private volatile OffsetWindow window;
+    private final ThreadLocal<SimpleDateFormat> fallback;
+
+    public TimestampDecoder() {
+        this(ZoneId.systemDefault());
+    }
+
+    public TimestampDecoder(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.window = rules.isFixedOffset()
+                ? new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L)
+                : null;
+        this.fallback = ThreadLocal.withInitial(() -> {
+            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(PATTERN);
+            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(zone));
+            return simpleDateFormat;
+        });
+    }
+
+    public long decode(CharSequence text) throws ParseException {
+        int len = text.length();
+        if(len == PATTERN.length()
+                && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == ' '
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(19) == ':'){
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            int second = digits(text, 17, 19);
+            int milli = digits(text, 20, 23);
+            if(year >= 1900 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59 && second >= 0 && second <= 59 && milli >= 0){
+                long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                        + ((hour * 60L + minute) * 60L + second) * 1000L + milli;
+                OffsetWindow w = window;
+                if(w == null || local < w.fromLocal || local >= w.toLocal){
+                    w = locateWindow(local);
+                }
+                if(w != null){
+                    return local - w.offsetMillis;
+                }
+            }
+        }
+        else if(len > 0 && isEpochMillis(text)){
+            return parseLong(text);
+        }
+        return fallback.get().parse(text.toString()).getTime();
+    }
+
+    // null when the local time is in a gap/overlap
+    private OffsetWindow locateWindow(long local) {
+        LocalDateTime ldt = LocalDateTime.ofEpochSecond(Math.floorDiv(local, 1000L), (int) Math.floorMod(local, 1000L) * 1000000, ZoneOffset.UTC);
+        List<ZoneOffset> offsets = rules.getValidOffsets(ldt);
+        if(offsets.size() != 1){
+            return null;
+        }
+        long offsetMillis = offsets.get(0).getTotalSeconds() * 1000L;
+        Instant instant = Instant.ofEpochMilli(local - offsetMillis);
+        ZoneOffsetTransition prev = rules.previousTransition(instant);
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long from = prev == null ? Long.MIN_VALUE
+                : prev.toEpochSecond() * 1000L + Math.max(prev.getOffsetBefore().getTotalSeconds(), prev.getOffsetAfter().getTotalSeconds()) * 1000L;
+        long to = next == null ? Long.MAX_VALUE
+                : next.toEpochSecond() * 1000L + Math.min(next.getOffsetBefore().getTotalSeconds(), next.getOffsetAfter().getTotalSeconds()) * 1000L;
+        OffsetWindow w = new OffsetWindow(from, to, offsetMillis);
+        window = w;
+        return w;
+    }
+
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for(int i = from; i < to; ++i){
+            char c = text.charAt(i);
+            if(c < '0' || c > '9'){
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isEpochMillis(CharSequence text) {
+        int i = text.charAt(0) == '-' ? 1 : 0;
+        int len = text.length();
+        if(i == len || len - i > 18){
+            return false;
+        }
+        for(; i < len; ++i){
+            char c = text.charAt(i);
+            if(c < '0' || c > '9'){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseLong(CharSequence text) {
+        boolean negative = text.charAt(0) == '-';
+        long value = 0;
+        for(int i = negative ? 1 : 0; i < text.length(); ++i){
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // proleptic Gregorian date -> days since 1970-01-01
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+}
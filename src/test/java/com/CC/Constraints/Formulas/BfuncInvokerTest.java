@@ -0,0 +1,49 @@
+package com.CC.Constraints.Formulas;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BfuncInvokerTest {
+
+    public static class SampleBfunc {
+        public boolean bfunc(String funcName, Map<String, Map<String, String>> vcMap) {
+            if(funcName.equals("same_taxi")){
+                return vcMap.get("v1").get("taxiId").equals(vcMap.get("v2").get("taxiId"));
+            }
+            return Double.parseDouble(vcMap.get("v1").get("speed")) <= 60;
+        }
+    }
+
+    @Test
+    public void sameResultsAsReflection() throws Exception {
+        Object bfuncInstance = new SampleBfunc();
+        BfuncInvoker invoker = BfuncInvoker.bind(bfuncInstance);
+        Method m = bfuncInstance.getClass().getMethod("bfunc", String.class, Map.class);
+        for(String speed : new String[]{"42", "61"}){
+            Map<String, Map<String, String>> vcMap = new HashMap<>();
+            vcMap.put("v1", Map.of("taxiId", "B01234", "speed", speed));
+            vcMap.put("v2", Map.of("taxiId", speed.equals("42") ? "B01234" : "B05678", "speed", speed));
+            for(String func : new String[]{"same_taxi", "speed_ok"}){
+                assertEquals(m.invoke(bfuncInstance, func, vcMap), invoker.invoke(func, vcMap));
+            }
+        }
+    }
+
+    // platform threads reuse their vcMap, a virtual thread gets its own
+    @Test
+    public void argsArePooledOnPlatformThreadsOnly() throws Exception {
+        assertSame(BfuncArgs.acquire(), BfuncArgs.acquire());
+        BfuncArgs[] onVirtual = new BfuncArgs[2];
+        Thread thread = Thread.ofVirtual().start(() -> {
+            onVirtual[0] = BfuncArgs.acquire();
+            onVirtual[1] = BfuncArgs.acquire();
+        });
+        thread.join();
+        assertNotSame(onVirtual[0], onVirtual[1]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.CC.Constraints.Rules;
+
+import com.CC.Constraints.Formulas.FBfunc;
+import com.CC.Constraints.Formulas.FForall;
+import com.CC.Contexts.Context;
+import com.CC.Contexts.ContextChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleTest {
+
+    // forall v1 in pat_1: an addition to pat_1 is Plus, a deletion Minus
+    static Rule forallRule() {
+        Rule rule = new Rule("rule_01");
+        FForall forall = new FForall("v1", "pat_1");
+        forall.setSubformula(new FBfunc("same"));
+        rule.setFormula(forall);
+        rule.getVarPatternMap().put("v1", "pat_1");
+        rule.deriveSConditions();
+        return rule;
+    }
+
+    static ContextChange change(ContextChange.Change_Type type, String pattern_id, long id) {
+        Context context = new Context();
+        context.setId(id);
+        return new ContextChange(type, pattern_id, context);
+    }
+
+    static ContextChange plus(long id) {
+        return change(ContextChange.Change_Type.ADDITION, "pat_1", id);
+    }
+
+    static ContextChange minus(long id) {
+        return change(ContextChange.Change_Type.DELETION, "pat_1", id);
+    }
+
+    @Test
+    public void incTypesFollowTheFormula() {
+        Rule rule = forallRule();
+        assertEquals("Plus", rule.getIncType(plus(1)));
+        assertEquals("Minus", rule.getIncType(minus(1)));
+        assertEquals("NotThisRule", rule.getIncType(change(ContextChange.Change_Type.ADDITION, "pat_2", 1)));
+    }
+
+    @Test
+    public void batchPlusCountsAddedChanges() {
+        Rule rule = forallRule();
+        assertEquals(0, rule.getBatchPlus());
+        rule.setBatch(new ArrayList<>(List.of(minus(1))));
+        assertEquals(0, rule.getBatchPlus());
+        rule.addToBatch(plus(2));
+        rule.addToBatch(minus(3));
+        rule.addToBatch(plus(4));
+        assertEquals(2, rule.getBatchPlus());
+        assertEquals(4, rule.getBatch().size());
+    }
+
+    @Test
+    public void batchPlusFollowsCancelledChanges() {
+        Rule rule = forallRule();
+        ContextChange add = plus(1), del = minus(2), other = plus(3);
+        rule.setBatch(new ArrayList<>(List.of(add, del, other)));
+        assertEquals(2, rule.getBatchPlus());
+
+        // GEAS_opt C-condition: the cancelled change leaves the batch
+        assertTrue(rule.removeFromBatch(add));
+        assertEquals(1, rule.getBatchPlus());
+        assertTrue(rule.removeFromBatch(del));
+        assertEquals(1, rule.getBatchPlus());
+        // a change not in the batch leaves the count alone
+        assertFalse(rule.removeFromBatch(add));
+        assertFalse(rule.removeFromBatch(plus(3)));
+        assertEquals(1, rule.getBatchPlus());
+        assertEquals(List.of(other), rule.getBatch());
+    }
+
+    @Test
+    public void setBatchRecountsTheNewBatch() {
+        Rule rule = forallRule();
+        rule.setBatch(new ArrayList<>(List.of(plus(1), plus(2))));
+        assertEquals(2, rule.getBatchPlus());
+
+        // the new batch of an S-condition match replaces the checked one
+        rule.setBatch(new ArrayList<>(List.of(minus(1))));
+        assertEquals(0, rule.getBatchPlus());
+        rule.setBatch(new ArrayList<>(List.of(plus(3), minus(4))));
+        assertEquals(1, rule.getBatchPlus());
+        rule.setBatch(null);
+        assertEquals(0, rule.getBatchPlus());
+    }
+}
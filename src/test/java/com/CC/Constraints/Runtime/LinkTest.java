@@ -0,0 +1,81 @@
+package com.CC.Constraints.Runtime;
+
+import com.CC.Contexts.Context;
+import com.CC.Middleware.LinkSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkTest {
+
+    static Context ctx(long id) {
+        Context context = new Context();
+        context.setId(id);
+        return context;
+    }
+
+    static final VarSlots VARS = new VarSlots();
+
+    static {
+        VARS.register("a");
+        VARS.register("b");
+    }
+
+    static Link link(String var, long id) {
+        return new Link(Link.Link_Type.VIOLATED, VARS.slotOf(var), ctx(id));
+    }
+
+    @Test
+    public void mergeIsOrderIndependent() {
+        Link ab = link("a", 1).merge(link("b", 2));
+        Link ba = link("b", 2).merge(link("a", 1));
+        assertEquals(ab, ba);
+        assertEquals(ab.hashCode(), ba.hashCode());
+        assertEquals(2, ab.size());
+        assertEquals("a", ab.getVar(0, VARS));
+        assertEquals(ab.getSlot(0), ba.getSlot(0));
+        assertEquals(ab.getContextId(0), ba.getContextId(0));
+    }
+
+    @Test
+    public void sameAssignmentIsKeptOnce() {
+        Link a = link("a", 1);
+        assertEquals(1, a.merge(link("a", 1)).size());
+        // one variable bound to two contexts keeps both, like the old entry set
+        assertEquals(2, a.merge(link("a", 3)).size());
+        assertSame(a, a.merge(new Link(Link.Link_Type.VIOLATED)));
+    }
+
+    @Test
+    public void foreignIdsArePrintedAsTheyAre() {
+        Context taxi = new Context();
+        taxi.setCtx_id("taxi-a");
+        Link link = new Link(Link.Link_Type.VIOLATED, VARS.slotOf("b"), taxi).merge(link("a", 1));
+        assertNull(link.getForeignId(0));
+        assertEquals("taxi-a", link.getForeignId(1));
+        assertEquals("taxi-a", link.flip().getForeignId(1));
+        assertEquals("rule_01(VIOLATED,{(a,2),(b,taxi-a)})", LinkSink.format("rule_01", VARS, false, link));
+        assertNull(link("a", 1).merge(link("b", 2)).getForeignId(1));
+    }
+
+    @Test
+    public void cartesianSetSharesAssignments() {
+        LGUtils lgUtils = new LGUtils();
+        Set<Link> left = new HashSet<>(Set.of(link("a", 1), link("a", 2)));
+        Set<Link> right = new HashSet<>(Set.of(link("b", 3), link("b", 4), link("b", 5)));
+        Set<Link> product = lgUtils.cartesianSet(left, right);
+        assertEquals(6, product.size());
+        assertTrue(product.contains(link("b", 5).merge(link("a", 2))));
+
+        Set<Link> flipped = lgUtils.flipSet(product);
+        assertEquals(6, flipped.size());
+        for(Link link : flipped){
+            assertEquals(Link.Link_Type.SATISFIED, link.getLinkType());
+            assertFalse(product.contains(link));
+            assertTrue(product.contains(link.flip()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.CC.Constraints.Runtime;
+
+import com.CC.Constraints.Formulas.FBfunc;
+import com.CC.Constraints.Formulas.FForall;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuntimeNodeTest {
+
+    @Test
+    public void trueKidsFollowsAddRemoveAndTruth() {
+        RuntimeNode parent = new RuntimeNode(new FForall("v1", "pat_1"));
+        RuntimeNode kid1 = new RuntimeNode(new FBfunc("func"));
+        RuntimeNode kid2 = new RuntimeNode(new FBfunc("func"));
+        kid1.setTruth(true);
+        parent.addKid(kid1);
+        parent.addKid(kid2);
+        assertEquals(1, parent.getTrueKids());
+        assertEquals(1, parent.getFalseKids());
+
+        kid2.setTruth(true);
+        kid2.setTruth(true);
+        assertEquals(2, parent.getTrueKids());
+        kid1.setTruth(false);
+        assertEquals(1, parent.getTrueKids());
+
+        assertTrue(parent.removeKid(kid2));
+        assertFalse(parent.removeKid(kid2));
+        assertEquals(0, parent.getTrueKids());
+        assertEquals(1, parent.getFalseKids());
+        // a removed kid no longer counts
+        kid2.setTruth(false);
+        assertEquals(0, parent.getTrueKids());
+    }
+
+    @Test
+    public void linksDirtyIsMarkedUpToTheRoot() {
+        RuntimeNode root = new RuntimeNode(new FForall("v1", "pat_1"));
+        RuntimeNode kid = new RuntimeNode(new FForall("v2", "pat_2"));
+        RuntimeNode leaf = new RuntimeNode(new FBfunc("func"));
+        root.addKid(kid);
+        kid.addKid(leaf);
+        for(RuntimeNode node : new RuntimeNode[]{leaf, kid, root}){
+            assertTrue(node.isLinksDirty());
+            node.setLinks(new HashSet<>());
+            assertFalse(node.isLinksDirty());
+        }
+
+        leaf.setTruth(leaf.isTruth());
+        assertFalse(root.isLinksDirty());
+        leaf.setTruth(!leaf.isTruth());
+        assertTrue(leaf.isLinksDirty());
+        assertTrue(kid.isLinksDirty());
+        assertTrue(root.isLinksDirty());
+
+        // a kid skipped by its holder's generation stays dirty: changes below it stop there,
+        // only its own truth reaches the holder
+        root.setLinks(new HashSet<>());
+        leaf.setTruth(!leaf.isTruth());
+        assertFalse(root.isLinksDirty());
+        kid.setTruth(!kid.isTruth());
+        assertTrue(root.isLinksDirty());
+
+        root.setLinks(new HashSet<>());
+        kid.setLinks(new HashSet<>());
+        assertTrue(kid.removeKid(leaf));
+        assertTrue(kid.isLinksDirty());
+        assertTrue(root.isLinksDirty());
+    }
+}
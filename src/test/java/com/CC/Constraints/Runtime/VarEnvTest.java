@@ -0,0 +1,73 @@
+package com.CC.Constraints.Runtime;
+
+import com.CC.Contexts.Context;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VarEnvTest {
+
+    static Context ctx(long id) {
+        Context context = new Context();
+        context.setId(id);
+        return context;
+    }
+
+    static VarSlots slots(String... vars) {
+        VarSlots slots = new VarSlots();
+        for(String var : vars){
+            slots.register(var);
+        }
+        return slots;
+    }
+
+    @Test
+    public void bindLeavesParentUnchanged() {
+        VarSlots slots = slots("v1", "v2");
+        Context c1 = ctx(1), c2 = ctx(2);
+        VarEnv parent = slots.emptyEnv().bind("v1", c1);
+        VarEnv child = parent.bind(slots.slotOf("v2"), c2);
+        assertEquals(1, parent.size());
+        assertNull(parent.get("v2"));
+        assertSame(c1, child.get(slots.slotOf("v1")));
+        assertSame(c2, child.get("v2"));
+        assertTrue(child.containsValue(c1));
+        assertEquals(Map.of("v1", c1, "v2", c2), child);
+    }
+
+    @Test
+    public void rebindReplacesContext() {
+        VarSlots slots = slots("v1");
+        Context c1 = ctx(1), c3 = ctx(3);
+        VarEnv env = slots.emptyEnv().bind("v1", c1).bind("v1", c3);
+        assertEquals(1, env.size());
+        assertSame(c3, env.get("v1"));
+        assertFalse(env.containsValue(c1));
+        // unknown variables are not registered by lookups
+        assertNull(env.get("unknown"));
+        assertEquals(-1, slots.slotOf("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> env.bind("unknown", c1));
+    }
+
+    @Test
+    public void slotsArePerRule() {
+        VarSlots rule1 = slots("a1", "a2", "a3");
+        VarSlots rule2 = slots("b1");
+        assertEquals(0, rule1.slotOf("a1"));
+        assertEquals(0, rule2.slotOf("b1"));
+        assertEquals(-1, rule2.slotOf("a1"));
+        assertSame(rule2, rule2.emptyEnv().getSlots());
+        // the same slot names a different variable in each rule
+        assertEquals(Map.of("b1", ctx(1)), rule2.emptyEnv().bind(0, ctx(1)));
+        assertEquals(Map.of("a1", ctx(1)), rule1.emptyEnv().bind(0, ctx(1)));
+    }
+
+    @Test
+    public void mapViewIsReadOnly() {
+        VarEnv env = slots("v1", "v2").emptyEnv().bind("v1", ctx(1));
+        assertThrows(UnsupportedOperationException.class, () -> env.put("v2", ctx(2)));
+        assertThrows(UnsupportedOperationException.class, () -> env.entrySet().clear());
+    }
+}
@@ -0,0 +1,50 @@
+package com.CC.Constraints.Runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualTruthMapTest {
+
+    @Test
+    public void putOverwritesAndRemoveReturnsOld() {
+        VirtualTruthMap map = new VirtualTruthMap();
+        assertNull(map.get(0));
+        assertNull(map.remove(0));
+        map.put(0, RuntimeNode.Virtual_Truth_Type.TRUE);
+        map.put(0, RuntimeNode.Virtual_Truth_Type.UNKNOWN);
+        assertEquals(1, map.size());
+        assertEquals(RuntimeNode.Virtual_Truth_Type.UNKNOWN, map.get(0));
+        assertEquals(RuntimeNode.Virtual_Truth_Type.UNKNOWN, map.remove(0));
+        assertEquals(0, map.size());
+        assertNull(map.get(0));
+    }
+
+    @Test
+    public void matchesHashMapUnderChurn() {
+        RuntimeNode.Virtual_Truth_Type[] types = RuntimeNode.Virtual_Truth_Type.values();
+        Random random = new Random(7);
+        VirtualTruthMap map = new VirtualTruthMap();
+        Map<Long, RuntimeNode.Virtual_Truth_Type> expected = new HashMap<>();
+        for(int i = 0; i < 200_000; ++i){
+            // small key range, so probe runs collide and removals shift entries back
+            long id = random.nextInt(512) - 64;
+            if(random.nextInt(3) == 0){
+                assertEquals(expected.remove(id), map.remove(id));
+            }
+            else{
+                RuntimeNode.Virtual_Truth_Type truth = types[random.nextInt(types.length)];
+                expected.put(id, truth);
+                map.put(id, truth);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for(long id = -64; id < 448; ++id){
+            assertEquals(expected.get(id), map.get(id));
+        }
+    }
+}
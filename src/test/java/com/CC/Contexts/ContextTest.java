@@ -0,0 +1,83 @@
+package com.CC.Contexts;
+
+import com.CC.Patterns.PatternHandler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextTest {
+
+    static Context context(String ctx_id){
+        Context context = new Context();
+        context.setCtx_id(ctx_id);
+        return context;
+    }
+
+    static String changeLine(String type, String ctx_id){
+        return "{\"changeType\":\"" + type + "\",\"patternId\":\"pat_1\",\"context\":{\"contextId\":\"" + ctx_id + "\",\"fields\":{}}}";
+    }
+
+    @Test
+    public void onlyCanonicalIdsAreParsed(){
+        assertEquals(7, Context.parseId("ctx_7"));
+        assertEquals(0, Context.parseId("ctx_0"));
+        assertEquals(-1, Context.parseId("7"));
+        assertEquals(-1, Context.parseId("ctx_07"));
+        assertEquals(-1, Context.parseId("ctx_"));
+        assertEquals(-1, Context.parseId("ctx_7a"));
+        assertEquals(-1, Context.parseId("ctx_1234567890123456789"));
+    }
+
+    @Test
+    public void distinctIdStringsStayDistinct(){
+        Context canonical = context("ctx_7");
+        Context numbered = new Context();
+        numbered.setId(7);
+        assertEquals(canonical, numbered);
+        assertEquals(canonical.hashCode(), numbered.hashCode());
+
+        assertNotEquals(canonical, context("7"));
+        assertNotEquals(canonical, context("ctx_07"));
+        assertNotEquals(context("7"), context("ctx_07"));
+        assertEquals(context("7"), context("7"));
+        assertEquals("ctx_07", context("ctx_07").getCtx_id());
+    }
+
+    @Test
+    public void foreignIdsGetDistinctIds(){
+        // plain numbers as the repair side sets them: one id per string, none shared with "ctx_N"
+        Context zero = context("0"), one = context("1"), seven = context("7");
+        assertTrue(zero.getId() < 0 && one.getId() < 0);
+        assertNotEquals(zero.getId(), one.getId());
+        assertNotEquals(seven.getId(), context("ctx_7").getId());
+        assertNotEquals(seven.getId(), context("ctx_07").getId());
+        assertEquals(one.getId(), context("1").getId());
+    }
+
+    @Test
+    public void foreignIdsAreHeldWhileInAPattern() throws Exception {
+        ContextHandler handler = new ContextHandler(new PatternHandler(), "change");
+        Context added = handler.generateChanges(changeLine("+", "taxi-a")).get(0).getContext();
+        Context again = handler.generateChanges(changeLine("+", "taxi-a")).get(0).getContext();
+        Context other = handler.generateChanges(changeLine("+", "taxi-b")).get(0).getContext();
+        assertTrue(added.getId() < 0);
+        assertEquals(added.getId(), again.getId());
+        assertNotEquals(added.getId(), other.getId());
+        assertEquals(2, handler.getForeignIdCount());
+
+        handler.generateChanges(changeLine("-", "taxi-a"));
+        assertEquals(2, handler.getForeignIdCount());
+        Context deleted = handler.generateChanges(changeLine("-", "taxi-a")).get(0).getContext();
+        assertEquals(added.getId(), deleted.getId());
+        assertEquals(1, handler.getForeignIdCount());
+        handler.generateChanges(changeLine("-", "taxi-b"));
+        assertEquals(0, handler.getForeignIdCount());
+        // released, a later addition gets a new id
+        assertNotEquals(added.getId(), handler.generateChanges(changeLine("+", "taxi-a")).get(0).getContext().getId());
+        handler.generateChanges(changeLine("-", "taxi-a"));
+
+        // a canonical id is its own number and takes no entry
+        assertEquals(3, handler.generateChanges(changeLine("+", "ctx_3")).get(0).getContext().getId());
+        assertEquals(0, handler.getForeignIdCount());
+    }
+}
@@ -0,0 +1,42 @@
+package com.CC.Contexts;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiryQueueTest {
+
+    static Context ctx(long id){
+        Context context = new Context();
+        context.setId(id);
+        return context;
+    }
+
+    @Test
+    public void fifoWithOutOfOrderRecords(){
+        ExpiryQueue queue = new ExpiryQueue("pat_000", 2000);
+        assertEquals(Long.MAX_VALUE, queue.peekTime());
+        // wrap the ring buffer a few times, then insert late records
+        long id = 0;
+        for(int i = 0; i < 100; ++i){
+            queue.add(i * 10L, ctx(id++));
+            if(i % 3 == 0){
+                queue.poll();
+            }
+        }
+        queue.add(905L, ctx(1000));
+        queue.add(990L, ctx(1001));
+        long prev = Long.MIN_VALUE;
+        int n = queue.size();
+        for(int i = 0; i < n; ++i){
+            long time = queue.peekTime();
+            assertTrue(time >= prev);
+            prev = time;
+            Context context = queue.poll();
+            if(time == 905L){
+                assertEquals(1000L, context.getId());
+            }
+        }
+        assertEquals(0, queue.size());
+    }
+}
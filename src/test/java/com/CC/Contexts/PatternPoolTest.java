@@ -0,0 +1,119 @@
+package com.CC.Contexts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternPoolTest {
+
+    static Context ctx(long id) {
+        Context context = new Context();
+        context.setId(id);
+        return context;
+    }
+
+    @Test
+    public void viewsShareEntriesUntilTheLastRemove() {
+        PatternPool pool = new PatternPool();
+        Set<Context> rule1 = pool.newView();
+        Set<Context> rule2 = pool.newView();
+        Context c1 = ctx(1), c2 = ctx(2);
+
+        assertTrue(rule1.add(c1));
+        assertFalse(rule1.add(c1));
+        assertTrue(rule2.add(c1));
+        rule1.add(c2);
+        assertEquals(2, pool.size());
+        assertEquals(Set.of(c1, c2), rule1);
+        assertEquals(Set.of(c1), rule2);
+        assertFalse(rule2.contains(c2));
+
+        assertTrue(rule1.remove(c1));
+        assertFalse(rule1.remove(c1));
+        assertEquals(2, pool.size());
+        assertTrue(rule2.contains(c1));
+        assertTrue(rule2.remove(c1));
+        assertEquals(1, pool.size());
+        assertEquals(0, rule2.size());
+        assertFalse(rule2.iterator().hasNext());
+    }
+
+    @Test
+    public void matchesPerRuleHashSets() {
+        // more views than fit in one mask word
+        PatternPool pool = new PatternPool();
+        List<Set<Context>> views = new ArrayList<>();
+        List<Set<Context>> expected = new ArrayList<>();
+        for(int i = 0; i < 70; ++i){
+            views.add(pool.newView());
+            expected.add(new HashSet<>());
+        }
+        Random random = new Random(11);
+        for(int i = 0; i < 50_000; ++i){
+            int rule = random.nextInt(views.size());
+            Context context = ctx(random.nextInt(64));
+            if(random.nextBoolean()){
+                assertEquals(expected.get(rule).add(context), views.get(rule).add(context));
+            }
+            else{
+                assertEquals(expected.get(rule).remove(context), views.get(rule).remove(context));
+            }
+        }
+        Set<Context> union = new HashSet<>();
+        for(int rule = 0; rule < views.size(); ++rule){
+            assertEquals(expected.get(rule), views.get(rule));
+            assertEquals(expected.get(rule).size(), views.get(rule).size());
+            union.addAll(expected.get(rule));
+        }
+        assertEquals(union.size(), pool.size());
+    }
+
+    @Test
+    public void iterationFollowsInsertionWithSwapRemove() {
+        PatternPool pool = new PatternPool();
+        Set<Context> view = pool.newView();
+        for(long id = 1; id <= 5; ++id){
+            view.add(ctx(id));
+        }
+        view.remove(ctx(2));
+        List<Long> ids = new ArrayList<>();
+        for(Context context : view){
+            ids.add(context.getId());
+        }
+        // the last context took the removed one's place
+        assertEquals(List.of(1L, 5L, 3L, 4L), ids);
+
+        Iterator<Context> iterator = view.iterator();
+        while(iterator.hasNext()){
+            if(iterator.next().getId() % 2 == 1){
+                iterator.remove();
+            }
+        }
+        assertEquals(Set.of(ctx(4)), view);
+        assertEquals(1, pool.size());
+    }
+
+    // the pool traffic of a checking run: a sliding window of live contexts and a full iteration per batch
+    @Test
+    public void slidingWindowMatchesHashSet() {
+        Set<Context> hashSet = new HashSet<>();
+        Set<Context> view = new PatternPool().newView();
+        for(Set<Context> poolSet : List.of(hashSet, view)){
+            for(int i = 0; i < 64; ++i){
+                poolSet.add(ctx(i));
+            }
+        }
+        for(int i = 0; i < 2000; ++i){
+            for(Set<Context> poolSet : List.of(hashSet, view)){
+                poolSet.remove(ctx(i));
+                poolSet.add(ctx(64 + i));
+            }
+            if(i % 8 == 0){
+                assertEquals(hashSet, new HashSet<>(view));
+            }
+        }
+        assertEquals(hashSet, view);
+    }
+}
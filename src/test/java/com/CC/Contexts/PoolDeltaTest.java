@@ -0,0 +1,45 @@
+package com.CC.Contexts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolDeltaTest {
+
+    static ContextChange change(ContextChange.Change_Type type, String pattern_id, long id) {
+        Context context = new Context();
+        context.setId(id);
+        return new ContextChange(type, pattern_id, context);
+    }
+
+    @Test
+    public void batchFoldsIntoAddDelAndUpd() {
+        PoolDelta delta = new PoolDelta.Builder()
+                .apply(change(ContextChange.Change_Type.ADDITION, "pat_a", 1))
+                .apply(change(ContextChange.Change_Type.DELETION, "pat_a", 1))
+                .apply(change(ContextChange.Change_Type.DELETION, "pat_a", 2))
+                .apply(change(ContextChange.Change_Type.ADDITION, "pat_a", 2))
+                .apply(change(ContextChange.Change_Type.DELETION, "pat_a", 3))
+                .apply(change(ContextChange.Change_Type.ADDITION, "pat_b", 4))
+                .build();
+        // 1 was added and deleted within the batch
+        assertEquals(Set.of(), delta.getAddSet("pat_a"));
+        assertEquals(1, delta.getUpdSet("pat_a").size());
+        assertEquals(2, delta.getUpdSet("pat_a").iterator().next().getId());
+        assertEquals(1, delta.getDelSet("pat_a").size());
+        assertEquals(3, delta.getDelSet("pat_a").iterator().next().getId());
+        assertEquals(1, delta.getAddSet("pat_b").size());
+        assertTrue(delta.getDelSet("pat_unknown").isEmpty());
+    }
+
+    @Test
+    public void deltaIsImmutable() {
+        PoolDelta delta = new PoolDelta.Builder()
+                .apply(change(ContextChange.Change_Type.ADDITION, "pat_a", 1))
+                .build();
+        assertThrows(UnsupportedOperationException.class, () -> delta.getAddSet("pat_a").clear());
+        assertThrows(UnsupportedOperationException.class, () -> PoolDelta.EMPTY.getAddSet("pat_a").add(new Context()));
+    }
+}
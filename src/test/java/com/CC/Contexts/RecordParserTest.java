@@ -0,0 +1,52 @@
+package com.CC.Contexts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordParserTest {
+
+    @Test
+    public void rawDataRecord(){
+        RecordParser parser = new RecordParser();
+        Context context = new Context();
+        parser.reset("{\"timestamp\": \"2011-04-08 04:00:00:806\", \"fields\" : {\"taxiId\": \"B0\\\"1\\u0030\", \"longitude\": 114.195920, \"tags\": [1, {\"a\": \"}\"}], \"status\": null}}");
+        parser.beginObject();
+        assertEquals("timestamp", parser.nextName());
+        assertEquals("2011-04-08 04:00:00:806", parser.nextChars().toString());
+        assertEquals("fields", parser.nextName());
+        parser.readFields(context);
+        assertNull(parser.nextName());
+
+        assertEquals("B0\"10", context.getCtx_fields().get("taxiId"));
+        assertEquals("114.195920", context.getCtx_fields().get("longitude"));
+        assertEquals("[1, {\"a\": \"}\"}]", context.getCtx_fields().get("tags"));
+        assertTrue(context.getCtx_fields().containsKey("status"));
+        assertNull(context.getCtx_fields().get("status"));
+    }
+
+    @Test
+    public void skipUnkeptFields(){
+        RecordParser parser = new RecordParser();
+        parser.setKeptFields(Set.of("speed"));
+        Context context = new Context();
+        char[] line = "{\"fields\":{\"taxiId\":\"B0\",\"nested\":{\"x\":[1,2]},\"speed\":31}}".toCharArray();
+        parser.reset(line, line.length).beginObject();
+        assertEquals("fields", parser.nextName());
+        parser.readFields(context);
+        assertEquals(1, context.getCtx_fields().size());
+        assertEquals("31", context.getCtx_fields().get("speed"));
+    }
+
+    @Test
+    public void malformedRecord(){
+        RecordParser parser = new RecordParser();
+        assertThrows(IllegalArgumentException.class, () -> {
+            parser.reset("{\"fields\": {\"taxiId\": \"B0").beginObject();
+            parser.nextName();
+            parser.readFields(new Context());
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.CC.Contexts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypedContextTest {
+
+    static Map<String, String> sampleFields(){
+        Map<String, String> fields = new HashMap<>();
+        fields.put("taxiId", "B010B0");
+        fields.put("longitude", "114.195917");
+        fields.put("latitude", "22.504620");
+        fields.put("speed", "31");
+        fields.put("status", "1");
+        return fields;
+    }
+
+    @Test
+    public void fieldsViewMatchesMapMode(){
+        ContextSchema schema = new ContextSchema();
+        Map<String, String> fields = sampleFields();
+        Context typed = new Context(schema);
+        typed.setCtx_id("ctx_0");
+        typed.getCtx_fields().putAll(fields);
+
+        assertTrue(typed.isTyped());
+        assertEquals(fields, typed.getCtx_fields());
+        assertEquals(fields, new HashMap<>(typed.getCtx_fields()));
+        assertEquals(ContextSchema.FieldType.DOUBLE, schema.getField("longitude").getType());
+        assertEquals(ContextSchema.FieldType.LONG, schema.getField("speed").getType());
+        assertEquals(ContextSchema.FieldType.STRING, schema.getField("taxiId").getType());
+
+        assertEquals(114.195917, typed.getDouble("longitude"), 0.0);
+        assertEquals(22.50462, typed.getDouble("latitude"), 0.0);
+        assertEquals(31L, typed.getLong("speed"));
+        assertEquals(31.0, typed.getDouble("speed"), 0.0);
+
+        // a value that does not fit its slot type is kept as is
+        typed.getCtx_fields().put("speed", "31.5");
+        assertEquals("31.5", typed.getCtx_fields().get("speed"));
+        assertEquals(31.5, typed.getDouble("speed"), 0.0);
+        typed.getCtx_fields().put("speed", "40");
+        assertEquals(40L, typed.getLong("speed"));
+        assertEquals(fields.size(), typed.getCtx_fields().size());
+
+        typed.getCtx_fields().remove("taxiId");
+        assertNull(typed.getCtx_fields().get("taxiId"));
+        assertFalse(typed.getCtx_fields().containsKey("taxiId"));
+        assertEquals(fields.size() - 1, typed.getCtx_fields().size());
+    }
+
+    @Test
+    public void declaredSchema(){
+        ContextSchema schema = ContextSchema.parse("taxiId:string,status:string,speed:double");
+        Context typed = new Context(schema);
+        typed.getCtx_fields().putAll(sampleFields());
+        assertEquals("1", typed.getCtx_fields().get("status"));
+        assertEquals(ContextSchema.FieldType.STRING, schema.getField("status").getType());
+        assertEquals(31.0, typed.getDouble("speed"), 0.0);
+        assertEquals("31", typed.getCtx_fields().get("speed"));
+
+        Context other = new Context(schema);
+        other.getCtx_fields().put("taxiId", new String("B010B0"));
+        assertSame(typed.getCtx_fields().get("taxiId"), other.getCtx_fields().get("taxiId"));
+    }
+}
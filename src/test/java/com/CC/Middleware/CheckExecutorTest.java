@@ -0,0 +1,127 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Formulas.BfuncInvoker;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckExecutorTest {
+
+    // a task waiting on its own sub-tasks must not starve a single-thread executor
+    @Test
+    public void nestedTasksDoNotStarve() throws Exception {
+        try (CheckExecutor executor = new CheckExecutor(1)) {
+            Future<Integer> outer = executor.submit(() -> {
+                List<Future<Integer>> inner = new ArrayList<>();
+                for(int i = 1; i <= 10; ++i){
+                    int value = i;
+                    inner.add(executor.submit(() -> value));
+                }
+                int sum = 0;
+                for(Future<Integer> future : inner){
+                    sum += future.get();
+                }
+                return sum;
+            });
+            assertEquals(55, (int) outer.get());
+            assertEquals(1, executor.getParallelism());
+        }
+    }
+
+    @Test
+    public void commonIsNeverShutDown() {
+        CheckExecutor common = CheckExecutor.common();
+        assertSame(common, CheckExecutor.common());
+        common.shutdown();
+        assertFalse(common.isShutdown());
+    }
+
+    @Test
+    public void ownedShutsDown() {
+        CheckExecutor executor = new CheckExecutor(0);
+        assertEquals(CheckExecutor.defaultParallelism(), executor.getParallelism());
+        executor.close();
+        assertTrue(executor.isShutdown());
+    }
+
+    // split into ranges below the grain, nested ranges from inside a range included
+    @Test
+    public void invokeRangeKeepsIndexOrder() {
+        try (CheckExecutor executor = new CheckExecutor(2, 2)) {
+            List<Integer> results = executor.invokeRange(0, 100, i -> {
+                int sum = 0;
+                for(int value : executor.invokeRange(0, 5, j -> i)){
+                    sum += value;
+                }
+                return sum;
+            });
+            assertEquals(100, results.size());
+            for(int i = 0; i < 100; ++i){
+                assertEquals(i * 5, (int) results.get(i));
+            }
+        }
+    }
+
+    // results of [from, to) start at index 0, below the grain the caller runs them
+    @Test
+    public void invokeRangeOffsetsResults() {
+        try (CheckExecutor executor = new CheckExecutor(2, 8)) {
+            Thread caller = Thread.currentThread();
+            List<Boolean> inCaller = executor.invokeRange(3, 7, i -> Thread.currentThread() == caller);
+            assertEquals(List.of(true, true, true, true), inCaller);
+            assertEquals(List.of(13, 14), executor.invokeRange(13, 15, i -> i));
+            assertTrue(executor.invokeRange(5, 5, i -> i).isEmpty());
+        }
+    }
+
+    @Test
+    public void invokeRangeRethrowsFailures() {
+        for(CheckExecutor executor : List.of(new CheckExecutor(2, 1), CheckExecutor.virtual(4))){
+            try (executor) {
+                AtomicInteger ran = new AtomicInteger();
+                assertThrows(IllegalStateException.class, () -> executor.forRange(0, 16, i -> {
+                    ran.incrementAndGet();
+                    if(i == 3){
+                        throw new IllegalStateException("three");
+                    }
+                }));
+                assertTrue(ran.get() > 0);
+            }
+        }
+    }
+
+    // stands in for a bfunc asking a lookup service
+    public static class BlockingBfunc {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        public boolean bfunc(String funcName, Map<String, Map<String, String>> vcMap) throws InterruptedException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return true;
+        }
+    }
+
+    // a virtual-thread executor lets at most its permits into a blocking bfunc
+    @Test
+    public void limiterBoundsBfuncCalls() throws Exception {
+        BlockingBfunc bfunc = new BlockingBfunc();
+        BfuncInvoker invoker = BfuncInvoker.bind(bfunc);
+        try (CheckExecutor executor = CheckExecutor.virtual(8)) {
+            for(boolean truth : executor.invokeRange(0, 64, i -> executor.invokeBfunc(invoker, "blocking", Map.of()))){
+                assertTrue(truth);
+            }
+        }
+        assertTrue(bfunc.maxInFlight.get() <= 8);
+    }
+}
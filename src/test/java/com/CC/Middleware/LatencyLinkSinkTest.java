@@ -0,0 +1,34 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyLinkSinkTest {
+
+    @Test
+    public void firstReportOfAViolationInACheckCounts() {
+        AccumulatingLinkSink inner = new AccumulatingLinkSink();
+        LatencyLinkSink sink = new LatencyLinkSink(inner, 16);
+        Link violated = StreamingLinkSinkTest.link(Link.Link_Type.VIOLATED, 0, 1);
+
+        // outside a batch check (init, materialized links): passed on, not timed
+        sink.accept("rule_01", StreamingLinkSinkTest.VARS, false, Set.of(violated));
+        assertEquals(0, sink.getHistogram().getCount());
+
+        sink.beginCheck("rule_01", System.nanoTime() - 2_000_000L);
+        sink.accept("rule_01", StreamingLinkSinkTest.VARS, false, Set.of(violated, StreamingLinkSinkTest.link(Link.Link_Type.VIOLATED, 0, 2)));
+        sink.accept("rule_01", StreamingLinkSinkTest.VARS, true, Set.of(StreamingLinkSinkTest.link(Link.Link_Type.SATISFIED, 3, 4)));
+        // a standing violation reported again
+        sink.accept("rule_01", StreamingLinkSinkTest.VARS, false, Set.of(violated));
+        sink.endCheck("rule_01");
+        sink.accept("rule_01", StreamingLinkSinkTest.VARS, false, Set.of(StreamingLinkSinkTest.link(Link.Link_Type.VIOLATED, 5, 6)));
+
+        assertEquals(2, sink.getHistogram().getCount());
+        assertTrue(sink.getHistogram().quantile(0.5) >= 2_000_000L * 15 / 16);
+        assertEquals(5, inner.getRuleLinksMap().get("rule_01").size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.CC.Middleware.Schedulers;
+
+import com.CC.Constraints.Rules.Rule;
+import com.CC.Contexts.Context;
+import com.CC.Contexts.ContextChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchBoundTest {
+
+    static ContextChange change(long timestamp) {
+        ContextChange change = new ContextChange(ContextChange.Change_Type.ADDITION, "pat_1", new Context());
+        change.setTimestamp(timestamp);
+        return change;
+    }
+
+    static Rule ruleWithBatch(ContextChange... changes) {
+        Rule rule = new Rule("rule_01");
+        rule.setBatch(new ArrayList<>(List.of(changes)));
+        return rule;
+    }
+
+    @Test
+    public void sizeCapIsTestedForTheNextChange() {
+        BatchBound bound = new BatchBound(2, 0, BatchBound.Clock.WALL, null);
+        Rule rule = ruleWithBatch(change(0));
+        assertFalse(bound.isFull(rule));
+        rule.addToBatch(change(0));
+        assertTrue(bound.isFull(rule));
+        assertFalse(bound.isAged(rule));
+        assertFalse(bound.isFull(new Rule("rule_02")));
+    }
+
+    @Test
+    public void eventAgeAdvancesWithAnyChange() {
+        BatchBound bound = new BatchBound(0, 500, BatchBound.Clock.EVENT, null);
+        ContextChange oldest = change(1000);
+        bound.arrive(oldest);
+        Rule quiet = ruleWithBatch(oldest);
+        assertFalse(bound.isAged(quiet));
+
+        // changes of other rules move event time on
+        bound.arrive(change(1400));
+        assertFalse(bound.isAged(quiet));
+        bound.arrive(change(1500));
+        assertTrue(bound.isAged(quiet));
+        // late records do not move it back
+        bound.arrive(change(1200));
+        assertTrue(bound.isAged(quiet));
+        assertEquals(0, bound.getFlushInterval());
+    }
+
+    @Test
+    public void wallAgeAdvancesWithoutChanges() {
+        BatchBound bound = new BatchBound(0, 5, BatchBound.Clock.WALL, null);
+        ContextChange fresh = change(0);
+        bound.arrive(fresh);
+        ContextChange stale = change(0);
+        stale.setArrival(System.nanoTime() - 6_000_000L);
+        assertFalse(bound.isAged(ruleWithBatch(fresh)));
+        assertTrue(bound.isAged(ruleWithBatch(stale, fresh)));
+        assertEquals(2, bound.getFlushInterval());
+        assertEquals(0, new BatchBound(3, 0, BatchBound.Clock.WALL, null).getFlushInterval());
+    }
+}
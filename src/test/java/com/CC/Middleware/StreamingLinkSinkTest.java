@@ -0,0 +1,101 @@
+package com.CC.Middleware;
+
+import com.CC.Constraints.Runtime.Link;
+import com.CC.Constraints.Runtime.VarSlots;
+import com.CC.Contexts.Context;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingLinkSinkTest {
+
+    static final VarSlots VARS = new VarSlots();
+
+    static {
+        VARS.register("v1");
+        VARS.register("v2");
+    }
+
+    static Link link(Link.Link_Type type, long id1, long id2) {
+        Context c1 = new Context();
+        c1.setId(id1);
+        Context c2 = new Context();
+        c2.setId(id2);
+        return new Link(type, VARS.slotOf("v1"), c1).merge(new Link(type, VARS.slotOf("v2"), c2));
+    }
+
+    static List<String> lines(StringWriter out) {
+        return Arrays.asList(out.toString().split("\n"));
+    }
+
+    @Test
+    public void repeatsWithinWindowAreDropped() {
+        StringWriter out = new StringWriter();
+        StreamingLinkSink sink = new StreamingLinkSink(out, 16, 4);
+        for(int i = 0; i < 10; ++i){
+            sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 1)));
+        }
+        sink.accept("rule_01", VARS, true, Set.of(link(Link.Link_Type.SATISFIED, 0, 1)));
+        sink.accept("rule_02", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 1)));
+        sink.close();
+
+        List<String> lines = lines(out);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("rule_01(VIOLATED,{"));
+        assertTrue(lines.get(0).contains("(v1,1)") && lines.get(0).contains("(v2,2)"));
+        assertTrue(lines.get(1).startsWith("rule_01(SATISFIED,{"));
+        assertTrue(lines.get(2).startsWith("rule_02(VIOLATED,{"));
+        assertEquals(3, sink.getWritten());
+        assertEquals(9, sink.getDuplicates());
+    }
+
+    @Test
+    public void windowIsBounded() {
+        StringWriter out = new StringWriter();
+        StreamingLinkSink sink = new StreamingLinkSink(out, 2, 4);
+        sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 1)));
+        sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 2)));
+        // still within the window
+        sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 1)));
+        sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 3)));
+        // (0, 2) was the least recently seen, evicted by (0, 3)
+        sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, 2)));
+        sink.close();
+
+        assertEquals(4, lines(out).size());
+        assertEquals(1, sink.getDuplicates());
+    }
+
+    @Test
+    public void writeFailureSurfacesOnClose() {
+        StreamingLinkSink sink = new StreamingLinkSink(new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        }, 16, 1);
+        // the writer keeps draining after the failure, producers never block
+        for(int i = 0; i < 8; ++i){
+            try {
+                sink.accept("rule_01", VARS, false, Set.of(link(Link.Link_Type.VIOLATED, 0, i)));
+            } catch (RuntimeException e) {
+                assertEquals("disk full", e.getCause().getMessage());
+            }
+        }
+        RuntimeException e = assertThrows(RuntimeException.class, sink::close);
+        assertEquals("disk full", e.getCause().getMessage());
+    }
+}
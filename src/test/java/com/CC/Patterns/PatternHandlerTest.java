@@ -0,0 +1,46 @@
+package com.CC.Patterns;
+
+import com.CC.Contexts.Context;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PatternHandlerTest {
+
+    static Path patternFile(String id, String taxiId) throws Exception {
+        Path file = Files.createTempFile("patterns", ".xml");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, "<?xml version=\"1.0\"?>\n<patterns>\n    <pattern>\n        <id>" + id + "</id>\n"
+                + "        <freshness>\n            <type>number</type>\n            <value>10</value>\n        </freshness>\n"
+                + "        <matcher>\n            <type>primaryKey</type>\n            <primaryKey>taxiId</primaryKey>\n"
+                + "            <optionalValueList>\n                <value>" + taxiId + "</value>\n"
+                + "            </optionalValueList>\n        </matcher>\n    </pattern>\n</patterns>\n");
+        return file;
+    }
+
+    static List<Pattern> match(PatternHandler patternHandler, String taxiId){
+        Context context = new Context();
+        context.getCtx_fields().put("taxiId", taxiId);
+        List<Pattern> matched = new ArrayList<>();
+        patternHandler.getPatternIndex().match(context, matched);
+        return matched;
+    }
+
+    // reloading a pattern id keeps the pattern count, the dispatch must still follow the new matcher
+    @Test
+    public void replacedPatternIsDispatchedByItsNewMatcher() throws Exception {
+        PatternHandler patternHandler = new PatternHandler();
+        patternHandler.buildPatterns(patternFile("pat_taxi", "A").toString(), null);
+        assertEquals(1, match(patternHandler, "A").size());
+        assertEquals(0, match(patternHandler, "B").size());
+
+        patternHandler.buildPatterns(patternFile("pat_taxi", "B").toString(), null);
+        assertEquals(0, match(patternHandler, "A").size());
+        assertEquals(List.of(patternHandler.getPatternMap().get("pat_taxi")), match(patternHandler, "B"));
+    }
+}
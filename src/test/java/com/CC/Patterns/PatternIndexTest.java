@@ -0,0 +1,63 @@
+package com.CC.Patterns;
+
+import com.CC.Contexts.Context;
+import com.CC.Patterns.matcher.AbstractMatcher;
+import com.CC.Patterns.matcher.PrimaryKeyMatcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PatternIndexTest {
+
+    static Pattern pattern(String id, AbstractMatcher matcher){
+        Pattern pattern = new Pattern();
+        pattern.setPatternId(id);
+        pattern.setMatcher(matcher);
+        return pattern;
+    }
+
+    static PrimaryKeyMatcher primaryKey(String field, String... values){
+        PrimaryKeyMatcher matcher = new PrimaryKeyMatcher(field);
+        for(String value : values){
+            matcher.addOptionalValue(value);
+        }
+        return matcher;
+    }
+
+    @Test
+    public void sameMatchesAsLinearScan(){
+        List<Pattern> patterns = new ArrayList<>();
+        patterns.add(pattern("pat_0", primaryKey("taxiId", "A", "B")));
+        patterns.add(pattern("pat_1", null));
+        patterns.add(pattern("pat_2", primaryKey("status", "1")));
+        patterns.add(pattern("pat_3", primaryKey("taxiId", "B", "C", "B")));
+        patterns.add(pattern("pat_4", new AbstractMatcher() {
+            @Override
+            public boolean match(Context context) {
+                return "C".equals(context.getCtx_fields().get("taxiId"));
+            }
+        }));
+        patterns.add(pattern("pat_5", primaryKey("status", "0", "1")));
+        PatternIndex index = new PatternIndex(patterns);
+
+        for(String taxiId : new String[]{"A", "B", "C", "D", null}){
+            for(String status : new String[]{"0", "1", null}){
+                Context context = new Context();
+                if(taxiId != null) context.getCtx_fields().put("taxiId", taxiId);
+                if(status != null) context.getCtx_fields().put("status", status);
+                List<Pattern> expected = new ArrayList<>();
+                for(Pattern pattern : patterns){
+                    if(pattern.getMatcher() == null || pattern.getMatcher().match(context)){
+                        expected.add(pattern);
+                    }
+                }
+                List<Pattern> matched = new ArrayList<>();
+                index.match(context, matched);
+                assertEquals(expected, matched);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.CC.Patterns.matcher;
+
+import com.CC.Contexts.Context;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionMatcherTest {
+
+    // reads "status", and "taxiId" only when status is 1
+    public static class CountingMfunc {
+        int calls = 0;
+
+        public boolean mfunc(final String funcName, final Map<String, String> ctxFields, final List<String> extraArgumentList) {
+            calls++;
+            if(!"1".equals(ctxFields.get("status"))){
+                return false;
+            }
+            return extraArgumentList.contains(ctxFields.get("taxiId"));
+        }
+    }
+
+    public static class IteratingMfunc {
+        public boolean mfunc(final String funcName, final Map<String, String> ctxFields, final List<String> extraArgumentList) {
+            return ctxFields.size() > 2;
+        }
+    }
+
+    private static Context context(String status, String taxiId, String other) {
+        Context context = new Context();
+        context.getCtx_fields().put("status", status);
+        context.getCtx_fields().put("taxiId", taxiId);
+        context.getCtx_fields().put("other", other);
+        return context;
+    }
+
+    @Test
+    public void invokesBoundMfunc() {
+        CountingMfunc mfunc = new CountingMfunc();
+        FunctionMatcher matcher = new FunctionMatcher("f", mfunc);
+        matcher.addExtraArg("A");
+        assertSame(mfunc, matcher.getMfuncInstance());
+        assertTrue(matcher.match(context("1", "A", "x")));
+        assertFalse(matcher.match(context("1", "B", "x")));
+        assertFalse(matcher.match(context("0", "A", "x")));
+        assertEquals(3, mfunc.calls);
+    }
+
+    @Test
+    public void memoGrowsKeyWithReadFields() {
+        CountingMfunc mfunc = new CountingMfunc();
+        FunctionMatcher matcher = new FunctionMatcher("f", mfunc);
+        matcher.addExtraArg("A");
+        matcher.enableMemo(16);
+        assertFalse(matcher.match(context("0", "A", "x")));
+        assertFalse(matcher.match(context("0", "B", "y")));
+        assertEquals(1, mfunc.calls);
+        // reads taxiId for the first time: key widens, results stay exact
+        assertTrue(matcher.match(context("1", "A", "x")));
+        assertFalse(matcher.match(context("1", "B", "x")));
+        assertTrue(matcher.match(context("1", "A", "z")));
+        assertFalse(matcher.match(context("0", "A", "x")));
+        assertEquals(4, mfunc.calls);
+        assertTrue(matcher.isMemoActive());
+    }
+
+    @Test
+    public void memoOffForWholeMapAccess() {
+        FunctionMatcher matcher = new FunctionMatcher("f", new IteratingMfunc());
+        matcher.enableMemo(16);
+        assertTrue(matcher.match(context("0", "A", "x")));
+        assertFalse(matcher.isMemoActive());
+        Context small = new Context();
+        small.getCtx_fields().put("status", "0");
+        assertFalse(matcher.match(small));
+    }
+}
@@ -0,0 +1,34 @@
+package com.CC.Util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        for(long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE}){
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.bucketOf(value));
+            assertTrue(lower <= value);
+            assertTrue(value - lower <= value / 16);
+        }
+    }
+
+    @Test
+    public void quantilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.quantile(0.5));
+        for(long value = 1; value <= 1000; ++value){
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        long p50 = histogram.quantile(0.5);
+        assertTrue(p50 <= 500 && p50 >= 500 - 500 / 16);
+        long p99 = histogram.quantile(0.99);
+        assertTrue(p99 <= 990 && p99 >= 990 - 990 / 16);
+        assertEquals(1, histogram.quantile(0));
+    }
+}
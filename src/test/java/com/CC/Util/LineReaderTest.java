@@ -0,0 +1,57 @@
+package com.CC.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LineReaderTest {
+
+    static List<String> readLines(Reader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (LineReader lineReader = new LineReader(reader)) {
+            while(lineReader.nextLine()){
+                lines.add(new String(lineReader.getLine(), 0, lineReader.getLength()));
+            }
+        }
+        return lines;
+    }
+
+    // hands out one char per read, so every "\r\n" is split across chunks
+    static Reader oneCharAtATime(String text) {
+        return new StringReader(text) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    public void sameLinesAsBufferedReader() throws IOException {
+        Random random = new Random(5);
+        char[] alphabet = {'a', 'b', '\n', '\r'};
+        for(int round = 0; round < 500; ++round){
+            StringBuilder text = new StringBuilder();
+            int n = random.nextInt(40);
+            for(int i = 0; i < n; ++i){
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            List<String> expected = new BufferedReader(new StringReader(text.toString())).lines().toList();
+            assertEquals(expected, readLines(new StringReader(text.toString())));
+            assertEquals(expected, readLines(oneCharAtATime(text.toString())));
+        }
+    }
+
+    @Test
+    public void bareCarriageReturnEndsALine() throws IOException {
+        assertEquals(List.of("a", "b", "", "c"), readLines(new StringReader("a\rb\r\n\rc")));
+    }
+}
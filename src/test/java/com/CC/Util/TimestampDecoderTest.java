@@ -0,0 +1,42 @@
+package com.CC.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimestampDecoderTest {
+
+    static String[] samples(){
+        Random random = new Random(7);
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(TimestampDecoder.PATTERN);
+        long base = 1302235200806L;
+        String[] samples = new String[4096];
+        for(int i = 0; i < samples.length; ++i){
+            samples[i] = simpleDateFormat.format(new Date(base + (long) (random.nextDouble() * 400L * 24 * 3600 * 1000)));
+        }
+        return samples;
+    }
+
+    @Test
+    public void sameResultsAsSimpleDateFormat() throws Exception {
+        for(String zoneId : new String[]{"UTC", "Asia/Shanghai", "Europe/Berlin", "America/New_York"}){
+            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(TimestampDecoder.PATTERN);
+            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(zoneId));
+            TimestampDecoder decoder = new TimestampDecoder(ZoneId.of(zoneId));
+            for(String sample : samples()){
+                assertEquals(simpleDateFormat.parse(sample).getTime(), decoder.decode(sample));
+            }
+            // DST edges (gap and overlap in Europe/Berlin) and lenient layouts go through the fallback
+            for(String sample : new String[]{"2011-03-27 02:30:00:000", "2011-10-30 02:30:00:000", "2011-4-8 4:00:00:806", "2011-04-31 04:00:00:806"}){
+                assertEquals(simpleDateFormat.parse(sample).getTime(), decoder.decode(sample));
+            }
+        }
+        assertEquals(1302235200806L, new TimestampDecoder().decode("1302235200806"));
+    }
+}